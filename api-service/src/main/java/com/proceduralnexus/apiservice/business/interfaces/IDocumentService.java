@@ -1,19 +1,36 @@
 package com.proceduralnexus.apiservice.business.interfaces;
 
+import com.proceduralnexus.apiservice.business.storage.DocumentArchive;
+import com.proceduralnexus.apiservice.business.storage.DocumentContent;
+import com.proceduralnexus.apiservice.business.storage.DocumentDownload;
+import com.proceduralnexus.apiservice.business.storage.DocumentPreview;
+import com.proceduralnexus.apiservice.controller.dtos.DocumentPageDto;
 import com.proceduralnexus.apiservice.controller.dtos.DocumentResponseDto;
+import com.proceduralnexus.apiservice.controller.dtos.DocumentSearchResultDto;
+import com.proceduralnexus.apiservice.data.entities.Document;
 import com.proceduralnexus.apiservice.data.entities.Profile;
-import org.springframework.core.io.Resource;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.nio.file.Path;
 import java.util.List;
 import java.util.UUID;
 
 public interface IDocumentService {
     DocumentResponseDto uploadDocument(MultipartFile file, String batchId, Profile uploader, String name, String type);
+    List<DocumentResponseDto> uploadDocuments(List<MultipartFile> files, String batchId, Profile uploader, String type);
+    DocumentResponseDto importDocument(Path source, String originalFileName, String batchId, Profile uploader, String name, String type, String expectedDigest);
     List<DocumentResponseDto> getDocuments(UUID uploaderId);
+    DocumentPageDto getDocumentPage(UUID uploaderId, String type, Boolean signed, String batchId, String cursor, Integer limit);
+    DocumentSearchResultDto searchDocuments(String query, UUID uploaderId, String type, Integer offset, Integer limit);
     DocumentResponseDto getDocumentMetadata(Long id);
-    Resource loadDocumentFile(Long id);
+    DocumentContent loadDocumentFile(Long id);
+    DocumentDownload openDocument(Long id);
+    DocumentPreview getDocumentPreview(Long id);
+    DocumentArchive exportDocuments(String batchId, UUID uploaderId);
     void deleteDocument(Long id);
+    String backfillContentHash(Long id);
+    void deleteDocumentsOfUploader(UUID uploaderId, Document.DocumentType keepType);
+    void releaseContentOfUploader(UUID uploaderId);
     DocumentResponseDto signDocument(Long id);
     DocumentResponseDto patchDocumentSigned(Long id, Boolean signed);
 }
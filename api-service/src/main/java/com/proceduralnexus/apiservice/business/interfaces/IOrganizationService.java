@@ -7,6 +7,7 @@ import com.proceduralnexus.apiservice.controller.dtos.OrganizationUpdateDto;
 import com.proceduralnexus.apiservice.data.entities.Profile;
 
 import java.util.List;
+import java.util.UUID;
 
 public interface IOrganizationService {
 
@@ -17,7 +18,7 @@ public interface IOrganizationService {
     OrganizationResponseDto createOrganization(OrganizationCreateDto request, Profile owner);
 
     OrganizationResponseDto updateOrganization(Long id, OrganizationUpdateDto request,
-                                               Profile currentUser, boolean isAdmin);
+                                               UUID currentUserId, boolean isAdmin);
     List<OrganizationMemberDto> getOrganizationMembers(Long organizationId);
-    void deleteOrganization(Long organizationId, Profile currentUser, boolean isAdmin);
+    void deleteOrganization(Long organizationId, UUID currentUserId, boolean isAdmin);
 }
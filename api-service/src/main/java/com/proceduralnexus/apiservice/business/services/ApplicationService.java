@@ -18,6 +18,8 @@ import com.proceduralnexus.apiservice.data.repositories.ApplicationRepository;
 import com.proceduralnexus.apiservice.data.repositories.DocumentRepository;
 import com.proceduralnexus.apiservice.data.repositories.OrganizationRepository;
 import com.proceduralnexus.apiservice.data.repositories.ProfileRepository;
+import com.proceduralnexus.apiservice.security.CurrentUser;
+import com.proceduralnexus.apiservice.security.TokenVersionService;
 
 @Service
 public class ApplicationService {
@@ -27,31 +29,34 @@ public class ApplicationService {
     private final OrganizationRepository organizationRepository;
     private final DocumentRepository documentRepository;
     private final EmailService emailService;
+    private final TokenVersionService tokenVersionService;
+    private final CurrentUser currentUser;
 
     public ApplicationService(
             ApplicationRepository applicationRepository,
             ProfileRepository profileRepository,
             OrganizationRepository organizationRepository,
             DocumentRepository documentRepository,
-            EmailService emailService
+            EmailService emailService,
+            TokenVersionService tokenVersionService,
+            CurrentUser currentUser
     ) {
         this.applicationRepository = applicationRepository;
         this.profileRepository = profileRepository;
         this.organizationRepository = organizationRepository;
         this.documentRepository = documentRepository;
         this.emailService = emailService;
+        this.tokenVersionService = tokenVersionService;
+        this.currentUser = currentUser;
     }
 
     @Transactional
-    public ApplicationResponseDto createApplication(String applicantEmail, ApplicationCreateRequestDto req) {
+    public ApplicationResponseDto createApplication(ApplicationCreateRequestDto req) {
         if (req.getOrganizationId() == null) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "organizationId is required");
         }
 
-        Profile applicant = profileRepository.findByEmail(applicantEmail)
-                .orElseThrow(() -> {
-                    return new ResponseStatusException(HttpStatus.NOT_FOUND, "Applicant profile not found");
-                });
+        Profile applicant = currentUser.getProfile();
 
         Organization org = organizationRepository.findById(req.getOrganizationId())
                 .orElseThrow(() -> {
@@ -81,16 +86,13 @@ public class ApplicationService {
         return toDto(saved);
     }
 
-    public List<ApplicationResponseDto> listPendingForHr(String hrEmail) {
-        Profile hr = profileRepository.findByEmail(hrEmail)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "HR profile not found"));
-
-        if (hr.getOrganization() == null) {
+    @Transactional(readOnly = true)
+    public List<ApplicationResponseDto> listPendingForHr() {
+        Long orgId = currentUser.getOrganizationId();
+        if (orgId == null) {
             return List.of();
         }
 
-        Long orgId = hr.getOrganization().getId();
-
         return applicationRepository
                 .findByOrganization_IdAndStatusOrderByCreatedAtDesc(orgId, Application.ApplicationStatus.PENDING)
                 .stream()
@@ -98,59 +100,48 @@ public class ApplicationService {
                 .collect(Collectors.toList());
     }
 
-    public List<ApplicationResponseDto> listForApplicant(String applicantEmail) {
-        Profile applicant = profileRepository.findByEmail(applicantEmail)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Applicant profile not found"));
-
+    @Transactional(readOnly = true)
+    public List<ApplicationResponseDto> listForApplicant() {
         return applicationRepository
-                .findByApplicant_IdOrderByCreatedAtDesc(applicant.getId())
+                .findByApplicant_IdOrderByCreatedAtDesc(currentUser.getId())
                 .stream()
                 .map(this::toDto)
                 .collect(Collectors.toList());
     }
 
     @Transactional
-    public void accept(Long applicationId, String hrEmail) {
-        Profile hr = profileRepository.findByEmail(hrEmail)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "HR profile not found"));
-
-        if (hr.getOrganization() == null) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "HR has no organization");
-        }
+    public void accept(Long applicationId) {
+        Long orgId = currentUser.requireOrganizationId("HR has no organization");
 
         Application app = applicationRepository.findById(applicationId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Application not found"));
 
-        if (!app.getOrganization().getId().equals(hr.getOrganization().getId())) {
+        if (!app.getOrganization().getId().equals(orgId)) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not allowed for this organization");
         }
 
         Profile applicant = app.getApplicant();
-        Organization organization = hr.getOrganization();
+        Organization organization = app.getOrganization();
         
         applicant.setOrganization(organization);
+        tokenVersionService.revokeTokens(applicant);
         profileRepository.save(applicant);
 
         applicationRepository.delete(app);
 
-        // Send acceptance email notification
-        try {
-            String userName = applicant.getFirstname() + " " + applicant.getLastname();
-            emailService.sendApplicationAcceptedEmail(applicant.getEmail(), userName, organization.getName());
-        } catch (Exception e) {
-            System.err.println("Failed to send application accepted email: " + e.getMessage());
-        }
+        // Queued in this transaction, so the email goes out only if the acceptance commits
+        String userName = applicant.getFirstname() + " " + applicant.getLastname();
+        emailService.sendApplicationAcceptedEmail(applicant.getEmail(), userName, organization.getName());
     }
 
     @Transactional
-    public void reject(Long applicationId, String hrEmail) {
-        Profile hr = profileRepository.findByEmail(hrEmail)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "HR profile not found"));
+    public void reject(Long applicationId) {
+        Long orgId = currentUser.getOrganizationId();
 
         Application app = applicationRepository.findById(applicationId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Application not found"));
 
-        if (hr.getOrganization() == null || !app.getOrganization().getId().equals(hr.getOrganization().getId())) {
+        if (orgId == null || !app.getOrganization().getId().equals(orgId)) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not allowed for this organization");
         }
 
@@ -159,13 +150,9 @@ public class ApplicationService {
         
         applicationRepository.delete(app);
 
-        // Send rejection email notification
-        try {
-            String userName = applicant.getFirstname() + " " + applicant.getLastname();
-            emailService.sendApplicationRejectedEmail(applicant.getEmail(), userName, organization.getName(), null);
-        } catch (Exception e) {
-            System.err.println("Failed to send application rejected email: " + e.getMessage());
-        }
+        // Queued in this transaction, so the email goes out only if the rejection commits
+        String userName = applicant.getFirstname() + " " + applicant.getLastname();
+        emailService.sendApplicationRejectedEmail(applicant.getEmail(), userName, organization.getName(), null);
     }
 
     private ApplicationResponseDto toDto(Application app) {
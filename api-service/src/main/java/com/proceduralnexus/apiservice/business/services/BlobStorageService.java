@@ -0,0 +1,589 @@
+package com.proceduralnexus.apiservice.business.services;
+
+import com.proceduralnexus.apiservice.business.storage.DocumentContent;
+import com.proceduralnexus.apiservice.business.storage.DocumentStore;
+import com.proceduralnexus.apiservice.business.storage.FramedDeflate;
+import com.proceduralnexus.apiservice.data.entities.BlobCodec;
+import com.proceduralnexus.apiservice.data.entities.StoredBlob;
+import com.proceduralnexus.apiservice.data.repositories.DocumentRepository;
+import com.proceduralnexus.apiservice.data.repositories.StoredBlobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.DigestInputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Content-addressed storage for document bytes.
+ * <p>
+ * Uploads are hashed with SHA-256 while they are streamed to a local staging file. Each unique
+ * digest is then kept once in the configured {@link DocumentStore}, keyed by the digest, and
+ * shared by every document with the same content; {@code stored_blob.ref_count} tracks how
+ * many documents point at it and the object is removed once the last reference is released.
+ * <p>
+ * Placing and removing blobs is serialized per digest with a database lock held until the
+ * surrounding transaction ends, so instances sharing the database and the store take turns:
+ * an upload cannot deduplicate against an object that a release or the reconciler is about
+ * to delete, and objects are only deleted after re-checking, under the lock, that no blob row
+ * has appeared for them.
+ * <p>
+ * When compression at rest is enabled, the first bytes of every upload are test-deflated;
+ * uploads that shrink enough are compressed into {@link FramedDeflate} frames while they are
+ * staged and stored under {@code <digest>.dz}. The digest is always that of the original
+ * bytes, and downloads decode the frames on the fly.
+ * <p>
+ * A rendered preview of the content may be kept next to the blob under
+ * {@code <digest>.preview.jpg}; it lives and dies with the blob.
+ */
+@Service
+public class BlobStorageService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BlobStorageService.class);
+
+    public static final String DIGEST_ALGORITHM = "SHA-256";
+    public static final String REFERENCE_PREFIX = "sha256:";
+
+    private static final String DEFLATE_KEY_SUFFIX = ".dz";
+    private static final String PREVIEW_KEY_SUFFIX = ".preview.jpg";
+    private static final Pattern DIGEST_PATTERN = Pattern.compile("[0-9a-f]{64}");
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+    private static final int COMPRESSION_SAMPLE_SIZE = 64 * 1024;
+
+    private final StoredBlobRepository storedBlobRepository;
+    private final DocumentRepository documentRepository;
+    private final DocumentStore documentStore;
+    private final TransactionTemplate transactionTemplate;
+    private final Path stagingDirectory;
+
+    private final boolean compressionEnabled;
+    private final int compressionLevel;
+    private final int compressionFrameSize;
+    private final double compressionMaxRatio;
+
+    public BlobStorageService(
+            StoredBlobRepository storedBlobRepository,
+            DocumentRepository documentRepository,
+            DocumentStore documentStore,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.documents.storage-path:uploads}") String storagePath,
+            @Value("${app.documents.store.compression.enabled:true}") boolean compressionEnabled,
+            @Value("${app.documents.store.compression.level:6}") int compressionLevel,
+            @Value("${app.documents.store.compression.frame-size:256KB}") DataSize compressionFrameSize,
+            @Value("${app.documents.store.compression.max-ratio:0.9}") double compressionMaxRatio
+    ) {
+        this.storedBlobRepository = storedBlobRepository;
+        this.documentRepository = documentRepository;
+        this.documentStore = documentStore;
+        // Also used from transaction callbacks, where only a new transaction can run statements.
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.compressionEnabled = compressionEnabled;
+        this.compressionLevel = compressionLevel;
+        this.compressionFrameSize = (int) compressionFrameSize.toBytes();
+        this.compressionMaxRatio = compressionMaxRatio;
+        this.stagingDirectory = Paths.get(storagePath).toAbsolutePath().normalize().resolve(".staging");
+
+        try {
+            Files.createDirectories(this.stagingDirectory);
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not create the blob staging directory.", ex);
+        }
+    }
+
+    /**
+     * Streams {@code in} to a staging file, hashing the bytes on the way through and
+     * compressing them when a sample of the input shows it is worthwhile.
+     */
+    public StagedBlob stage(InputStream in) throws IOException {
+        byte[] sample = in.readNBytes(COMPRESSION_SAMPLE_SIZE);
+        BlobCodec codec = chooseCodec(sample, sample.length);
+
+        MessageDigest digest = newDigest();
+        Path staged = stagingDirectory.resolve(UUID.randomUUID() + ".tmp");
+
+        long size;
+        try (OutputStream out = new DigestOutputStream(encoder(Files.newOutputStream(staged), codec), digest)) {
+            out.write(sample);
+            size = sample.length + in.transferTo(out);
+        } catch (IOException ex) {
+            Files.deleteIfExists(staged);
+            throw ex;
+        }
+
+        return new StagedBlob(staged, HexFormat.of().formatHex(digest.digest()), size, Files.size(staged), codec);
+    }
+
+    /**
+     * Hashes a file that is already on disk (e.g. an assembled chunked upload) so it can be
+     * stored without copying it again. A compressible file is instead compressed into a new
+     * staging file and the original is deleted.
+     */
+    public StagedBlob stageFile(Path file) throws IOException {
+        byte[] sample;
+        try (InputStream in = Files.newInputStream(file)) {
+            sample = in.readNBytes(COMPRESSION_SAMPLE_SIZE);
+        }
+
+        if (chooseCodec(sample, sample.length) != BlobCodec.NONE) {
+            StagedBlob staged;
+            try (InputStream in = Files.newInputStream(file)) {
+                staged = stage(in);
+            }
+            Files.deleteIfExists(file);
+            return staged;
+        }
+
+        MessageDigest digest = newDigest();
+        byte[] buffer = new byte[COPY_BUFFER_SIZE];
+
+        long size = 0;
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                size += read;
+            }
+        }
+
+        return new StagedBlob(file, HexFormat.of().formatHex(digest.digest()), size, size, BlobCodec.NONE);
+    }
+
+    private BlobCodec chooseCodec(byte[] sample, int length) {
+        if (compressionEnabled
+                && FramedDeflate.isCompressible(sample, length, compressionLevel, compressionMaxRatio)) {
+            return BlobCodec.DEFLATE;
+        }
+        return BlobCodec.NONE;
+    }
+
+    private OutputStream encoder(OutputStream out, BlobCodec codec) throws IOException {
+        return codec == BlobCodec.DEFLATE
+                ? FramedDeflate.compressor(out, compressionFrameSize, compressionLevel)
+                : out;
+    }
+
+    /**
+     * Moves a staged file into the blob store (or drops it if the content is already
+     * present) and takes a reference on the digest. Must run inside the transaction that
+     * persists the referencing document.
+     *
+     * @return the codec the stored content is kept in, which the document must record
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public BlobCodec store(StagedBlob staged) throws IOException {
+        return storeAll(List.of(staged), Runnable::run).get(staged.digest());
+    }
+
+    /**
+     * Stores several staged files for one transaction, uploading distinct digests in
+     * parallel on {@code executor}. Files sharing a digest are stored once and take one
+     * reference each.
+     *
+     * @return the codec each digest is kept in
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Map<String, BlobCodec> storeAll(List<StagedBlob> staged, Executor executor) throws IOException {
+        Map<String, List<StagedBlob>> byDigest = staged.stream()
+                .collect(Collectors.groupingBy(StagedBlob::digest, LinkedHashMap::new, Collectors.toList()));
+
+        // Always lock in ascending order so concurrent batches cannot deadlock.
+        byDigest.keySet().stream()
+                .mapToLong(BlobStorageService::lockKey)
+                .distinct()
+                .sorted()
+                .forEach(storedBlobRepository::lock);
+
+        Set<String> placedKeys = ConcurrentHashMap.newKeySet();
+        Map<String, Placement> placements = new ConcurrentHashMap<>();
+        try {
+            Map<String, StoredBlob> existing = storedBlobRepository.findAllById(byDigest.keySet()).stream()
+                    .collect(Collectors.toMap(StoredBlob::getDigest, blob -> blob));
+
+            List<CompletableFuture<Void>> puts = byDigest.values().stream()
+                    .map(copies -> CompletableFuture.runAsync(
+                            () -> place(copies, existing.get(copies.get(0).digest()), placedKeys, placements),
+                            executor))
+                    .toList();
+            await(puts);
+
+            byDigest.forEach((digest, copies) -> {
+                Placement placement = placements.get(digest);
+                int updated = storedBlobRepository.addReferences(
+                        digest, placement.storedSize(), placement.codec(), copies.size());
+                if (updated == 0) {
+                    storedBlobRepository.insert(
+                            digest,
+                            copies.get(0).size(),
+                            placement.storedSize(),
+                            placement.codec().name(),
+                            copies.size()
+                    );
+                }
+            });
+        } catch (IOException | RuntimeException ex) {
+            // Still under the locks, so nobody can have deduplicated against these yet.
+            placedKeys.forEach(this::deleteQuietly);
+            throw ex;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    // Nothing committed a reference to the blobs we just created, but the locks are
+                    // gone, so another upload of the same content may have claimed them since.
+                    placedKeys.forEach(key -> deleteUnlessStored(digestOf(key), List.of(key)));
+                }
+            }
+        });
+
+        Map<String, BlobCodec> codecs = new LinkedHashMap<>();
+        placements.forEach((digest, placement) -> codecs.put(digest, placement.codec()));
+        return codecs;
+    }
+
+    private void place(List<StagedBlob> copies, StoredBlob existing, Set<String> placedKeys,
+                       Map<String, Placement> placements) {
+        StagedBlob first = copies.get(0);
+        try {
+            if (existing != null && documentStore.exists(objectKey(first.digest(), existing.getStorageCodec()))) {
+                // Same content is already stored, possibly in another codec; keep that copy.
+                Files.deleteIfExists(first.file());
+                long storedSize = existing.getStoredSizeInBytes() != null
+                        ? existing.getStoredSizeInBytes()
+                        : existing.getSizeInBytes();
+                placements.put(first.digest(), new Placement(existing.getStorageCodec(), storedSize));
+            } else {
+                String key = objectKey(first.digest(), first.codec());
+                if (documentStore.exists(key)) {
+                    Files.deleteIfExists(first.file());
+                } else {
+                    documentStore.put(key, first.file(), first.storedSize());
+                    placedKeys.add(key);
+                }
+                placements.put(first.digest(), new Placement(first.codec(), first.storedSize()));
+            }
+            for (StagedBlob duplicate : copies.subList(1, copies.size())) {
+                Files.deleteIfExists(duplicate.file());
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static void await(List<CompletableFuture<Void>> futures) throws IOException {
+        try {
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Drops one reference to {@code digest}. When it was the last one, the blob row is
+     * removed and the object is deleted after the transaction commits. The digest lock is only
+     * taken for that delete, so a transaction that releases one blob and stores another never
+     * holds two locks out of order.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void release(String digest) {
+        BlobCodec codec = storedBlobRepository.findStorageCodec(digest).orElse(BlobCodec.NONE);
+        storedBlobRepository.release(digest);
+        if (storedBlobRepository.deleteIfUnreferenced(digest) == 0) {
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                deleteUnlessStored(digest, List.of(objectKey(digest, codec), previewKey(digest)));
+            }
+        });
+    }
+
+    /**
+     * Deletes {@code keys} of {@code digest} unless an upload of the same content has created
+     * its blob row again since the lock was last released.
+     */
+    private void deleteUnlessStored(String digest, List<String> keys) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                storedBlobRepository.lock(lockKey(digest));
+                if (!storedBlobRepository.existsById(digest)) {
+                    keys.forEach(this::deleteQuietly);
+                }
+            });
+        } catch (RuntimeException ex) {
+            // The objects stay behind as orphans; the storage reconciler removes them later.
+            logger.warn("Could not remove the objects of blob {}: {}", digest, ex.getMessage());
+        }
+    }
+
+    /**
+     * Resets the reference count of {@code digest} to the number of documents that point at
+     * it. A blob nothing references any more loses its row once it is older than
+     * {@code notAfter}; its object is left to {@link #removeIfUnreferenced}.
+     *
+     * @return whether the row had to be changed
+     */
+    public boolean repairReferences(String digest, Instant notAfter) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            storedBlobRepository.lock(lockKey(digest));
+            StoredBlob blob = storedBlobRepository.findById(digest).orElse(null);
+            if (blob == null) {
+                return false;
+            }
+            int references = (int) documentRepository.countByContentHash(digest);
+            if (references == 0 && blob.getCreatedAt() != null && blob.getCreatedAt().isBefore(notAfter)) {
+                storedBlobRepository.delete(blob);
+                return true;
+            }
+            if (blob.getRefCount() == references) {
+                return false;
+            }
+            storedBlobRepository.setRefCount(digest, references);
+            return true;
+        }));
+    }
+
+    /**
+     * Deletes or quarantines the object under {@code key} unless a document still references
+     * it. The check and the removal run under the digest lock, so they cannot race an upload
+     * of the same content on any instance.
+     *
+     * @return whether the object was removed
+     */
+    public boolean removeIfUnreferenced(String key, boolean quarantine) throws IOException {
+        String digest = digestOf(key);
+        if (digest == null) {
+            return false;
+        }
+
+        try {
+            return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                storedBlobRepository.lock(lockKey(digest));
+                boolean referenced;
+                if (isPreviewKey(key)) {
+                    referenced = documentRepository.countByContentHash(digest) > 0;
+                } else {
+                    BlobCodec codec = key.endsWith(DEFLATE_KEY_SUFFIX) ? BlobCodec.DEFLATE : BlobCodec.NONE;
+                    referenced = documentRepository.existsByContentHashAndStorageCodec(digest, codec)
+                            || (codec == BlobCodec.NONE && documentRepository.existsByContentHashAndStorageCodecIsNull(digest));
+                }
+                if (referenced) {
+                    return false;
+                }
+                try {
+                    if (quarantine) {
+                        documentStore.quarantine(key);
+                    } else {
+                        documentStore.delete(key);
+                    }
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+                return true;
+            }));
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    /**
+     * The digest an object key was derived from, or {@code null} when the key was not
+     * written by this service.
+     */
+    public static String digestOf(String key) {
+        String digest = key;
+        if (key.endsWith(DEFLATE_KEY_SUFFIX)) {
+            digest = key.substring(0, key.length() - DEFLATE_KEY_SUFFIX.length());
+        } else if (isPreviewKey(key)) {
+            digest = key.substring(0, key.length() - PREVIEW_KEY_SUFFIX.length());
+        }
+        return DIGEST_PATTERN.matcher(digest).matches() ? digest : null;
+    }
+
+    public static boolean isPreviewKey(String key) {
+        return key.endsWith(PREVIEW_KEY_SUFFIX);
+    }
+
+    /**
+     * Stores a rendered preview next to the blob of {@code digest}, unless the blob has been
+     * released in the meantime.
+     */
+    public void storePreview(String digest, byte[] image) throws IOException {
+        Path staged = stagingDirectory.resolve(UUID.randomUUID() + ".tmp");
+        Files.write(staged, image);
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                storedBlobRepository.lock(lockKey(digest));
+                if (storedBlobRepository.existsById(digest)) {
+                    try {
+                        documentStore.put(previewKey(digest), staged, image.length);
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                }
+            });
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        } finally {
+            Files.deleteIfExists(staged);
+        }
+    }
+
+    /**
+     * The stored preview of {@code digest}, if one has been rendered.
+     */
+    public Optional<byte[]> loadPreview(String digest) throws IOException {
+        try (InputStream in = documentStore.open(previewKey(digest))) {
+            return Optional.of(in.readAllBytes());
+        } catch (NoSuchFileException ex) {
+            return Optional.empty();
+        }
+    }
+
+    public boolean hasPreview(String digest) throws IOException {
+        return documentStore.exists(previewKey(digest));
+    }
+
+    private static String previewKey(String digest) {
+        return digest + PREVIEW_KEY_SUFFIX;
+    }
+
+    public void discard(StagedBlob staged) {
+        try {
+            Files.deleteIfExists(staged.file());
+        } catch (IOException ex) {
+            logger.warn("Could not delete staged file {}: {}", staged.file(), ex.getMessage());
+        }
+    }
+
+    /**
+     * The stored bytes of {@code digest}. Uncompressed blobs on a local store are exposed as
+     * a file so downloads can be sent without copying through the heap; compressed blobs are
+     * decoded frame by frame from wherever the requested range starts.
+     * <p>
+     * Blobs never change once written, so a {@code knownSize} recorded at upload time spares
+     * remote stores a metadata round trip; local files are always checked on disk.
+     */
+    public DocumentContent content(String digest, BlobCodec codec, Long knownSize, Instant lastModified)
+            throws IOException {
+        BlobCodec storedCodec = codec == null ? BlobCodec.NONE : codec;
+        String key = objectKey(digest, storedCodec);
+        Path localFile = documentStore.localPath(key).orElse(null);
+
+        if (storedCodec == BlobCodec.DEFLATE) {
+            if (localFile != null && !Files.exists(localFile)) {
+                throw new NoSuchFileException(key);
+            }
+            long size = knownSize != null ? knownSize : FramedDeflate.originalSize(documentStore, key);
+            return new DocumentContent(
+                    size,
+                    digest,
+                    lastModified,
+                    null,
+                    (offset, length) -> FramedDeflate.open(documentStore, key, offset, length)
+            );
+        }
+
+        long size;
+        if (localFile != null) {
+            size = Files.size(localFile);
+        } else if (knownSize != null) {
+            size = knownSize;
+        } else {
+            size = documentStore.size(key);
+        }
+
+        return new DocumentContent(
+                size,
+                digest,
+                lastModified,
+                localFile,
+                (offset, length) -> documentStore.open(key, offset, length)
+        );
+    }
+
+    /**
+     * The key a blob is kept under in the {@link DocumentStore}.
+     */
+    public static String objectKey(String digest, BlobCodec codec) {
+        return codec == BlobCodec.DEFLATE ? digest + DEFLATE_KEY_SUFFIX : digest;
+    }
+
+    /**
+     * The key of the database lock guarding {@code digest}: its first 64 bits, which are as
+     * well spread as any hash of it.
+     */
+    private static long lockKey(String digest) {
+        return Long.parseUnsignedLong(digest.substring(0, 16), 16);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(DIGEST_ALGORITHM + " is not available", ex);
+        }
+    }
+
+    private void deleteQuietly(String key) {
+        try {
+            documentStore.delete(key);
+        } catch (IOException ex) {
+            logger.warn("Could not delete blob {}: {}", key, ex.getMessage());
+        }
+    }
+
+    /**
+     * A hashed upload waiting in the staging directory; {@code size} is the original length
+     * and {@code storedSize} the length of the (possibly compressed) staged file.
+     */
+    public record StagedBlob(Path file, String digest, long size, long storedSize, BlobCodec codec) {
+    }
+
+    private record Placement(BlobCodec codec, long storedSize) {
+    }
+}
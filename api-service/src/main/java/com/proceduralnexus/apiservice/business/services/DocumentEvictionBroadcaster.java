@@ -0,0 +1,11 @@
+package com.proceduralnexus.apiservice.business.services;
+
+/**
+ * Tells the other instances which {@link DocumentMetadataCache} entries to drop. Messages
+ * must reach every instance, this one included, and are handed to
+ * {@link DocumentMetadataCache#applyEviction}.
+ */
+public interface DocumentEvictionBroadcaster {
+
+    void broadcast(String message);
+}
@@ -0,0 +1,138 @@
+package com.proceduralnexus.apiservice.business.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.proceduralnexus.apiservice.data.entities.BlobCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Bounded in-memory cache of document rows keyed by id, so the download path does not
+ * hit the database on every request.
+ * <p>
+ * The bound is an estimate of retained bytes rather than an entry count, since names and
+ * paths vary a lot in length. Writers must evict the ids they change; the expiry only
+ * bounds how long a change made behind the service's back (e.g. a cascade) can be served.
+ * <p>
+ * Every instance has its own cache. Evictions reach the others through the
+ * {@link DocumentEvictionBroadcaster} selected by {@code app.documents.metadata-cache.evictions}:
+ * with {@code local}, the default, they do not, and another instance keeps serving a changed
+ * or deleted document for up to {@code expire-after-write}. Use {@code redis} whenever more
+ * than one instance serves downloads.
+ */
+@Component
+public class DocumentMetadataCache {
+
+    // Object headers, boxed fields and the map node of one entry, excluding strings.
+    private static final int ENTRY_OVERHEAD_BYTES = 200;
+
+    private static final String DOCUMENT_EVICTION = "document:";
+    private static final String UPLOADER_EVICTION = "uploader:";
+
+    private final Cache<Long, CachedDocument> cache;
+    private final DocumentEvictionBroadcaster broadcaster;
+
+    public DocumentMetadataCache(
+            DocumentEvictionBroadcaster broadcaster,
+            @Value("${app.documents.metadata-cache.max-size:16MB}") DataSize maxSize,
+            @Value("${app.documents.metadata-cache.expire-after-write:10m}") Duration expireAfterWrite
+    ) {
+        this.broadcaster = broadcaster;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((Long id, CachedDocument document) -> document.estimatedSize())
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+    }
+
+    public CachedDocument get(Long id, Function<Long, CachedDocument> loader) {
+        return cache.get(id, loader);
+    }
+
+    public void put(CachedDocument document) {
+        cache.put(document.id(), document);
+    }
+
+    /**
+     * Evicts {@code id} now and, inside a transaction, again once it completes so a reader
+     * that reloaded the old row in between does not keep it. Other instances are told once
+     * the change is visible to them.
+     */
+    public void evict(Long id) {
+        cache.invalidate(id);
+        afterCompletion(DOCUMENT_EVICTION + id);
+    }
+
+    public void evictUploader(UUID uploaderId) {
+        evictUploaderLocally(uploaderId.toString());
+        afterCompletion(UPLOADER_EVICTION + uploaderId);
+    }
+
+    /**
+     * Applies an eviction broadcast by any instance, including this one.
+     */
+    public void applyEviction(String message) {
+        if (message.startsWith(DOCUMENT_EVICTION)) {
+            cache.invalidate(Long.valueOf(message.substring(DOCUMENT_EVICTION.length())));
+        } else if (message.startsWith(UPLOADER_EVICTION)) {
+            evictUploaderLocally(message.substring(UPLOADER_EVICTION.length()));
+        }
+    }
+
+    private void evictUploaderLocally(String uploaderId) {
+        cache.asMap().values().removeIf(document -> uploaderId.equals(document.uploaderId()));
+    }
+
+    private void afterCompletion(String eviction) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    applyEviction(eviction);
+                    broadcaster.broadcast(eviction);
+                }
+            });
+        } else {
+            broadcaster.broadcast(eviction);
+        }
+    }
+
+    /**
+     * Immutable snapshot of the document columns needed for metadata and downloads,
+     * with the uploader already resolved.
+     */
+    public record CachedDocument(
+            Long id,
+            String name,
+            String type,
+            String filePath,
+            String contentHash,
+            BlobCodec storageCodec,
+            Long fileSizeInBytes,
+            String batchId,
+            boolean signed,
+            Instant createdAt,
+            Instant updatedAt,
+            String uploaderId,
+            String uploaderEmail
+    ) {
+        int estimatedSize() {
+            return ENTRY_OVERHEAD_BYTES
+                    + sizeOf(name) + sizeOf(type) + sizeOf(filePath) + sizeOf(contentHash)
+                    + sizeOf(batchId) + sizeOf(uploaderId) + sizeOf(uploaderEmail);
+        }
+
+        private static int sizeOf(String value) {
+            // Compact Latin-1 strings: header plus one byte per char.
+            return value == null ? 0 : 40 + value.length();
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package com.proceduralnexus.apiservice.business.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.proceduralnexus.apiservice.business.storage.DocumentContent;
+import com.proceduralnexus.apiservice.data.entities.BlobCodec;
+import com.proceduralnexus.apiservice.data.repositories.DocumentRepository;
+import jakarta.annotation.PreDestroy;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Analyses uploaded PDFs in the background: renders a low-resolution JPEG of the first page so
+ * document lists can show thumbnails without downloading whole files, and extracts the text
+ * that full-text search indexes.
+ * <p>
+ * Analysis runs after the upload has committed, on a small pool with a bounded queue: when
+ * the queue is full the work is simply skipped and picked up later, by the first request for
+ * the preview or by the periodic text backfill. Both results are keyed by content digest, so
+ * identical uploads are analysed once and each file is parsed once for both. Content that
+ * cannot be parsed (not a PDF, encrypted, damaged) is searchable by name only and remembered
+ * for a while so it is not retried on every request.
+ */
+@Service
+public class DocumentPreviewService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DocumentPreviewService.class);
+
+    // Keeps very tall pages (receipts, long scans) from producing huge images.
+    private static final int MAX_ASPECT_RATIO = 4;
+
+    private final BlobStorageService blobStorageService;
+    private final DocumentRepository documentRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int width;
+    private final float jpegQuality;
+    private final long maxSourceSize;
+    private final int maxTextPages;
+    private final int maxTextLength;
+    private final ThreadPoolExecutor executor;
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    private final Cache<String, Boolean> failed;
+
+    public DocumentPreviewService(
+            BlobStorageService blobStorageService,
+            DocumentRepository documentRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.documents.preview.enabled:true}") boolean enabled,
+            @Value("${app.documents.preview.width:320}") int width,
+            @Value("${app.documents.preview.jpeg-quality:0.7}") float jpegQuality,
+            @Value("${app.documents.preview.max-source-size:50MB}") DataSize maxSourceSize,
+            @Value("${app.documents.preview.threads:2}") int threads,
+            @Value("${app.documents.preview.queue-capacity:200}") int queueCapacity,
+            @Value("${app.documents.preview.retry-failed-after:1h}") Duration retryFailedAfter,
+            @Value("${app.documents.search.text.max-pages:20}") int maxTextPages,
+            @Value("${app.documents.search.text.max-length:100000}") int maxTextLength
+    ) {
+        this.blobStorageService = blobStorageService;
+        this.documentRepository = documentRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.width = width;
+        this.jpegQuality = jpegQuality;
+        this.maxSourceSize = maxSourceSize.toBytes();
+        this.maxTextPages = maxTextPages;
+        this.maxTextLength = maxTextLength;
+        this.executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                60L,
+                TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("document-preview-")
+        );
+        this.failed = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(retryFailedAfter)
+                .build();
+    }
+
+    @PreDestroy
+    void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Queues analysis of {@code digest} unless it is already queued or recently failed; the
+     * job itself skips whatever is already done. Never blocks the caller.
+     */
+    public void schedule(String digest, BlobCodec codec, Long size) {
+        if (!enabled || digest == null || (size != null && size > maxSourceSize)) {
+            return;
+        }
+        if (failed.getIfPresent(digest) != null || !pending.add(digest)) {
+            return;
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    analyse(digest, codec, size);
+                } finally {
+                    pending.remove(digest);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            pending.remove(digest);
+            logger.debug("Preview queue is full, skipping {}", digest);
+        }
+    }
+
+    /**
+     * Queues content uploaded before text extraction existed, or skipped while the queue was
+     * full, a queue's worth at a time.
+     */
+    @Scheduled(
+            fixedDelayString = "${app.documents.search.backfill-interval:PT10M}",
+            initialDelayString = "${app.documents.search.backfill-initial-delay:PT5M}"
+    )
+    public void backfillContentText() {
+        int capacity = executor.getQueue().remainingCapacity();
+        if (!enabled || capacity == 0) {
+            return;
+        }
+        for (Object[] row : documentRepository.findContentAwaitingText(maxSourceSize, capacity)) {
+            String codec = (String) row[1];
+            Long size = row[2] == null ? null : ((Number) row[2]).longValue();
+            schedule((String) row[0], codec == null ? null : BlobCodec.valueOf(codec), size);
+        }
+    }
+
+    /**
+     * The stored preview for {@code digest}; when there is none yet, rendering is queued and
+     * an empty result returned.
+     */
+    public Optional<byte[]> load(String digest, BlobCodec codec, Long size) throws IOException {
+        Optional<byte[]> preview = blobStorageService.loadPreview(digest);
+        if (preview.isEmpty()) {
+            schedule(digest, codec, size);
+        }
+        return preview;
+    }
+
+    private void analyse(String digest, BlobCodec codec, Long size) {
+        Path temporary = null;
+        try {
+            boolean needsPreview = !blobStorageService.hasPreview(digest);
+            boolean needsText = documentRepository.existsContentAwaitingText(digest);
+            if (!needsPreview && !needsText) {
+                return;
+            }
+
+            DocumentContent content = blobStorageService.content(digest, codec, size, null);
+            Path source = content.getLocalFile().orElse(null);
+            if (source == null) {
+                // Remote or compressed content: PDFBox needs random access, so spool it locally.
+                temporary = Files.createTempFile("preview-", ".pdf");
+                try (InputStream in = content.open(0, -1)) {
+                    Files.copy(in, temporary, StandardCopyOption.REPLACE_EXISTING);
+                }
+                source = temporary;
+            }
+
+            PDDocument document;
+            try {
+                document = Loader.loadPDF(source.toFile(), IOUtils.createTempFileOnlyStreamCache());
+            } catch (IOException ex) {
+                if (needsText) {
+                    storeText(digest, "");
+                }
+                throw ex;
+            }
+            try (document) {
+                if (needsText) {
+                    storeText(digest, extractText(document));
+                }
+                if (needsPreview) {
+                    blobStorageService.storePreview(digest, renderFirstPage(document));
+                }
+            }
+        } catch (IOException | RuntimeException ex) {
+            failed.put(digest, Boolean.TRUE);
+            logger.debug("Could not analyse {}: {}", digest, ex.getMessage());
+        } finally {
+            if (temporary != null) {
+                try {
+                    Files.deleteIfExists(temporary);
+                } catch (IOException ex) {
+                    logger.warn("Could not delete temporary file {}: {}", temporary, ex.getMessage());
+                }
+            }
+        }
+    }
+
+    private String extractText(PDDocument document) throws IOException {
+        PDFTextStripper stripper = new PDFTextStripper();
+        stripper.setEndPage(maxTextPages);
+        String text = stripper.getText(document);
+        if (text.length() > maxTextLength) {
+            text = text.substring(0, maxTextLength);
+        }
+        // PostgreSQL text cannot hold NUL characters, which some PDF fonts map glyphs to.
+        return text.replace('\u0000', ' ').strip();
+    }
+
+    private void storeText(String digest, String text) {
+        transactionTemplate.executeWithoutResult(status -> documentRepository.storeContentText(digest, text));
+    }
+
+    private byte[] renderFirstPage(PDDocument document) throws IOException {
+        if (document.getNumberOfPages() == 0) {
+            throw new IOException("Document has no pages");
+        }
+
+        PDPage page = document.getPage(0);
+        PDRectangle box = page.getCropBox();
+        boolean rotated = page.getRotation() % 180 != 0;
+        float pageWidth = rotated ? box.getHeight() : box.getWidth();
+        float pageHeight = rotated ? box.getWidth() : box.getHeight();
+        float scale = Math.min(width / pageWidth, width * MAX_ASPECT_RATIO / pageHeight);
+
+        PDFRenderer renderer = new PDFRenderer(document);
+        renderer.setSubsamplingAllowed(true);
+        BufferedImage image = renderer.renderImage(0, scale, ImageType.RGB);
+        return encodeJpeg(image);
+    }
+
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(32 * 1024);
+        try (ImageOutputStream imageOut = ImageIO.createImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.setOutput(imageOut);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+}
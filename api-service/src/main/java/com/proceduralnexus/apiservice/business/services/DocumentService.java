@@ -1,50 +1,116 @@
 package com.proceduralnexus.apiservice.business.services;
 
 import com.proceduralnexus.apiservice.business.interfaces.IDocumentService;
+import com.proceduralnexus.apiservice.business.services.DocumentMetadataCache.CachedDocument;
+import com.proceduralnexus.apiservice.business.storage.DocumentArchive;
+import com.proceduralnexus.apiservice.business.storage.DocumentContent;
+import com.proceduralnexus.apiservice.business.storage.DocumentDownload;
+import com.proceduralnexus.apiservice.business.storage.DocumentPreview;
+import com.proceduralnexus.apiservice.business.storage.LocalDocumentStore;
+import com.proceduralnexus.apiservice.controller.dtos.DocumentPageDto;
 import com.proceduralnexus.apiservice.controller.dtos.DocumentResponseDto;
+import com.proceduralnexus.apiservice.controller.dtos.DocumentSearchResultDto;
+import com.proceduralnexus.apiservice.data.entities.BlobCodec;
 import com.proceduralnexus.apiservice.data.entities.Document;
 import com.proceduralnexus.apiservice.data.entities.Profile;
 import com.proceduralnexus.apiservice.data.repositories.DocumentRepository;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
 import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.net.MalformedURLException;
-import java.nio.file.*;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Service
 public class DocumentService implements IDocumentService {
 
     private final DocumentRepository documentRepository;
-    private final Path fileStorageLocation;
+    private final BlobStorageService blobStorageService;
+    private final DocumentMetadataCache metadataCache;
+    private final DocumentPreviewService previewService;
     private final EmailService emailService;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxBatchFiles;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final int defaultSearchSize;
+    private final int maxSearchOffset;
+    private final ExecutorService storageExecutor;
 
     public DocumentService(
             DocumentRepository documentRepository,
+            BlobStorageService blobStorageService,
+            DocumentMetadataCache metadataCache,
+            DocumentPreviewService previewService,
             EmailService emailService,
-            @Value("${app.documents.storage-path:uploads}") String storagePath
+            PlatformTransactionManager transactionManager,
+            @Value("${app.documents.uploads.batch.max-files:50}") int maxBatchFiles,
+            @Value("${app.documents.uploads.batch.storage-threads:4}") int storageThreads,
+            @Value("${app.documents.uploads.batch.queue-capacity:100}") int storageQueueCapacity,
+            @Value("${app.documents.page.default-size:50}") int defaultPageSize,
+            @Value("${app.documents.page.max-size:200}") int maxPageSize,
+            @Value("${app.documents.search.default-size:20}") int defaultSearchSize,
+            @Value("${app.documents.search.max-offset:1000}") int maxSearchOffset
     ) {
         this.documentRepository = documentRepository;
+        this.blobStorageService = blobStorageService;
+        this.metadataCache = metadataCache;
+        this.previewService = previewService;
         this.emailService = emailService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxBatchFiles = maxBatchFiles;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.defaultSearchSize = defaultSearchSize;
+        this.maxSearchOffset = maxSearchOffset;
+        // When the queue is full the request thread stores the file itself, throttling the caller.
+        this.storageExecutor = new ThreadPoolExecutor(
+                storageThreads,
+                storageThreads,
+                60L,
+                TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(storageQueueCapacity),
+                new CustomizableThreadFactory("document-storage-"),
+                new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+    }
 
-        this.fileStorageLocation = Paths.get(storagePath)
-                .toAbsolutePath()
-                .normalize();
-
-        try {
-            Files.createDirectories(this.fileStorageLocation);
-        } catch (IOException ex) {
-            throw new RuntimeException("Could not create the directory where the uploaded files will be stored.", ex);
-        }
+    @PreDestroy
+    void shutdownStorageExecutor() {
+        storageExecutor.shutdown();
     }
 
     @Override
@@ -59,11 +125,191 @@ public class DocumentService implements IDocumentService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Uploaded file is empty");
         }
 
-        String originalFileName = StringUtils.cleanPath(file.getOriginalFilename());
-        if (originalFileName == null || originalFileName.isBlank()) {
-            originalFileName = "document.pdf";
+        String originalFileName = resolveOriginalFileName(file.getOriginalFilename());
+
+        BlobStorageService.StagedBlob staged = stage(file);
+
+        try {
+            return persistDocument(staged, originalFileName, batchId, uploader, name, type);
+        } finally {
+            blobStorageService.discard(staged);
+        }
+    }
+
+    @Override
+    public DocumentResponseDto importDocument(
+            Path source,
+            String originalFileName,
+            String batchId,
+            Profile uploader,
+            String name,
+            String type,
+            String expectedDigest
+    ) {
+        BlobStorageService.StagedBlob staged;
+        try {
+            staged = blobStorageService.stageFile(source);
+        } catch (IOException ex) {
+            throw new ResponseStatusException(
+                    HttpStatus.INTERNAL_SERVER_ERROR,
+                    "Could not store file. Please try again.",
+                    ex
+            );
+        }
+
+        try {
+            if (staged.size() == 0) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Uploaded file is empty");
+            }
+            if (expectedDigest != null && !expectedDigest.equals(staged.digest())) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Uploaded file does not match the expected SHA-256 " + expectedDigest);
+            }
+
+            return persistDocument(staged, resolveOriginalFileName(originalFileName), batchId, uploader, name, type);
+        } finally {
+            // A compressed copy was staged separately; the source itself is left to the caller.
+            if (!staged.file().equals(source)) {
+                blobStorageService.discard(staged);
+            }
+        }
+    }
+
+    @Override
+    public List<DocumentResponseDto> uploadDocuments(
+            List<MultipartFile> files,
+            String batchId,
+            Profile uploader,
+            String type
+    ) {
+        if (files == null || files.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No files were uploaded");
+        }
+        if (files.size() > maxBatchFiles) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "A batch can contain at most " + maxBatchFiles + " files");
+        }
+        for (MultipartFile file : files) {
+            if (file.isEmpty()) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Uploaded file " + file.getOriginalFilename() + " is empty");
+            }
+        }
+
+        String resolvedBatchId = (batchId == null || batchId.isBlank()) ? UUID.randomUUID().toString() : batchId.trim();
+
+        List<CompletableFuture<BlobStorageService.StagedBlob>> staging = files.stream()
+                .map(file -> CompletableFuture.supplyAsync(() -> stage(file), storageExecutor))
+                .toList();
+
+        List<BlobStorageService.StagedBlob> staged = new ArrayList<>();
+        RuntimeException stagingFailure = null;
+        for (CompletableFuture<BlobStorageService.StagedBlob> future : staging) {
+            try {
+                staged.add(future.join());
+            } catch (CompletionException ex) {
+                if (stagingFailure == null) {
+                    stagingFailure = ex.getCause() instanceof RuntimeException runtime ? runtime : ex;
+                }
+            }
+        }
+
+        try {
+            if (stagingFailure != null) {
+                throw stagingFailure;
+            }
+
+            List<Document> documents = new ArrayList<>(files.size());
+            for (int i = 0; i < files.size(); i++) {
+                String originalFileName = resolveOriginalFileName(files.get(i).getOriginalFilename());
+                documents.add(buildDocument(staged.get(i), originalFileName, resolvedBatchId, uploader, null, type));
+            }
+
+            List<Document> saved = transactionTemplate.execute(status -> {
+                try {
+                    Map<String, BlobCodec> codecs = blobStorageService.storeAll(staged, storageExecutor);
+                    documents.forEach(document -> document.setStorageCodec(codecs.get(document.getContentHash())));
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+                // Sequence ids let Hibernate send these inserts as one JDBC batch.
+                return documentRepository.saveAll(documents);
+            });
+
+            saved.forEach(document -> {
+                metadataCache.put(snapshot(document));
+                schedulePreview(document);
+            });
+            return saved.stream()
+                    .map(this::toDto)
+                    .collect(Collectors.toList());
+        } catch (UncheckedIOException ex) {
+            throw new ResponseStatusException(
+                    HttpStatus.INTERNAL_SERVER_ERROR,
+                    "Could not store files. Please try again.",
+                    ex
+            );
+        } finally {
+            staged.forEach(blobStorageService::discard);
+        }
+    }
+
+    private BlobStorageService.StagedBlob stage(MultipartFile file) {
+        try (InputStream in = file.getInputStream()) {
+            return blobStorageService.stage(in);
+        } catch (IOException ex) {
+            throw new ResponseStatusException(
+                    HttpStatus.INTERNAL_SERVER_ERROR,
+                    "Could not store file. Please try again.",
+                    ex
+            );
+        }
+    }
+
+    private DocumentResponseDto persistDocument(
+            BlobStorageService.StagedBlob staged,
+            String originalFileName,
+            String batchId,
+            Profile uploader,
+            String name,
+            String type
+    ) {
+        Document document = buildDocument(staged, originalFileName, batchId, uploader, name, type);
+
+        try {
+            Document saved = transactionTemplate.execute(status -> {
+                try {
+                    document.setStorageCodec(blobStorageService.store(staged));
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+                return documentRepository.save(document);
+            });
+            // Freshly uploaded documents are usually opened right away.
+            metadataCache.put(snapshot(saved));
+            schedulePreview(saved);
+            return toDto(saved);
+        } catch (UncheckedIOException ex) {
+            throw new ResponseStatusException(
+                    HttpStatus.INTERNAL_SERVER_ERROR,
+                    "Could not store file. Please try again.",
+                    ex
+            );
         }
+    }
+
+    private void schedulePreview(Document document) {
+        previewService.schedule(document.getContentHash(), document.getStorageCodec(), document.getFileSizeInBytes());
+    }
 
+    private static Document buildDocument(
+            BlobStorageService.StagedBlob staged,
+            String originalFileName,
+            String batchId,
+            Profile uploader,
+            String name,
+            String type
+    ) {
         Document.DocumentType docType = Document.DocumentType.OTHER;
         if (type != null && !type.isBlank()) {
             try {
@@ -82,37 +328,32 @@ public class DocumentService implements IDocumentService {
             displayName = "document";
         }
 
-        String storedFileName = UUID.randomUUID() + "_" + originalFileName;
-        Path targetLocation = this.fileStorageLocation.resolve(storedFileName);
-
-        try {
-            Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
-        } catch (IOException ex) {
-            throw new ResponseStatusException(
-                    HttpStatus.INTERNAL_SERVER_ERROR,
-                    "Could not store file. Please try again.",
-                    ex
-            );
-        }
-
         Document document = new Document();
         document.setName(displayName);
-        document.setFilePath(targetLocation.toString());
-        document.setFileSizeInBytes(file.getSize());
+        document.setFilePath(BlobStorageService.REFERENCE_PREFIX + staged.digest());
+        document.setContentHash(staged.digest());
+        document.setFileSizeInBytes(staged.size());
         document.setBatchId(batchId);
         document.setUploader(uploader);
         document.setSigned(false);
         document.setType(docType);
+        return document;
+    }
 
-        Document saved = documentRepository.save(document);
-        return toDto(saved);
+    private static String resolveOriginalFileName(String fileName) {
+        String originalFileName = fileName == null ? null : StringUtils.cleanPath(fileName);
+        if (originalFileName == null || originalFileName.isBlank()) {
+            originalFileName = "document.pdf";
+        }
+        // Keep only the last path segment so client supplied names cannot escape the storage directory.
+        return Paths.get(originalFileName).getFileName().toString();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<DocumentResponseDto> getDocuments(UUID uploaderId) {
-        List<Document> docs = (uploaderId == null)
-                ? documentRepository.findAll()
-                : documentRepository.findByUploader_Id(uploaderId);
+        // Capped like a page, so one request cannot pull the whole table; callers needing more use pages.
+        List<Document> docs = documentRepository.findPage(uploaderId, null, null, null, null, null, maxPageSize);
 
         return docs.stream()
                 .map(this::toDto)
@@ -120,6 +361,133 @@ public class DocumentService implements IDocumentService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public DocumentPageDto getDocumentPage(
+            UUID uploaderId,
+            String type,
+            Boolean signed,
+            String batchId,
+            String cursor,
+            Integer limit
+    ) {
+        int pageSize = limit == null ? defaultPageSize : limit;
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + maxPageSize);
+        }
+
+        Document.DocumentType docType = parseTypeFilter(type);
+        PageCursor after = cursor == null || cursor.isBlank() ? null : PageCursor.decode(cursor);
+
+        // One extra row tells whether another page follows without a count query.
+        List<Document> rows = documentRepository.findPage(
+                uploaderId,
+                docType,
+                signed,
+                batchId == null || batchId.isBlank() ? null : batchId.trim(),
+                after == null ? null : after.createdAt(),
+                after == null ? null : after.id(),
+                pageSize + 1
+        );
+
+        boolean hasMore = rows.size() > pageSize;
+        List<Document> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+        DocumentPageDto dto = new DocumentPageDto();
+        dto.setLimit(pageSize);
+        dto.setItems(page.stream().map(this::toDto).collect(Collectors.toList()));
+        if (hasMore) {
+            Document last = page.get(page.size() - 1);
+            dto.setNextCursor(new PageCursor(last.getCreatedAt(), last.getId()).encode());
+        }
+        return dto;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public DocumentSearchResultDto searchDocuments(
+            String query,
+            UUID uploaderId,
+            String type,
+            Integer offset,
+            Integer limit
+    ) {
+        if (query == null || query.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "q is required");
+        }
+        int pageSize = limit == null ? defaultSearchSize : limit;
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + maxPageSize);
+        }
+        int start = offset == null ? 0 : offset;
+        if (start < 0 || start > maxSearchOffset) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "offset must be between 0 and " + maxSearchOffset + "; narrow the search instead");
+        }
+
+        List<Long> ids = documentRepository.searchIds(
+                query.trim(), uploaderId, parseTypeFilter(type), start, pageSize + 1);
+        boolean hasMore = ids.size() > pageSize;
+        List<Long> pageIds = hasMore ? ids.subList(0, pageSize) : ids;
+
+        // The rows come back in id order; put them back in rank order.
+        Map<Long, Document> byId = new HashMap<>();
+        for (Document document : documentRepository.findAllWithUploaderByIdIn(pageIds)) {
+            byId.put(document.getId(), document);
+        }
+
+        DocumentSearchResultDto dto = new DocumentSearchResultDto();
+        dto.setOffset(start);
+        dto.setLimit(pageSize);
+        dto.setItems(pageIds.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(this::toDto)
+                .collect(Collectors.toList()));
+        if (hasMore) {
+            dto.setNextOffset(start + pageSize);
+        }
+        return dto;
+    }
+
+    private static Document.DocumentType parseTypeFilter(String type) {
+        if (type == null || type.isBlank()) {
+            return null;
+        }
+        try {
+            return Document.DocumentType.valueOf(type.trim().toUpperCase());
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown document type " + type);
+        }
+    }
+
+    /**
+     * Position in the {@code (created_at, id)} order, handed to clients as an opaque token.
+     */
+    private record PageCursor(Instant createdAt, Long id) {
+
+        String encode() {
+            String raw = createdAt.getEpochSecond() + "." + createdAt.getNano() + ":" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+        }
+
+        static PageCursor decode(String token) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII);
+                int dot = raw.indexOf('.');
+                int colon = raw.indexOf(':');
+                Instant createdAt = Instant.ofEpochSecond(
+                        Long.parseLong(raw.substring(0, dot)),
+                        Long.parseLong(raw.substring(dot + 1, colon))
+                );
+                return new PageCursor(createdAt, Long.parseLong(raw.substring(colon + 1)));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeException ex) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+            }
+        }
+    }
+
+    @Override
+    @Transactional
     public DocumentResponseDto patchDocumentSigned(Long id, Boolean signed) {
         Document document = documentRepository.findById(id)
                 .orElseThrow(() ->
@@ -133,30 +501,16 @@ public class DocumentService implements IDocumentService {
         }
 
         Document saved = documentRepository.save(document);
+        metadataCache.evict(id);
         
-        // Send email notification when document is signed/approved
-        if (signed != null && signed && previouslyUnsigned) {
-            try {
-                Profile uploader = saved.getUploader();
-                if (uploader != null) {
-                    String userName = uploader.getFirstname() + " " + uploader.getLastname();
-                    emailService.sendDocumentApprovedEmail(uploader.getEmail(), userName, saved.getName());
-                }
-            } catch (Exception e) {
-                System.err.println("Failed to send document approved email: " + e.getMessage());
-            }
-        }
-        
-        // Send email notification when document is unsigned/requires changes
-        if (signed != null && !signed && !previouslyUnsigned) {
-            try {
-                Profile uploader = saved.getUploader();
-                if (uploader != null) {
-                    String userName = uploader.getFirstname() + " " + uploader.getLastname();
-                    emailService.sendDocumentRequiresChangesEmail(uploader.getEmail(), userName, saved.getName(), null);
-                }
-            } catch (Exception e) {
-                System.err.println("Failed to send document requires changes email: " + e.getMessage());
+        // Notifications are queued in this transaction, so they go out only with the change
+        Profile uploader = saved.getUploader();
+        if (uploader != null && signed != null && signed == previouslyUnsigned) {
+            String userName = uploader.getFirstname() + " " + uploader.getLastname();
+            if (signed) {
+                emailService.sendDocumentApprovedEmail(uploader.getEmail(), userName, saved.getName());
+            } else {
+                emailService.sendDocumentRequiresChangesEmail(uploader.getEmail(), userName, saved.getName(), null);
             }
         }
         
@@ -165,40 +519,229 @@ public class DocumentService implements IDocumentService {
 
     @Override
     public DocumentResponseDto getDocumentMetadata(Long id) {
-        Document document = documentRepository.findById(id)
-                .orElseThrow(() ->
-                        new ResponseStatusException(HttpStatus.NOT_FOUND, "Document not found")
-                );
-        return toDto(document);
+        return toDto(lookup(id));
     }
 
     @Override
-    public Resource loadDocumentFile(Long id) {
-        Document document = documentRepository.findById(id)
-                .orElseThrow(() ->
-                        new ResponseStatusException(HttpStatus.NOT_FOUND, "Document not found")
-                );
+    public DocumentContent loadDocumentFile(Long id) {
+        return loadContent(lookup(id));
+    }
+
+    @Override
+    public DocumentDownload openDocument(Long id) {
+        CachedDocument document = lookup(id);
+        return new DocumentDownload(toDto(document), loadContent(document));
+    }
+
+    @Override
+    public DocumentArchive exportDocuments(String batchId, UUID uploaderId) {
+        boolean byBatch = batchId != null && !batchId.isBlank();
+        if (byBatch == (uploaderId != null)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Specify exactly one of batchId or uploaderId");
+        }
+
+        List<Document> documents = byBatch
+                ? documentRepository.findByBatchIdOrderByIdAsc(batchId.trim())
+                : documentRepository.findByUploader_Id(uploaderId);
+        if (documents.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No documents found");
+        }
+
+        // Only plain columns are captured: the archive is written after the request thread returns.
+        List<DocumentArchive.Entry> entries = documents.stream()
+                .map(document -> {
+                    String contentHash = document.getContentHash();
+                    BlobCodec codec = document.getStorageCodec();
+                    String filePath = document.getFilePath();
+                    Long size = document.getFileSizeInBytes();
+                    Instant updatedAt = document.getUpdatedAt();
+                    return new DocumentArchive.Entry(
+                            archiveEntryName(document.getName()),
+                            () -> loadContent(contentHash, codec, filePath, size, updatedAt)
+                    );
+                })
+                .toList();
+
+        String archiveName = byBatch ? "batch-" + batchId.trim() : "documents-" + uploaderId;
+        return new DocumentArchive(archiveName + ".zip", entries);
+    }
+
+    @Override
+    public DocumentPreview getDocumentPreview(Long id) {
+        CachedDocument document = lookup(id);
+        if (document.contentHash() == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No preview is available for this document");
+        }
 
         try {
-            Path filePath = Paths.get(document.getFilePath()).normalize();
-            Resource resource = new UrlResource(filePath.toUri());
-            if (resource.exists() && resource.isReadable()) {
-                return resource;
-            } else {
-                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "File not found on disk");
+            return previewService.load(document.contentHash(), document.storageCodec(), document.fileSizeInBytes())
+                    .map(image -> new DocumentPreview(document.contentHash(), image))
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Preview is not available yet"));
+        } catch (IOException ex) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Error while loading preview", ex);
+        }
+    }
+
+    private static String archiveEntryName(String name) {
+        String baseName = name == null || name.isBlank() ? "document" : name.trim();
+        return baseName.toLowerCase().endsWith(".pdf") ? baseName : baseName + ".pdf";
+    }
+
+    private CachedDocument lookup(Long id) {
+        CachedDocument document = metadataCache.get(id, key ->
+                documentRepository.findWithUploaderById(key)
+                        .map(DocumentService::snapshot)
+                        .orElse(null)
+        );
+        if (document == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Document not found");
+        }
+        return document;
+    }
+
+    private DocumentContent loadContent(CachedDocument document) {
+        return loadContent(
+                document.contentHash(),
+                document.storageCodec(),
+                document.filePath(),
+                document.fileSizeInBytes(),
+                document.updatedAt()
+        );
+    }
+
+    private DocumentContent loadContent(
+            String contentHash,
+            BlobCodec codec,
+            String storedPath,
+            Long fileSizeInBytes,
+            Instant updatedAt
+    ) {
+        if (contentHash != null) {
+            try {
+                return blobStorageService.content(contentHash, codec, fileSizeInBytes, updatedAt);
+            } catch (NoSuchFileException ex) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "File not found in storage");
+            } catch (IOException ex) {
+                throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Error while loading file", ex);
             }
-        } catch (MalformedURLException ex) {
+        }
+
+        Path filePath = Paths.get(storedPath).normalize();
+        if (!Files.isRegularFile(filePath) || !Files.isReadable(filePath)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "File not found on disk");
+        }
+
+        try {
+            return new DocumentContent(
+                    Files.size(filePath),
+                    null,
+                    updatedAt,
+                    filePath,
+                    (offset, length) -> LocalDocumentStore.openRange(filePath, offset, length)
+            );
+        } catch (IOException ex) {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Error while loading file", ex);
         }
     }
 
     @Override
+    @Transactional
     public void deleteDocument(Long id) {
         Document document = documentRepository.findById(id)
                 .orElseThrow(() ->
                         new ResponseStatusException(HttpStatus.NOT_FOUND, "Document not found")
                 );
         documentRepository.delete(document);
+        metadataCache.evict(id);
+
+        if (document.getContentHash() != null) {
+            blobStorageService.release(document.getContentHash());
+        }
+    }
+
+    /**
+     * Moves the file of a document uploaded before content addressing into the blob store,
+     * recording its digest. The old file is deleted once the change has committed.
+     *
+     * @return the digest, or {@code null} when the document is gone or already has one
+     */
+    @Override
+    public String backfillContentHash(Long id) {
+        Document legacy = documentRepository.findById(id).orElse(null);
+        if (legacy == null || legacy.getContentHash() != null) {
+            return null;
+        }
+
+        Path file = Paths.get(legacy.getFilePath()).normalize();
+        if (!Files.isRegularFile(file)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "File not found on disk");
+        }
+
+        BlobStorageService.StagedBlob staged;
+        try (InputStream in = Files.newInputStream(file)) {
+            staged = blobStorageService.stage(in);
+        } catch (IOException ex) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Error while loading file", ex);
+        }
+
+        try {
+            return transactionTemplate.execute(status -> {
+                Document document = documentRepository.findById(id).orElse(null);
+                if (document == null || document.getContentHash() != null) {
+                    return null;
+                }
+                try {
+                    document.setStorageCodec(blobStorageService.store(staged));
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+                document.setContentHash(staged.digest());
+                document.setFilePath(BlobStorageService.REFERENCE_PREFIX + staged.digest());
+                document.setFileSizeInBytes(staged.size());
+                metadataCache.evict(id);
+
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        try {
+                            Files.deleteIfExists(file);
+                        } catch (IOException ex) {
+                            // The reconciler picks up legacy files nothing points at.
+                        }
+                    }
+                });
+                return staged.digest();
+            });
+        } catch (UncheckedIOException ex) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Could not store file.", ex);
+        } finally {
+            blobStorageService.discard(staged);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void deleteDocumentsOfUploader(UUID uploaderId, Document.DocumentType keepType) {
+        List<Document> documents = documentRepository.findByUploader_IdAndTypeNot(uploaderId, keepType);
+        documentRepository.deleteAllInBatch(documents);
+        for (Document document : documents) {
+            metadataCache.evict(document.getId());
+            if (document.getContentHash() != null) {
+                blobStorageService.release(document.getContentHash());
+            }
+        }
+    }
+
+    /**
+     * Drops the blob references held by every document of {@code uploaderId} ahead of a
+     * profile delete, whose {@code ON DELETE CASCADE} removes the rows without going through
+     * this service. Must run in the transaction that deletes the profile.
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void releaseContentOfUploader(UUID uploaderId) {
+        documentRepository.findIdsByUploader(uploaderId).forEach(metadataCache::evict);
+        documentRepository.findContentHashesByUploader(uploaderId).forEach(blobStorageService::release);
     }
 
     private DocumentResponseDto toDto(Document document) {
@@ -220,6 +763,42 @@ public class DocumentService implements IDocumentService {
 
         return dto;
     }
+
+    private DocumentResponseDto toDto(CachedDocument document) {
+        DocumentResponseDto dto = new DocumentResponseDto();
+        dto.setId(document.id());
+        dto.setName(document.name());
+        dto.setFileSizeInBytes(document.fileSizeInBytes());
+        dto.setBatchId(document.batchId());
+        dto.setSigned(document.signed());
+        dto.setCreatedAt(document.createdAt());
+        dto.setUpdatedAt(document.updatedAt());
+        dto.setFilePath(document.filePath());
+        dto.setType(document.type());
+        dto.setUploaderId(document.uploaderId());
+        dto.setUploaderEmail(document.uploaderEmail());
+        return dto;
+    }
+
+    private static CachedDocument snapshot(Document document) {
+        Profile uploader = document.getUploader();
+        return new CachedDocument(
+                document.getId(),
+                document.getName(),
+                document.getType() != null ? document.getType().name() : "OTHER",
+                document.getFilePath(),
+                document.getContentHash(),
+                document.getStorageCodec(),
+                document.getFileSizeInBytes(),
+                document.getBatchId(),
+                document.isSigned(),
+                document.getCreatedAt(),
+                document.getUpdatedAt(),
+                uploader != null ? uploader.getId().toString() : null,
+                uploader != null ? uploader.getEmail() : null
+        );
+    }
+
     @Override
     public DocumentResponseDto signDocument(Long id) {
         Document document = documentRepository.findById(id)
@@ -228,6 +807,7 @@ public class DocumentService implements IDocumentService {
                 );
         document.setSigned(true);
         Document saved = documentRepository.save(document);
+        metadataCache.evict(id);
         return toDto(saved);
     }
 }
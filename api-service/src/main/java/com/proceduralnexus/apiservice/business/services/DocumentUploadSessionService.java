@@ -0,0 +1,429 @@
+package com.proceduralnexus.apiservice.business.services;
+
+import com.proceduralnexus.apiservice.business.interfaces.IDocumentService;
+import com.proceduralnexus.apiservice.controller.dtos.DocumentResponseDto;
+import com.proceduralnexus.apiservice.controller.dtos.UploadSessionCreateDto;
+import com.proceduralnexus.apiservice.controller.dtos.UploadSessionResponseDto;
+import com.proceduralnexus.apiservice.data.entities.DocumentUploadSession;
+import com.proceduralnexus.apiservice.data.entities.Profile;
+import com.proceduralnexus.apiservice.data.repositories.DocumentUploadSessionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Resumable, chunked uploads for documents that are too large (or links too flaky)
+ * for a single multipart request.
+ * <p>
+ * A client creates a session, PUTs numbered chunks in any order (possibly in parallel)
+ * and finally commits. Every chunk is written straight from the request body into its
+ * slot of a pre-sized part file using positional {@link FileChannel} writes, so nothing
+ * is spooled through the multipart resolver or a temp file. Chunks that already arrived
+ * are reported back so an interrupted client only resends what is missing.
+ * <p>
+ * Sessions are rows in {@code document_upload_session}, so they survive a restart and any
+ * instance can serve them as long as the instances share the storage directory. Chunk writes
+ * and commits are only serialized against each other on one instance; across instances the
+ * {@code committing} flag turns away writes that start after a commit has, which is enough
+ * for clients that commit once every chunk is acknowledged. Expired sessions are purged when
+ * sessions are created and by {@link StorageReconciler}, which also removes part files that
+ * lost their session.
+ */
+@Service
+public class DocumentUploadSessionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DocumentUploadSessionService.class);
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+    private static final int PURGE_BATCH_SIZE = 100;
+
+    private final IDocumentService documentService;
+    private final ProfileService profileService;
+    private final DocumentUploadSessionRepository sessionRepository;
+    private final TransactionTemplate transaction;
+    private final Path sessionDirectory;
+    private final int defaultChunkSize;
+    private final int maxChunkSize;
+    private final long maxFileSize;
+    private final Duration sessionTtl;
+
+    // Chunk writes running on this instance and the sessions it is committing, guarded by writesInFlight.
+    private final Map<UUID, Integer> writesInFlight = new HashMap<>();
+    private final Set<UUID> committing = new HashSet<>();
+
+    public DocumentUploadSessionService(
+            IDocumentService documentService,
+            ProfileService profileService,
+            DocumentUploadSessionRepository sessionRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.documents.storage-path:uploads}") String storagePath,
+            @Value("${app.documents.uploads.default-chunk-size:8MB}") DataSize defaultChunkSize,
+            @Value("${app.documents.uploads.max-chunk-size:32MB}") DataSize maxChunkSize,
+            @Value("${app.documents.uploads.max-file-size:1GB}") DataSize maxFileSize,
+            @Value("${app.documents.uploads.session-ttl:24h}") Duration sessionTtl
+    ) {
+        this.documentService = documentService;
+        this.profileService = profileService;
+        this.sessionRepository = sessionRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.defaultChunkSize = (int) defaultChunkSize.toBytes();
+        this.maxChunkSize = (int) maxChunkSize.toBytes();
+        this.maxFileSize = maxFileSize.toBytes();
+        this.sessionTtl = sessionTtl;
+
+        this.sessionDirectory = sessionDirectory(storagePath);
+
+        try {
+            Files.createDirectories(this.sessionDirectory);
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not create the directory for upload sessions.", ex);
+        }
+    }
+
+    /**
+     * The directory holding the part files of upload sessions under {@code storagePath}.
+     */
+    static Path sessionDirectory(String storagePath) {
+        return Paths.get(storagePath)
+                .toAbsolutePath()
+                .normalize()
+                .resolve(".upload-sessions");
+    }
+
+    /**
+     * The session a part file belongs to, or {@code null} if the file name is not a session's.
+     */
+    static UUID sessionIdOf(Path partFile) {
+        String name = partFile.getFileName().toString();
+        if (!name.endsWith(".part")) {
+            return null;
+        }
+        try {
+            return UUID.fromString(name.substring(0, name.length() - ".part".length()));
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    public UploadSessionResponseDto createSession(UploadSessionCreateDto request) {
+        purgeExpiredSessions();
+
+        long totalSize = request.getTotalSize();
+        if (totalSize > maxFileSize) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "File exceeds the maximum allowed size of " + maxFileSize + " bytes");
+        }
+
+        int chunkSize = request.getChunkSize() == null ? defaultChunkSize : request.getChunkSize();
+        if (chunkSize <= 0 || chunkSize > maxChunkSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "chunkSize must be between 1 and " + maxChunkSize + " bytes");
+        }
+
+        // Fail fast on an unknown uploader instead of at commit time.
+        profileService.findById(request.getUploaderId());
+
+        UUID sessionId = UUID.randomUUID();
+        Path partFile = partFile(sessionId);
+        try (FileChannel channel = FileChannel.open(partFile,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            // Sparse pre-allocation: chunks can land at any offset in any order.
+            channel.write(ByteBuffer.allocate(1), totalSize - 1);
+        } catch (IOException ex) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "Could not create upload session", ex);
+        }
+
+        int chunkCount = (int) ((totalSize + chunkSize - 1) / chunkSize);
+        DocumentUploadSession session = new DocumentUploadSession();
+        session.setId(sessionId);
+        session.setUploaderId(request.getUploaderId());
+        session.setName(request.getName());
+        session.setFileName(request.getFileName());
+        session.setBatchId(request.getBatchId());
+        session.setType(request.getType());
+        session.setExpectedDigest(request.getSha256() == null ? null : request.getSha256().toLowerCase(Locale.ROOT));
+        session.setTotalSize(totalSize);
+        session.setChunkSize(chunkSize);
+        session.setChunkCount(chunkCount);
+        session.setReceivedChunks(new byte[(chunkCount + 7) / 8]);
+        session.setLastTouchedAt(Instant.now());
+        try {
+            sessionRepository.save(session);
+        } catch (RuntimeException ex) {
+            deletePartFile(sessionId);
+            throw ex;
+        }
+        return toDto(session);
+    }
+
+    public UploadSessionResponseDto getSession(UUID sessionId) {
+        return toDto(requireSession(sessionId));
+    }
+
+    public UploadSessionResponseDto writeChunk(UUID sessionId, int index, long contentLength, InputStream body) {
+        DocumentUploadSession session = requireSession(sessionId);
+
+        if (index < 0 || index >= session.getChunkCount()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Chunk index must be between 0 and " + (session.getChunkCount() - 1));
+        }
+
+        long offset = (long) index * session.getChunkSize();
+        long expectedLength = Math.min(session.getChunkSize(), session.getTotalSize() - offset);
+        if (contentLength >= 0 && contentLength != expectedLength) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Chunk " + index + " must be exactly " + expectedLength + " bytes");
+        }
+
+        beginWrite(session);
+        try (FileChannel channel = FileChannel.open(partFile(sessionId), StandardOpenOption.WRITE)) {
+            long written = copyToChannel(body, channel, offset, expectedLength);
+            if (written != expectedLength) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Chunk " + index + " has the wrong length: expected " + expectedLength + " bytes");
+            }
+            Integer marked = transaction.execute(status -> sessionRepository.markReceived(sessionId, index, Instant.now()));
+            if (marked == null || marked == 0) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Upload session not found");
+            }
+        } catch (IOException ex) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "Could not store chunk " + index, ex);
+        } finally {
+            endWrite(sessionId);
+        }
+
+        return toDto(findSession(sessionId));
+    }
+
+    public DocumentResponseDto commit(UUID sessionId) {
+        requireSession(sessionId);
+        beginCommit(sessionId);
+
+        Path partFile = partFile(sessionId);
+        try {
+            // Read again now that no more chunks can start.
+            DocumentUploadSession session = findSession(sessionId);
+            List<Integer> missing = missingChunks(session);
+            if (!missing.isEmpty()) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        "Upload is incomplete, missing chunks: " + missing);
+            }
+
+            Profile uploader = profileService.findById(session.getUploaderId());
+            DocumentResponseDto document = documentService.importDocument(
+                    partFile,
+                    session.getFileName(),
+                    session.getBatchId(),
+                    uploader,
+                    session.getName(),
+                    session.getType(),
+                    session.getExpectedDigest()
+            );
+            sessionRepository.deleteById(sessionId);
+            return document;
+        } catch (RuntimeException ex) {
+            if (Files.exists(partFile)) {
+                transaction.executeWithoutResult(status -> sessionRepository.abortCommit(sessionId));
+            } else {
+                // The assembled file was consumed by the failed store; the client has to start over.
+                sessionRepository.deleteById(sessionId);
+            }
+            throw ex;
+        } finally {
+            synchronized (writesInFlight) {
+                committing.remove(sessionId);
+            }
+        }
+    }
+
+    public void abort(UUID sessionId) {
+        if (!sessionRepository.existsById(sessionId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Upload session not found");
+        }
+        delete(sessionId);
+    }
+
+    /**
+     * Whether {@code sessionId} is a session that has not expired yet.
+     */
+    public boolean isActive(UUID sessionId) {
+        return sessionRepository.findById(sessionId)
+                .map(session -> !isExpired(session))
+                .orElse(false);
+    }
+
+    /**
+     * Deletes every expired session and its part file.
+     *
+     * @return the number of sessions deleted
+     */
+    public int purgeExpiredSessions() {
+        Instant cutoff = Instant.now().minus(sessionTtl);
+        int purged = 0;
+        List<UUID> expired;
+        do {
+            expired = sessionRepository.findIdsTouchedBefore(cutoff, PageRequest.of(0, PURGE_BATCH_SIZE));
+            for (UUID sessionId : expired) {
+                delete(sessionId);
+                purged++;
+            }
+        } while (expired.size() == PURGE_BATCH_SIZE);
+        return purged;
+    }
+
+    private DocumentUploadSession findSession(UUID sessionId) {
+        return sessionRepository.findById(sessionId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Upload session not found"));
+    }
+
+    private DocumentUploadSession requireSession(UUID sessionId) {
+        DocumentUploadSession session = findSession(sessionId);
+        if (isExpired(session)) {
+            delete(sessionId);
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Upload session expired");
+        }
+        Instant now = Instant.now();
+        transaction.executeWithoutResult(status -> sessionRepository.touch(sessionId, now));
+        session.setLastTouchedAt(now);
+        return session;
+    }
+
+    private void beginWrite(DocumentUploadSession session) {
+        synchronized (writesInFlight) {
+            if (committing.contains(session.getId())) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Upload session is being committed");
+            }
+            writesInFlight.merge(session.getId(), 1, Integer::sum);
+        }
+        // Read after registering the write: a commit claimed before this point is seen here, and one
+        // claimed later on this instance sees the write.
+        if (sessionRepository.findCommitting(session.getId()).orElse(true)) {
+            endWrite(session.getId());
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Upload session is being committed");
+        }
+    }
+
+    private void endWrite(UUID sessionId) {
+        synchronized (writesInFlight) {
+            writesInFlight.computeIfPresent(sessionId, (id, count) -> count == 1 ? null : count - 1);
+        }
+    }
+
+    private void beginCommit(UUID sessionId) {
+        synchronized (writesInFlight) {
+            if (committing.contains(sessionId) || writesInFlight.containsKey(sessionId)) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        "Upload session is already being committed or has chunks in flight");
+            }
+            committing.add(sessionId);
+        }
+        Integer claimed = transaction.execute(status -> sessionRepository.beginCommit(sessionId));
+        if (claimed == null || claimed == 0) {
+            synchronized (writesInFlight) {
+                committing.remove(sessionId);
+            }
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Upload session is already being committed or has chunks in flight");
+        }
+    }
+
+    private void delete(UUID sessionId) {
+        sessionRepository.deleteById(sessionId);
+        deletePartFile(sessionId);
+    }
+
+    private boolean isExpired(DocumentUploadSession session) {
+        return session.getLastTouchedAt().plus(sessionTtl).isBefore(Instant.now());
+    }
+
+    private Path partFile(UUID sessionId) {
+        return sessionDirectory.resolve(sessionId + ".part");
+    }
+
+    private static long copyToChannel(InputStream in, FileChannel channel, long offset, long limit) throws IOException {
+        byte[] buffer = new byte[COPY_BUFFER_SIZE];
+        ByteBuffer wrapped = ByteBuffer.wrap(buffer);
+        long written = 0;
+
+        while (written < limit) {
+            int toRead = (int) Math.min(buffer.length, limit - written);
+            int read = in.read(buffer, 0, toRead);
+            if (read < 0) {
+                break;
+            }
+            wrapped.clear().limit(read);
+            while (wrapped.hasRemaining()) {
+                written += channel.write(wrapped, offset + written);
+            }
+        }
+
+        // Anything beyond the expected length means the client sent the wrong chunk.
+        if (written == limit && in.read() >= 0) {
+            return written + 1;
+        }
+        return written;
+    }
+
+    private void deletePartFile(UUID sessionId) {
+        Path partFile = partFile(sessionId);
+        try {
+            Files.deleteIfExists(partFile);
+        } catch (IOException ex) {
+            logger.warn("Could not delete part file {}: {}", partFile, ex.getMessage());
+        }
+    }
+
+    private static List<Integer> receivedChunks(DocumentUploadSession session) {
+        return BitSet.valueOf(session.getReceivedChunks()).stream().boxed().toList();
+    }
+
+    private static List<Integer> missingChunks(DocumentUploadSession session) {
+        BitSet received = BitSet.valueOf(session.getReceivedChunks());
+        List<Integer> missing = new ArrayList<>();
+        for (int i = received.nextClearBit(0); i < session.getChunkCount(); i = received.nextClearBit(i + 1)) {
+            missing.add(i);
+        }
+        return missing;
+    }
+
+    private UploadSessionResponseDto toDto(DocumentUploadSession session) {
+        UploadSessionResponseDto dto = new UploadSessionResponseDto();
+        dto.setSessionId(session.getId());
+        dto.setTotalSize(session.getTotalSize());
+        dto.setChunkSize(session.getChunkSize());
+        dto.setChunkCount(session.getChunkCount());
+        dto.setReceivedChunks(receivedChunks(session));
+        dto.setMissingChunks(missingChunks(session));
+        dto.setExpiresAt(session.getLastTouchedAt().plus(sessionTtl));
+        return dto;
+    }
+}
@@ -0,0 +1,327 @@
+package com.proceduralnexus.apiservice.business.services;
+
+import com.proceduralnexus.apiservice.data.entities.EmailNotification;
+import com.proceduralnexus.apiservice.data.entities.EmailStatus;
+import com.proceduralnexus.apiservice.data.repositories.EmailNotificationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transactional outbox for outgoing email.
+ * <p>
+ * {@link #enqueue} only inserts an {@code email_notification} row, in the caller's transaction
+ * if there is one: the email is sent if and only if that transaction commits, and requests no
+ * longer wait on the mail server. After the commit a single background thread drains the
+ * outbox, also woken every {@code poll-interval} for retries and for rows left by other
+ * instances.
+ * <p>
+ * Each round claims up to {@code batch-size} due rows under SKIP LOCKED, leases them for
+ * {@code lease} and sends them over one SMTP connection. Sent rows are marked SENT; failed
+ * ones are retried with exponential backoff up to {@code max-attempts}, then marked FAILED,
+ * as are messages the server rejects outright. An instance that dies mid-send leaves its
+ * lease to expire, so delivery is at least once.
+ */
+@Service
+public class EmailOutboxService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxService.class);
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final EmailNotificationRepository emailNotificationRepository;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate transactionTemplate;
+    private final String fromEmail;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration lease;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration retention;
+    private final ThreadPoolExecutor executor;
+    private final Timer sendTimer;
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter failed;
+
+    public EmailOutboxService(
+            EmailNotificationRepository emailNotificationRepository,
+            JavaMailSender mailSender,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.email.from}") String fromEmail,
+            @Value("${app.email.outbox.enabled:true}") boolean enabled,
+            @Value("${app.email.outbox.batch-size:50}") int batchSize,
+            @Value("${app.email.outbox.max-attempts:8}") int maxAttempts,
+            @Value("${app.email.outbox.lease:5m}") Duration lease,
+            @Value("${app.email.outbox.initial-backoff:30s}") Duration initialBackoff,
+            @Value("${app.email.outbox.max-backoff:1h}") Duration maxBackoff,
+            @Value("${app.email.outbox.retention:30d}") Duration retention
+    ) {
+        this.emailNotificationRepository = emailNotificationRepository;
+        this.mailSender = mailSender;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.fromEmail = fromEmail;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.lease = lease;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.retention = retention;
+        // One round at a time and at most one more waiting: a wake-up while a round is queued
+        // is covered by that round.
+        this.executor = new ThreadPoolExecutor(
+                1,
+                1,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(1),
+                new CustomizableThreadFactory("email-outbox-"),
+                new ThreadPoolExecutor.DiscardPolicy()
+        );
+
+        this.sendTimer = Timer.builder("email.outbox.send")
+                .description("Time spent sending one batch of emails")
+                .register(meterRegistry);
+        this.sent = outcomeCounter(meterRegistry, "sent");
+        this.retried = outcomeCounter(meterRegistry, "retry");
+        this.failed = outcomeCounter(meterRegistry, "failed");
+    }
+
+    @PreDestroy
+    void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Adds an email to the outbox. It is sent after the surrounding transaction commits, and
+     * never if it rolls back.
+     */
+    @Transactional
+    public void enqueue(String to, String subject, String htmlBody) {
+        EmailNotification email = new EmailNotification();
+        email.setRecipientEmail(to);
+        email.setSubject(subject);
+        email.setBody(htmlBody);
+        email.setNextAttemptAt(Instant.now());
+        emailNotificationRepository.save(email);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                wake();
+            }
+        });
+    }
+
+    /**
+     * Queues a dispatch round unless one is already waiting. Never blocks.
+     */
+    public void wake() {
+        if (enabled) {
+            executor.execute(this::dispatchQuietly);
+        }
+    }
+
+    @Scheduled(
+            fixedDelayString = "${app.email.outbox.poll-interval:PT10S}",
+            initialDelayString = "${app.email.outbox.initial-delay:PT30S}"
+    )
+    public void poll() {
+        wake();
+    }
+
+    @Scheduled(
+            fixedDelayString = "${app.email.outbox.purge-interval:PT1H}",
+            initialDelayString = "${app.email.outbox.purge-initial-delay:PT15M}"
+    )
+    public void purgeSent() {
+        Integer purged = transactionTemplate.execute(status ->
+                emailNotificationRepository.deleteSentBefore(EmailStatus.SENT, Instant.now().minus(retention)));
+        if (purged != null && purged > 0) {
+            logger.info("Purged {} sent emails older than {}", purged, retention);
+        }
+    }
+
+    /**
+     * Sends due emails batch by batch until none are left.
+     *
+     * @return the number of emails attempted
+     */
+    public int dispatch() {
+        int attempted = 0;
+        while (true) {
+            List<OutboxEmail> batch = transactionTemplate.execute(status -> claim());
+            if (batch == null || batch.isEmpty()) {
+                return attempted;
+            }
+            send(batch);
+            attempted += batch.size();
+            if (batch.size() < batchSize) {
+                return attempted;
+            }
+        }
+    }
+
+    private void dispatchQuietly() {
+        try {
+            dispatch();
+        } catch (RuntimeException ex) {
+            // The rows stay pending; the next poll tries again.
+            logger.warn("Email dispatch failed: {}", ex.getMessage());
+        }
+    }
+
+    // Leases the batch by moving it out of the due window until the attempt has been recorded.
+    private List<OutboxEmail> claim() {
+        Instant now = Instant.now();
+        List<EmailNotification> due = emailNotificationRepository.findDueForUpdate(
+                EmailStatus.PENDING, now, PageRequest.of(0, batchSize));
+
+        List<OutboxEmail> batch = new ArrayList<>(due.size());
+        for (EmailNotification email : due) {
+            email.setAttempts(email.getAttempts() + 1);
+            email.setNextAttemptAt(now.plus(lease));
+            batch.add(new OutboxEmail(email.getId(), email.getRecipientEmail(), email.getSubject(),
+                    email.getBody(), email.getAttempts()));
+        }
+        return batch;
+    }
+
+    private void send(List<OutboxEmail> batch) {
+        Map<MimeMessage, OutboxEmail> messages = new LinkedHashMap<>();
+        Map<OutboxEmail, Exception> failures = new LinkedHashMap<>();
+        Map<OutboxEmail, Exception> malformed = new LinkedHashMap<>();
+        for (OutboxEmail email : batch) {
+            try {
+                messages.put(toMimeMessage(email), email);
+            } catch (MessagingException | MailException ex) {
+                malformed.put(email, ex);
+            }
+        }
+
+        if (!messages.isEmpty()) {
+            long start = System.nanoTime();
+            try {
+                mailSender.send(messages.keySet().toArray(MimeMessage[]::new));
+            } catch (MailSendException ex) {
+                Map<Object, Exception> failedMessages = ex.getFailedMessages();
+                messages.forEach((message, email) -> {
+                    if (failedMessages.isEmpty() || failedMessages.containsKey(message)) {
+                        failures.put(email, failedMessages.getOrDefault(message, ex));
+                    }
+                });
+            } catch (MailException ex) {
+                messages.values().forEach(email -> failures.put(email, ex));
+            } finally {
+                sendTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        List<Long> sentIds = new ArrayList<>(batch.size());
+        for (OutboxEmail email : batch) {
+            if (!failures.containsKey(email) && !malformed.containsKey(email)) {
+                sentIds.add(email.id());
+            }
+        }
+
+        Instant now = Instant.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!sentIds.isEmpty()) {
+                emailNotificationRepository.markSent(sentIds, EmailStatus.SENT, now);
+            }
+            failures.forEach((email, ex) -> recordFailure(email, ex, isPermanent(ex), now));
+            // A message that cannot be built fails the same way every time.
+            malformed.forEach((email, ex) -> recordFailure(email, ex, true, now));
+        });
+        sent.increment(sentIds.size());
+    }
+
+    private void recordFailure(OutboxEmail email, Exception ex, boolean permanent, Instant now) {
+        String error = describe(ex);
+        if (permanent || email.attempts() >= maxAttempts) {
+            emailNotificationRepository.markFailedAttempt(email.id(), EmailStatus.FAILED, now, error, now);
+            failed.increment();
+            logger.warn("Giving up on email {} to {} after {} attempt(s): {}",
+                    email.id(), email.to(), email.attempts(), error);
+        } else {
+            emailNotificationRepository.markFailedAttempt(email.id(), EmailStatus.PENDING,
+                    now.plus(backoff(email.attempts())), error, now);
+            retried.increment();
+            logger.debug("Email {} to {} failed, retrying: {}", email.id(), email.to(), error);
+        }
+    }
+
+    // initial-backoff, doubled per attempt, capped at max-backoff.
+    private Duration backoff(int attempts) {
+        int doublings = Math.min(attempts - 1, 30);
+        Duration delay = initialBackoff.multipliedBy(1L << doublings);
+        return delay.compareTo(maxBackoff) > 0 || delay.isNegative() ? maxBackoff : delay;
+    }
+
+    // Recipients the server refused stay refused; connection and server errors may pass.
+    private static boolean isPermanent(Exception ex) {
+        return ex instanceof SendFailedException sendFailed
+                && sendFailed.getInvalidAddresses() != null
+                && sendFailed.getInvalidAddresses().length > 0;
+    }
+
+    private static String describe(Exception ex) {
+        String message = ex.getMessage() != null ? ex.getMessage() : ex.getClass().getSimpleName();
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    private MimeMessage toMimeMessage(OutboxEmail email) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+
+        helper.setFrom(fromEmail);
+        helper.setTo(email.to());
+        helper.setSubject(email.subject());
+        helper.setText(email.body(), true);
+        return message;
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("email.outbox.emails")
+                .description("Outbox emails by the outcome of their latest attempt")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private record OutboxEmail(Long id, String to, String subject, String body, int attempts) {
+    }
+}
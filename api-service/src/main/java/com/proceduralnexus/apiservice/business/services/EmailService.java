@@ -1,21 +1,26 @@
 package com.proceduralnexus.apiservice.business.services;
 
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
+import com.proceduralnexus.apiservice.business.templates.EmailTemplates;
+import com.proceduralnexus.apiservice.business.templates.RenderedEmail;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Transactional emails, rendered from the templates under {@code templates/email} (see
+ * EmailTemplates) in the default locale. Values are HTML-escaped by the templates.
+ */
 @Service
 public class EmailService {
 
     @Autowired
-    private JavaMailSender mailSender;
+    private EmailOutboxService emailOutboxService;
 
-    @Value("${app.email.from}")
-    private String fromEmail;
+    @Autowired
+    private EmailTemplates emailTemplates;
 
     @Value("${app.base.url}")
     private String baseUrl;
@@ -24,278 +29,103 @@ public class EmailService {
      * Send email verification link to user
      */
     public void sendVerificationEmail(String toEmail, String token) {
-        String subject = "[ProceduralNexus] Verify your account";
         String verificationUrl = baseUrl + "/verify-email?token=" + token;
-        
-        String body = String.format(
-            """
-            <!DOCTYPE html>
-            <html>
-            <head>
-                <meta charset="UTF-8">
-                <meta name="viewport" content="width=device-width, initial-scale=1.0">
-            </head>
-            <body style="font-family: Arial, sans-serif; line-height: 1.6; color: #333; max-width: 600px; margin: 0 auto; padding: 20px;">
-                <div style="background-color: #f8f9fa; padding: 20px; border-radius: 10px;">
-                    <h2 style="color: #007bff; margin-top: 0;">Welcome to ProceduralNexus!</h2>
-                    <p>Hello,</p>
-                    <p>Thank you for registering! Please verify your account by clicking the button below:</p>
-                    
-                    <div style="text-align: center; margin: 30px 0;">
-                        <a href="%s" style="background-color: #007bff; color: #ffffff; padding: 12px 30px; text-decoration: none; border-radius: 5px; display: inline-block; font-weight: bold;">Verify Email Address</a>
-                    </div>
-                    
-                    <p>Or copy and paste this link in your browser:</p>
-                    <p style="background-color: #e9ecef; padding: 10px; border-radius: 5px; word-break: break-all;">
-                        <a href="%s" style="color: #007bff;">%s</a>
-                    </p>
-                    
-                    <p style="color: #dc3545; font-weight: bold;">⏰ This link will expire in 24 hours.</p>
-                    <p style="color: #6c757d; font-size: 14px;">If you did not create an account, please ignore this email.</p>
-                    
-                    <hr style="border: none; border-top: 1px solid #dee2e6; margin: 20px 0;">
-                    <p style="color: #6c757d; font-size: 12px; margin-bottom: 0;">
-                        Best regards,<br>
-                        <strong>ProceduralNexus Team</strong>
-                    </p>
-                </div>
-            </body>
-            </html>
-            """,
-            verificationUrl, verificationUrl, verificationUrl
-        );
 
-        sendEmail(toEmail, subject, body);
+        sendEmail(toEmail, "verification", model("verificationUrl", verificationUrl));
     }
 
     /**
      * Send document request notification
      */
     public void sendDocumentRequestEmail(String toEmail, String userName, String organizationName, String documentType) {
-        String subject = "[ProceduralNexus] Additional document required";
-        
-        String body = String.format(
-            """
-            <html>
-            <body>
-                <h2>Document Request</h2>
-                <p>Hello %s,</p>
-                <p>The organization <strong>%s</strong> has requested an additional document from you:</p>
-                <p><strong>Document Type:</strong> %s</p>
-                <p>Please log in to your account to upload the requested document.</p>
-                <p><a href="%s/login" style="display: inline-block; padding: 10px 20px; background-color: #007bff; color: white; text-decoration: none; border-radius: 5px;">Go to Dashboard</a></p>
-                <br>
-                <p>Best regards,<br>ProceduralNexus Team</p>
-            </body>
-            </html>
-            """,
-            userName, organizationName, documentType, baseUrl
-        );
-
-        sendEmail(toEmail, subject, body);
+        sendEmail(toEmail, "document-request", model(
+                "userName", userName,
+                "organizationName", organizationName,
+                "documentType", documentType));
     }
 
     /**
      * Send application accepted notification
      */
     public void sendApplicationAcceptedEmail(String toEmail, String userName, String organizationName) {
-        String subject = "[ProceduralNexus] Application accepted";
-        
-        String body = String.format(
-            """
-            <html>
-            <body>
-                <h2>Congratulations!</h2>
-                <p>Hello %s,</p>
-                <p>Your application to <strong>%s</strong> has been <span style="color: green; font-weight: bold;">ACCEPTED</span>.</p>
-                <p>You can now proceed with the next steps in the process.</p>
-                <p><a href="%s/login" style="display: inline-block; padding: 10px 20px; background-color: #28a745; color: white; text-decoration: none; border-radius: 5px;">View Details</a></p>
-                <br>
-                <p>Best regards,<br>ProceduralNexus Team</p>
-            </body>
-            </html>
-            """,
-            userName, organizationName, baseUrl
-        );
-
-        sendEmail(toEmail, subject, body);
+        sendEmail(toEmail, "application-accepted", model(
+                "userName", userName,
+                "organizationName", organizationName));
     }
 
     /**
      * Send application rejected notification
      */
     public void sendApplicationRejectedEmail(String toEmail, String userName, String organizationName, String reason) {
-        String subject = "[ProceduralNexus] Application rejected";
-        
-        String body = String.format(
-            """
-            <html>
-            <body>
-                <h2>Application Update</h2>
-                <p>Hello %s,</p>
-                <p>We regret to inform you that your application to <strong>%s</strong> has been <span style="color: red; font-weight: bold;">REJECTED</span>.</p>
-                %s
-                <p>You can reapply in the future if you meet the requirements.</p>
-                <br>
-                <p>Best regards,<br>ProceduralNexus Team</p>
-            </body>
-            </html>
-            """,
-            userName, organizationName, 
-            reason != null && !reason.isEmpty() ? "<p><strong>Reason:</strong> " + reason + "</p>" : ""
-        );
-
-        sendEmail(toEmail, subject, body);
+        sendEmail(toEmail, "application-rejected", model(
+                "userName", userName,
+                "organizationName", organizationName,
+                "reason", reason));
     }
 
     /**
      * Send document approved notification
      */
     public void sendDocumentApprovedEmail(String toEmail, String userName, String documentName) {
-        String subject = "[ProceduralNexus] Document approved";
-        
-        String body = String.format(
-            """
-            <html>
-            <body>
-                <h2>Document Approved</h2>
-                <p>Hello %s,</p>
-                <p>Your document <strong>%s</strong> has been <span style="color: green; font-weight: bold;">APPROVED</span>.</p>
-                <p><a href="%s/login" style="display: inline-block; padding: 10px 20px; background-color: #28a745; color: white; text-decoration: none; border-radius: 5px;">View Document</a></p>
-                <br>
-                <p>Best regards,<br>ProceduralNexus Team</p>
-            </body>
-            </html>
-            """,
-            userName, documentName, baseUrl
-        );
-
-        sendEmail(toEmail, subject, body);
+        sendEmail(toEmail, "document-approved", model(
+                "userName", userName,
+                "documentName", documentName));
     }
 
     /**
      * Send document requires changes notification
      */
     public void sendDocumentRequiresChangesEmail(String toEmail, String userName, String documentName, String feedback) {
-        String subject = "[ProceduralNexus] Document requires changes";
-        
-        String body = String.format(
-            """
-            <html>
-            <body>
-                <h2>Document Review</h2>
-                <p>Hello %s,</p>
-                <p>Your document <strong>%s</strong> requires some changes before approval.</p>
-                %s
-                <p>Please review the feedback and upload a corrected version.</p>
-                <p><a href="%s/login" style="display: inline-block; padding: 10px 20px; background-color: #ffc107; color: black; text-decoration: none; border-radius: 5px;">Upload Corrected Document</a></p>
-                <br>
-                <p>Best regards,<br>ProceduralNexus Team</p>
-            </body>
-            </html>
-            """,
-            userName, documentName,
-            feedback != null && !feedback.isEmpty() ? "<p><strong>Feedback:</strong> " + feedback + "</p>" : "",
-            baseUrl
-        );
-
-        sendEmail(toEmail, subject, body);
+        sendEmail(toEmail, "document-requires-changes", model(
+                "userName", userName,
+                "documentName", documentName,
+                "feedback", feedback));
     }
 
     /**
      * Send organization addition notification
      */
     public void sendOrganizationAdditionEmail(String toEmail, String userName, String organizationName, String role) {
-        String subject = "[ProceduralNexus] Added to organization";
-        
-        String body = String.format(
-            """
-            <html>
-            <body>
-                <h2>Welcome to the Team!</h2>
-                <p>Hello %s,</p>
-                <p>You have been added to the organization <strong>%s</strong> as a <strong>%s</strong>.</p>
-                <p>You can now access the organization's dashboard and manage applications.</p>
-                <p><a href="%s/login" style="display: inline-block; padding: 10px 20px; background-color: #007bff; color: white; text-decoration: none; border-radius: 5px;">Go to Dashboard</a></p>
-                <br>
-                <p>Best regards,<br>ProceduralNexus Team</p>
-            </body>
-            </html>
-            """,
-            userName, organizationName, role, baseUrl
-        );
-
-        sendEmail(toEmail, subject, body);
+        sendEmail(toEmail, "organization-addition", model(
+                "userName", userName,
+                "organizationName", organizationName,
+                "role", role));
     }
 
     /**
      * Send password changed notification
      */
     public void sendPasswordChangedEmail(String toEmail, String userName) {
-        String subject = "[ProceduralNexus] Password changed";
-        
-        String body = String.format(
-            """
-            <html>
-            <body>
-                <h2>Security Alert</h2>
-                <p>Hello %s,</p>
-                <p>Your password has been successfully changed.</p>
-                <p>If you did not make this change, please contact our support team immediately.</p>
-                <p><a href="%s/login" style="display: inline-block; padding: 10px 20px; background-color: #dc3545; color: white; text-decoration: none; border-radius: 5px;">Secure My Account</a></p>
-                <br>
-                <p>Best regards,<br>ProceduralNexus Team</p>
-            </body>
-            </html>
-            """,
-            userName, baseUrl
-        );
-
-        sendEmail(toEmail, subject, body);
+        sendEmail(toEmail, "password-changed", model("userName", userName));
     }
 
     /**
      * Send organization creation notification to owner
      */
     public void sendOrganizationCreatedEmail(String toEmail, String ownerName, String organizationName) {
-        String subject = "[ProceduralNexus] Organization created";
-        
-        String body = String.format(
-            """
-            <html>
-            <body>
-                <h2>Organization Successfully Created</h2>
-                <p>Hello %s,</p>
-                <p>Your organization <strong>%s</strong> has been successfully created!</p>
-                <p>You are now the owner and can start managing your organization.</p>
-                <p><a href="%s/login" style="display: inline-block; padding: 10px 20px; background-color: #007bff; color: white; text-decoration: none; border-radius: 5px;">Manage Organization</a></p>
-                <br>
-                <p>Best regards,<br>ProceduralNexus Team</p>
-            </body>
-            </html>
-            """,
-            ownerName, organizationName, baseUrl
-        );
-
-        sendEmail(toEmail, subject, body);
+        sendEmail(toEmail, "organization-created", model(
+                "ownerName", ownerName,
+                "organizationName", organizationName));
     }
 
     /**
-     * Core method to send HTML emails
+     * Template values from key/value pairs, plus baseUrl; values may be null
      */
-    private void sendEmail(String to, String subject, String htmlBody) {
-        try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-            
-            helper.setFrom(fromEmail);
-            helper.setTo(to);
-            helper.setSubject(subject);
-            helper.setText(htmlBody, true);
-            
-            mailSender.send(message);
-        } catch (MessagingException e) {
-            throw new RuntimeException("Failed to send email to: " + to, e);
+    private Map<String, Object> model(Object... keysAndValues) {
+        Map<String, Object> model = new HashMap<>(keysAndValues.length);
+        model.put("baseUrl", baseUrl);
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            model.put((String) keysAndValues[i], keysAndValues[i + 1]);
         }
+        return model;
+    }
+
+    /**
+     * Core method to send HTML emails: queued in the outbox, sent once the caller's
+     * transaction commits
+     */
+    private void sendEmail(String to, String template, Map<String, Object> model) {
+        RenderedEmail email = emailTemplates.render(template, model);
+        emailOutboxService.enqueue(to, email.subject(), email.body());
     }
 }
@@ -43,8 +43,9 @@ public class EmailVerificationService {
     }
 
     /**
-     * Send verification email to user
+     * Send verification email to user; the token and the email are stored together
      */
+    @Transactional
     public void sendVerificationEmail(UUID userId, String email) {
         String token = createVerificationToken(userId);
         emailService.sendVerificationEmail(email, token);
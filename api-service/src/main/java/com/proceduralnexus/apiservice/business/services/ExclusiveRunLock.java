@@ -0,0 +1,103 @@
+package com.proceduralnexus.apiservice.business.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Lets one instance at a time run a background job over the shared storage, such as the
+ * storage reconciler or the integrity scrubber, so that instances do not repeat each other's
+ * work and multiply its I/O budget.
+ * <p>
+ * A run holds a session-level PostgreSQL advisory lock on a connection of its own. The lock
+ * is released when the run closes its {@link Lease}, or by the database if the instance dies
+ * and the connection drops. Job locks use the two-key form, so they never collide with the
+ * single-key digest locks of {@link BlobStorageService}.
+ */
+@Component
+public class ExclusiveRunLock {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExclusiveRunLock.class);
+
+    // First key of every job lock: "PNXJ".
+    private static final int JOB_NAMESPACE = 0x504E584A;
+
+    private final DataSource dataSource;
+
+    public ExclusiveRunLock(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Takes the lock of {@code job} if no instance holds it.
+     *
+     * @return the lease to close when the run ends, or {@code null} when another run holds it
+     */
+    public Lease tryAcquire(String job) {
+        Connection connection = null;
+        try {
+            connection = dataSource.getConnection();
+            if (query(connection, "SELECT pg_try_advisory_lock(?, ?)", job)) {
+                return new Lease(connection, job);
+            }
+            connection.close();
+            return null;
+        } catch (SQLException ex) {
+            closeQuietly(connection);
+            throw new DataAccessResourceFailureException("Could not take the run lock of " + job, ex);
+        }
+    }
+
+    private static boolean query(Connection connection, String sql, String job) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setInt(1, JOB_NAMESPACE);
+            statement.setInt(2, job.hashCode());
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next() && result.getBoolean(1);
+            }
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException ex) {
+            logger.warn("Could not close a run lock connection: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * The lock of one run, held until closed.
+     */
+    public static final class Lease implements AutoCloseable {
+        private final Connection connection;
+        private final String job;
+
+        private Lease(Connection connection, String job) {
+            this.connection = connection;
+            this.job = job;
+        }
+
+        @Override
+        public void close() {
+            try {
+                query(connection, "SELECT pg_advisory_unlock(?, ?)", job);
+            } catch (SQLException ex) {
+                // In practice a broken connection, which the pool discards along with its session and lock.
+                logger.warn("Could not release the run lock of {}: {}", job, ex.getMessage());
+            } finally {
+                closeQuietly(connection);
+            }
+        }
+    }
+}
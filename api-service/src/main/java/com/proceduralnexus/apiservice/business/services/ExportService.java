@@ -0,0 +1,92 @@
+package com.proceduralnexus.apiservice.business.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.proceduralnexus.apiservice.data.repositories.ApplicationRepository;
+import com.proceduralnexus.apiservice.data.repositories.DocumentRepository;
+import com.proceduralnexus.apiservice.data.repositories.ProfileRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Writes whole tables as newline-delimited JSON, one object per row, for admin and compliance
+ * exports.
+ * <p>
+ * Rows are read through a database cursor in fetch-size chunks inside a read-only transaction
+ * and serialized as they arrive. They are projections rather than entities, so nothing builds
+ * up in the persistence context and memory use does not depend on the size of the table.
+ * Called from the response writer, so the transaction spans the whole download.
+ */
+@Service
+public class ExportService {
+
+    private final DocumentRepository documentRepository;
+    private final ProfileRepository profileRepository;
+    private final ApplicationRepository applicationRepository;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter rowWriter;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ExportService(
+            DocumentRepository documentRepository,
+            ProfileRepository profileRepository,
+            ApplicationRepository applicationRepository,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.documentRepository = documentRepository;
+        this.profileRepository = profileRepository;
+        this.applicationRepository = applicationRepository;
+        this.objectMapper = objectMapper;
+        // Let the generator's buffer decide when bytes go out, not every row.
+        this.rowWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public void writeDocuments(OutputStream out) throws IOException {
+        write(out, documentRepository::streamForExport);
+    }
+
+    public void writeProfiles(OutputStream out) throws IOException {
+        write(out, profileRepository::streamForExport);
+    }
+
+    public void writeApplications(OutputStream out) throws IOException {
+        write(out, applicationRepository::streamForExport);
+    }
+
+    private void write(OutputStream out, Supplier<? extends Stream<?>> rows) throws IOException {
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<?> stream = rows.get();
+                     JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                    // The servlet container owns the response stream.
+                    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                    generator.setPrettyPrinter(new MinimalPrettyPrinter(""));
+
+                    Iterator<?> iterator = stream.iterator();
+                    while (iterator.hasNext()) {
+                        rowWriter.writeValue(generator, iterator.next());
+                        generator.writeRaw('\n');
+                    }
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+}
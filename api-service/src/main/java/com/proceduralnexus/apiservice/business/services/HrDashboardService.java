@@ -1,5 +1,6 @@
 package com.proceduralnexus.apiservice.business.services;
 
+import com.proceduralnexus.apiservice.business.interfaces.IDocumentService;
 import com.proceduralnexus.apiservice.controller.dtos.HrAddUserRequestDto;
 import com.proceduralnexus.apiservice.controller.dtos.HrUsersResponseDto;
 import com.proceduralnexus.apiservice.data.entities.Document;
@@ -7,12 +8,12 @@ import com.proceduralnexus.apiservice.data.entities.Organization;
 import com.proceduralnexus.apiservice.data.entities.Profile;
 import com.proceduralnexus.apiservice.data.entities.RoleName;
 import com.proceduralnexus.apiservice.data.repositories.ApplicationRepository;
-import com.proceduralnexus.apiservice.data.repositories.DocumentRepository;
+import com.proceduralnexus.apiservice.data.repositories.OrganizationRepository;
 import com.proceduralnexus.apiservice.data.repositories.ProfileRepository;
 import com.proceduralnexus.apiservice.data.repositories.RoleRepository;
+import com.proceduralnexus.apiservice.security.CurrentUser;
+import com.proceduralnexus.apiservice.security.TokenVersionService;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
@@ -24,34 +25,38 @@ import java.util.UUID;
 public class HrDashboardService {
 
     private final ProfileRepository profileRepository;
+    private final OrganizationRepository organizationRepository;
     private final ApplicationRepository applicationRepository;
     private final RoleRepository roleRepository;
-    private final DocumentRepository documentRepository;
+    private final IDocumentService documentService;
+    private final TokenVersionService tokenVersionService;
+    private final CurrentUser currentUser;
 
 
     public HrDashboardService(
             ProfileRepository profileRepository,
+            OrganizationRepository organizationRepository,
             ApplicationRepository applicationRepository,
             RoleRepository roleRepository,
-            DocumentRepository documentRepository
+            IDocumentService documentService,
+            TokenVersionService tokenVersionService,
+            CurrentUser currentUser
     ) {
         this.profileRepository = profileRepository;
+        this.organizationRepository = organizationRepository;
         this.applicationRepository = applicationRepository;
         this.roleRepository = roleRepository;
-        this.documentRepository = documentRepository;
+        this.documentService = documentService;
+        this.tokenVersionService = tokenVersionService;
+        this.currentUser = currentUser;
     }
 
     public HrUsersResponseDto getMyOrganizationUsers() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        Long orgId = currentUser.getOrganizationId();
+        if (orgId == null) return new HrUsersResponseDto(null, null, List.of());
 
-        String email = (auth != null) ? auth.getName() : null;
-        if (email == null) throw new RuntimeException("Unauthenticated");
-
-        Profile me = profileRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("Profile not found"));
-
-        Organization org = me.getOrganization();
-        if (org == null) return new HrUsersResponseDto(null, null, List.of());
+        Organization org = organizationRepository.findById(orgId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Organization not found"));
 
         UUID ownerId = (org.getOwner() != null) ? org.getOwner().getId() : null;
 
@@ -72,15 +77,9 @@ public class HrDashboardService {
 
     @Transactional
     public void addExistingUserToMyOrganization(HrAddUserRequestDto req) {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String hrEmail = (auth != null) ? auth.getName() : null;
-        if (hrEmail == null) throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthenticated");
-
-        Profile hr = profileRepository.findByEmail(hrEmail)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "HR profile not found"));
-
-        Organization org = hr.getOrganization();
-        if (org == null) throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "HR has no organization");
+        Long orgId = currentUser.requireOrganizationId("HR has no organization");
+        // Only assigned to the target, so it need not be loaded.
+        Organization org = organizationRepository.getReferenceById(orgId);
 
         String targetEmail = req.getEmail() == null ? null : req.getEmail().trim();
         if (targetEmail == null || targetEmail.isBlank())
@@ -89,7 +88,7 @@ public class HrDashboardService {
         Profile target = profileRepository.findByEmail(targetEmail)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
 
-        if (target.getId().equals(hr.getId())) {
+        if (target.getId().equals(currentUser.getId())) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "You cannot add yourself.");
         }
 
@@ -114,6 +113,7 @@ public class HrDashboardService {
         }
         target.getRoles().add(roleEntity);
 
+        tokenVersionService.revokeTokens(target);
         profileRepository.save(target);
 
         applicationRepository.deleteByApplicant_Id(target.getId());
@@ -121,15 +121,9 @@ public class HrDashboardService {
 
     @Transactional
     public void removeUserFromMyOrganization(UUID userId) {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String hrEmail = (auth != null) ? auth.getName() : null;
-        if (hrEmail == null) throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthenticated");
-
-        Profile hr = profileRepository.findByEmail(hrEmail)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "HR profile not found"));
-
-        Organization org = hr.getOrganization();
-        if (org == null) throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "HR has no organization");
+        Long orgId = currentUser.requireOrganizationId("HR has no organization");
+        Organization org = organizationRepository.findById(orgId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Organization not found"));
 
         Profile target = profileRepository.findById(userId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
@@ -143,9 +137,10 @@ public class HrDashboardService {
         }
 
         target.setOrganization(null);
+        tokenVersionService.revokeTokens(target);
         profileRepository.save(target);
 
-        documentRepository.deleteByUploader_IdAndTypeNot(target.getId(), Document.DocumentType.CV);
+        documentService.deleteDocumentsOfUploader(target.getId(), Document.DocumentType.CV);
 
     }
 }
@@ -0,0 +1,298 @@
+package com.proceduralnexus.apiservice.business.services;
+
+import com.proceduralnexus.apiservice.business.interfaces.IDocumentService;
+import com.proceduralnexus.apiservice.business.storage.DocumentContent;
+import com.proceduralnexus.apiservice.business.storage.IoThrottle;
+import com.proceduralnexus.apiservice.controller.dtos.IntegrityIssueDto;
+import com.proceduralnexus.apiservice.controller.dtos.IntegrityScrubReportDto;
+import com.proceduralnexus.apiservice.data.entities.BlobIntegrity;
+import com.proceduralnexus.apiservice.data.entities.Document;
+import com.proceduralnexus.apiservice.data.entities.StoredBlob;
+import com.proceduralnexus.apiservice.data.repositories.DocumentRepository;
+import com.proceduralnexus.apiservice.data.repositories.StoredBlobRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Re-hashes stored document content in the background and flags blobs whose bytes no longer
+ * match their digest or that have disappeared from the store.
+ * <p>
+ * Each run first backfills digests for documents uploaded before content addressing, by
+ * moving their files into the blob store, then verifies every blob not checked within
+ * {@code reverify-after}, least recently verified first. Objects are read front to back in
+ * large chunks so the kernel's read-ahead (or the object store's streaming) does the work,
+ * and all reads share one bytes-per-second budget so scrubbing never competes with downloads.
+ * Results are written to {@code stored_blob}, so a restart resumes where the last run stopped.
+ * Only one instance scrubs at a time, see {@link ExclusiveRunLock}.
+ */
+@Service
+public class IntegrityScrubber {
+
+    private static final Logger logger = LoggerFactory.getLogger(IntegrityScrubber.class);
+
+    private static final int PAGE_SIZE = 100;
+    private static final int READ_BUFFER_SIZE = 1024 * 1024;
+    private static final int SAMPLE_LIMIT = 100;
+    private static final List<BlobIntegrity> FAILURES =
+            List.of(BlobIntegrity.MISMATCH, BlobIntegrity.MISSING, BlobIntegrity.UNREADABLE);
+
+    private final StoredBlobRepository storedBlobRepository;
+    private final DocumentRepository documentRepository;
+    private final BlobStorageService blobStorageService;
+    private final IDocumentService documentService;
+    private final TransactionTemplate transactionTemplate;
+    private final ExclusiveRunLock runLock;
+    private final boolean enabled;
+    private final long bytesPerSecond;
+    private final Duration reverifyAfter;
+
+    private final ExecutorService executor =
+            Executors.newSingleThreadExecutor(new CustomizableThreadFactory("integrity-scrubber-"));
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Progress progress;
+
+    public IntegrityScrubber(
+            StoredBlobRepository storedBlobRepository,
+            DocumentRepository documentRepository,
+            BlobStorageService blobStorageService,
+            IDocumentService documentService,
+            PlatformTransactionManager transactionManager,
+            ExclusiveRunLock runLock,
+            @Value("${app.storage.scrubber.enabled:true}") boolean enabled,
+            @Value("${app.storage.scrubber.bytes-per-second:20MB}") DataSize bytesPerSecond,
+            @Value("${app.storage.scrubber.reverify-after:30d}") Duration reverifyAfter
+    ) {
+        this.storedBlobRepository = storedBlobRepository;
+        this.documentRepository = documentRepository;
+        this.blobStorageService = blobStorageService;
+        this.documentService = documentService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.runLock = runLock;
+        this.enabled = enabled;
+        this.bytesPerSecond = bytesPerSecond.toBytes();
+        this.reverifyAfter = reverifyAfter;
+    }
+
+    @PreDestroy
+    void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Scheduled(
+            fixedDelayString = "${app.storage.scrubber.interval:PT1H}",
+            initialDelayString = "${app.storage.scrubber.initial-delay:PT10M}"
+    )
+    public void scheduledRun() {
+        if (enabled) {
+            start();
+        }
+    }
+
+    /**
+     * Starts a run in the background.
+     *
+     * @return {@code false} when a run is already in progress, here or on another instance
+     */
+    public boolean start() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        ExclusiveRunLock.Lease lease;
+        try {
+            lease = runLock.tryAcquire("integrity-scrubber");
+        } catch (RuntimeException ex) {
+            running.set(false);
+            throw ex;
+        }
+        if (lease == null) {
+            running.set(false);
+            return false;
+        }
+        Progress run = new Progress();
+        progress = run;
+        executor.execute(() -> {
+            try {
+                scrub(run);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException ex) {
+                logger.error("Integrity scrub failed", ex);
+            } finally {
+                run.finishedAt = Instant.now();
+                lease.close();
+                running.set(false);
+                logger.info("Integrity scrub finished: {} blobs ({} bytes) verified, {} mismatched, {} missing, "
+                                + "{} unreadable, {} legacy documents backfilled",
+                        run.blobsVerified, run.bytesVerified, run.mismatches, run.missing, run.unreadable,
+                        run.legacyBackfilled);
+            }
+        });
+        return true;
+    }
+
+    public IntegrityScrubReportDto getReport() {
+        IntegrityScrubReportDto report = new IntegrityScrubReportDto();
+        report.setRunning(running.get());
+
+        Progress run = progress;
+        if (run != null) {
+            report.setStartedAt(run.startedAt);
+            report.setFinishedAt(run.finishedAt);
+            report.setBlobsVerified(run.blobsVerified.get());
+            report.setBytesVerified(run.bytesVerified.get());
+            report.setMismatches(run.mismatches.get());
+            report.setMissing(run.missing.get());
+            report.setUnreadable(run.unreadable.get());
+            report.setLegacyDocumentsBackfilled(run.legacyBackfilled.get());
+            report.setLegacyDocumentsMissing(List.copyOf(run.legacyMissing));
+        }
+
+        for (StoredBlob blob : storedBlobRepository.findByIntegrityStatusInOrderByVerifiedAtDesc(FAILURES)) {
+            IntegrityIssueDto issue = new IntegrityIssueDto();
+            issue.setDigest(blob.getDigest());
+            issue.setStatus(blob.getIntegrityStatus().name());
+            issue.setVerifiedAt(blob.getVerifiedAt());
+            issue.setDocumentIds(documentRepository.findIdsByContentHash(blob.getDigest()));
+            report.getIssues().add(issue);
+        }
+        return report;
+    }
+
+    private void scrub(Progress run) throws InterruptedException {
+        IoThrottle throttle = new IoThrottle(bytesPerSecond);
+        backfillLegacyDocuments(run, throttle);
+
+        Instant before = run.startedAt.minus(reverifyAfter);
+        while (true) {
+            List<StoredBlob> due = storedBlobRepository.findDueForVerification(before, PageRequest.of(0, PAGE_SIZE));
+            if (due.isEmpty()) {
+                return;
+            }
+            for (StoredBlob blob : due) {
+                BlobIntegrity result = verify(blob, throttle, run);
+                transactionTemplate.executeWithoutResult(status ->
+                        storedBlobRepository.recordVerification(blob.getDigest(), Instant.now(), result));
+            }
+        }
+    }
+
+    private void backfillLegacyDocuments(Progress run, IoThrottle throttle) throws InterruptedException {
+        for (Long id : documentRepository.findLegacyDocumentIds()) {
+            Document document = documentRepository.findById(id).orElse(null);
+            if (document == null || document.getFilePath() == null) {
+                continue;
+            }
+
+            Path file = Paths.get(document.getFilePath()).normalize();
+            try {
+                throttle.acquire(Files.size(file));
+                if (documentService.backfillContentHash(id) != null) {
+                    run.legacyBackfilled.incrementAndGet();
+                }
+            } catch (NoSuchFileException ex) {
+                run.addLegacyMissing(id);
+            } catch (ResponseStatusException ex) {
+                if (ex.getStatusCode() == HttpStatus.NOT_FOUND) {
+                    run.addLegacyMissing(id);
+                } else {
+                    logger.warn("Could not backfill the digest of document {}: {}", id, ex.getMessage());
+                }
+            } catch (IOException ex) {
+                logger.warn("Could not backfill the digest of document {}: {}", id, ex.getMessage());
+            }
+        }
+    }
+
+    private BlobIntegrity verify(StoredBlob blob, IoThrottle throttle, Progress run) throws InterruptedException {
+        String digest = blob.getDigest();
+        BlobIntegrity result;
+        try {
+            DocumentContent content = blobStorageService.content(
+                    digest, blob.getStorageCodec(), blob.getSizeInBytes(), null);
+
+            MessageDigest hash = newDigest();
+            byte[] buffer = new byte[READ_BUFFER_SIZE];
+            try (InputStream in = content.open(0, -1)) {
+                int read;
+                while ((read = in.read(buffer)) >= 0) {
+                    hash.update(buffer, 0, read);
+                    run.bytesVerified.addAndGet(read);
+                    throttle.acquire(read);
+                }
+            }
+            result = HexFormat.of().formatHex(hash.digest()).equals(digest) ? BlobIntegrity.OK : BlobIntegrity.MISMATCH;
+        } catch (NoSuchFileException ex) {
+            result = BlobIntegrity.MISSING;
+        } catch (IOException ex) {
+            result = BlobIntegrity.UNREADABLE;
+        }
+
+        run.blobsVerified.incrementAndGet();
+        switch (result) {
+            case MISMATCH -> run.mismatches.incrementAndGet();
+            case MISSING -> run.missing.incrementAndGet();
+            case UNREADABLE -> run.unreadable.incrementAndGet();
+            default -> {
+            }
+        }
+        if (result != BlobIntegrity.OK) {
+            logger.warn("Integrity check of blob {} failed: {}", digest, result);
+        }
+        return result;
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(BlobStorageService.DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(BlobStorageService.DIGEST_ALGORITHM + " is not available", ex);
+        }
+    }
+
+    private static final class Progress {
+        final Instant startedAt = Instant.now();
+        volatile Instant finishedAt;
+        final AtomicLong blobsVerified = new AtomicLong();
+        final AtomicLong bytesVerified = new AtomicLong();
+        final AtomicLong mismatches = new AtomicLong();
+        final AtomicLong missing = new AtomicLong();
+        final AtomicLong unreadable = new AtomicLong();
+        final AtomicLong legacyBackfilled = new AtomicLong();
+        final List<Long> legacyMissing = new CopyOnWriteArrayList<>();
+
+        void addLegacyMissing(Long id) {
+            if (legacyMissing.size() < SAMPLE_LIMIT) {
+                legacyMissing.add(id);
+            }
+        }
+    }
+}
@@ -9,12 +9,14 @@ import com.proceduralnexus.apiservice.data.entities.Organization;
 import com.proceduralnexus.apiservice.data.entities.Profile;
 import com.proceduralnexus.apiservice.data.repositories.OrganizationRepository;
 import com.proceduralnexus.apiservice.data.repositories.ProfileRepository;
+import com.proceduralnexus.apiservice.security.TokenVersionService;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,20 +25,24 @@ public class OrganizationService implements IOrganizationService {
     private final OrganizationRepository organizationRepository;
     private final ProfileRepository profileRepository;
     private final EmailService emailService;
+    private final TokenVersionService tokenVersionService;
 
     public OrganizationService(OrganizationRepository organizationRepository,
                                ProfileRepository profileRepository,
-                               EmailService emailService) {
+                               EmailService emailService,
+                               TokenVersionService tokenVersionService) {
         this.organizationRepository = organizationRepository;
         this.profileRepository = profileRepository;
         this.emailService = emailService;
+        this.tokenVersionService = tokenVersionService;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<OrganizationResponseDto> getOrganizations() {
-        return organizationRepository.findAll()
+        return organizationRepository.findAllSummaries()
                 .stream()
-                .map(this::toDto)
+                .map(summary -> toDto(summary.organization(), summary.membersCount()))
                 .collect(Collectors.toList());
     }
 
@@ -66,6 +72,7 @@ public class OrganizationService implements IOrganizationService {
         Organization saved = organizationRepository.save(org);
 
         owner.setOrganization(saved);
+        tokenVersionService.revokeTokens(owner);
         profileRepository.save(owner);
 
         // Send organization created email to owner
@@ -82,13 +89,13 @@ public class OrganizationService implements IOrganizationService {
     @Override
     public OrganizationResponseDto updateOrganization(Long id,
                                                       OrganizationUpdateDto request,
-                                                      Profile currentUser,
+                                                      UUID currentUserId,
                                                       boolean isAdmin) {
         Organization org = organizationRepository.findById(id)
                 .orElseThrow(() ->
                         new ResponseStatusException(HttpStatus.NOT_FOUND, "Organization not found"));
 
-        if (!isAdmin && (org.getOwner() == null || !org.getOwner().getId().equals(currentUser.getId()))) {
+        if (!isAdmin && (org.getOwner() == null || !org.getOwner().getId().equals(currentUserId))) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN,
                     "You are not allowed to update this organization");
         }
@@ -122,11 +129,11 @@ public class OrganizationService implements IOrganizationService {
 
     @Override
     @Transactional
-    public void deleteOrganization(Long organizationId, Profile currentUser, boolean isAdmin) {
+    public void deleteOrganization(Long organizationId, UUID currentUserId, boolean isAdmin) {
         Organization org = organizationRepository.findById(organizationId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Organization not found"));
 
-        boolean isOwner = org.getOwner() != null && org.getOwner().getId().equals(currentUser.getId());
+        boolean isOwner = org.getOwner() != null && org.getOwner().getId().equals(currentUserId);
         if (!isOwner && !isAdmin) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN,
                     "Only the owner or an admin can delete the organization");
@@ -136,6 +143,7 @@ public class OrganizationService implements IOrganizationService {
         List<Profile> members = profileRepository.findAllByOrganization_Id(org.getId());
         for (Profile p : members) {
             p.setOrganization(null);
+            tokenVersionService.revokeTokens(p);
         }
         profileRepository.saveAll(members);
 
@@ -146,6 +154,10 @@ public class OrganizationService implements IOrganizationService {
     }
 
     private OrganizationResponseDto toDto(Organization org) {
+        return toDto(org, org.getMembers() != null ? org.getMembers().size() : 0);
+    }
+
+    private OrganizationResponseDto toDto(Organization org, long membersCount) {
         OrganizationResponseDto dto = new OrganizationResponseDto();
         dto.setId(org.getId());
         dto.setName(org.getName());
@@ -157,9 +169,7 @@ public class OrganizationService implements IOrganizationService {
             dto.setOwnerEmail(org.getOwner().getEmail());
         }
 
-        dto.setMembersCount(
-                org.getMembers() != null ? org.getMembers().size() : 0
-        );
+        dto.setMembersCount((int) membersCount);
 
         dto.setCreatedAt(org.getCreatedAt());
         dto.setUpdatedAt(org.getUpdatedAt());
@@ -8,12 +8,14 @@ import com.proceduralnexus.apiservice.controller.dtos.ProfilePatchRequest;
 import com.proceduralnexus.apiservice.data.entities.Organization;
 import com.proceduralnexus.apiservice.data.entities.RoleName;
 import com.proceduralnexus.apiservice.data.repositories.RoleRepository;
+import com.proceduralnexus.apiservice.security.TokenVersionService;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import com.proceduralnexus.apiservice.business.interfaces.IDocumentService;
 import com.proceduralnexus.apiservice.business.interfaces.IProfileService;
 import com.proceduralnexus.apiservice.controller.dtos.ProfileResponseDto;
 import com.proceduralnexus.apiservice.controller.dtos.ProfileUpdateDto;
@@ -30,18 +32,24 @@ public class ProfileService implements IProfileService {
     private final RoleRepository roleRepository;
     private final EmailService emailService;
     private final PasswordEncoder passwordEncoder;
+    private final IDocumentService documentService;
+    private final TokenVersionService tokenVersionService;
 
 
     public ProfileService(ProfileRepository profileRepository, 
                          OrganizationRepository organizationRepository, 
                          RoleRepository roleRepository,
                          EmailService emailService,
-                         PasswordEncoder passwordEncoder) {
+                         PasswordEncoder passwordEncoder,
+                         IDocumentService documentService,
+                         TokenVersionService tokenVersionService) {
         this.profileRepository = profileRepository;
         this.organizationRepository = organizationRepository;
         this.roleRepository = roleRepository;
         this.emailService = emailService;
         this.passwordEncoder = passwordEncoder;
+        this.documentService = documentService;
+        this.tokenVersionService = tokenVersionService;
     }
 
     @Override
@@ -68,6 +76,9 @@ public class ProfileService implements IProfileService {
                 .orElseThrow(() ->
                         new ResponseStatusException(HttpStatus.NOT_FOUND, "Profile not found"));
 
+        // Tokens carry the email and organization id.
+        boolean claimsChanged = !profile.getEmail().equals(request.getEmail());
+
         profile.setFirstname(request.getFirstname());
         profile.setLastname(request.getLastname());
         profile.setEmail(request.getEmail());
@@ -79,19 +90,29 @@ public class ProfileService implements IProfileService {
         if (request.getOrganizationId() != null) {
             Organization org = organizationRepository.findById(request.getOrganizationId())
                     .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Organization not found"));
+            claimsChanged |= profile.getOrganization() == null
+                    || !profile.getOrganization().getId().equals(org.getId());
             profile.setOrganization(org);
         }
 
+        if (claimsChanged) {
+            tokenVersionService.revokeTokens(profile);
+        }
+
         Profile saved = profileRepository.save(profile);
         return toDto(saved);
     }
 
     @Override
+    @Transactional
     public void deleteProfile(UUID id) {
         if (!profileRepository.existsById(id)) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Profile not found");
         }
+        // Their documents go with the profile (ON DELETE CASCADE); release their content first.
+        documentService.releaseContentOfUploader(id);
         profileRepository.deleteById(id);
+        tokenVersionService.evict(id);
     }
 
     public Profile findById(UUID id) {
@@ -127,6 +148,7 @@ public class ProfileService implements IProfileService {
                         new ResponseStatusException(HttpStatus.NOT_FOUND, "Profile not found"));
 
         boolean organizationChanged = false;
+        boolean rolesChanged = false;
         Organization newOrganization = null;
 
         if (req.getFirstname() != null) {
@@ -173,9 +195,15 @@ public class ProfileService implements IProfileService {
                             )))
                     .collect(Collectors.toSet());
 
+            rolesChanged = !newRoles.equals(profile.getRoles());
             profile.setRoles(newRoles);
         }
 
+        // Tokens carry the roles and organization id.
+        if (organizationChanged || rolesChanged) {
+            tokenVersionService.revokeTokens(profile);
+        }
+
         Profile saved = profileRepository.save(profile);
 
         // Send organization addition email if organization was added
@@ -0,0 +1,35 @@
+package com.proceduralnexus.apiservice.business.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * Publishes metadata cache evictions on a Redis channel that every instance subscribes to.
+ * <p>
+ * Pub/sub is fire-and-forget: an instance that is disconnected when a message is published
+ * misses it and serves the old entry until it expires.
+ */
+public class RedisDocumentEvictionBroadcaster implements DocumentEvictionBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisDocumentEvictionBroadcaster.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final String channel;
+
+    public RedisDocumentEvictionBroadcaster(StringRedisTemplate redisTemplate, String channel) {
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+    }
+
+    @Override
+    public void broadcast(String message) {
+        try {
+            redisTemplate.convertAndSend(channel, message);
+        } catch (DataAccessException ex) {
+            // The change itself is already committed; other instances catch up when the entry expires.
+            logger.warn("Could not broadcast metadata cache eviction {}: {}", message, ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,447 @@
+package com.proceduralnexus.apiservice.business.services;
+
+import com.proceduralnexus.apiservice.business.storage.DocumentStore;
+import com.proceduralnexus.apiservice.business.storage.IoThrottle;
+import com.proceduralnexus.apiservice.business.storage.StoredObject;
+import com.proceduralnexus.apiservice.controller.dtos.StorageReconciliationReportDto;
+import com.proceduralnexus.apiservice.data.entities.BlobCodec;
+import com.proceduralnexus.apiservice.data.repositories.DocumentRepository;
+import com.proceduralnexus.apiservice.data.repositories.StoredBlobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Finds and removes stored content that no document references any more.
+ * <p>
+ * A run has five passes:
+ * <ol>
+ *     <li>reference counts in {@code stored_blob} are recomputed from the {@code document} table,
+ *     which catches rows removed by a database cascade or outside the application;</li>
+ *     <li>the {@link DocumentStore} listing and the stored content of the {@code document} table
+ *     are streamed in key order and merge-joined, so neither side is loaded into memory;
+ *     objects with no document are orphans and documents with no object are reported missing;</li>
+ *     <li>files written directly into the storage directory before content addressing are
+ *     compared with the remaining legacy {@code file_path} values;</li>
+ *     <li>abandoned staging files are deleted;</li>
+ *     <li>expired upload sessions are purged, and part files of resumable uploads that have no
+ *     session left and were not written to for the session TTL are deleted.</li>
+ * </ol>
+ * Anything younger than {@code min-age} is left alone, which covers uploads that have placed
+ * their object but not committed their document yet, also on other instances. Orphans are
+ * quarantined by default so a mistake can be undone by moving the files back. Store operations
+ * are throttled so a large backlog does not saturate the disk or the object store. Only one
+ * instance runs a reconciliation at a time, see {@link ExclusiveRunLock}.
+ */
+@Service
+public class StorageReconciler {
+
+    private static final Logger logger = LoggerFactory.getLogger(StorageReconciler.class);
+
+    private static final int SAMPLE_LIMIT = 100;
+
+    private final DocumentRepository documentRepository;
+    private final StoredBlobRepository storedBlobRepository;
+    private final BlobStorageService blobStorageService;
+    private final DocumentUploadSessionService uploadSessionService;
+    private final DocumentStore documentStore;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ExclusiveRunLock runLock;
+    private final Path storageDirectory;
+    private final Path uploadSessionDirectory;
+    private final Duration uploadSessionTtl;
+    private final boolean enabled;
+    private final boolean quarantine;
+    private final Duration minAge;
+    private final double maxScanPerSecond;
+    private final double maxOperationsPerSecond;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile StorageReconciliationReportDto lastReport;
+
+    public StorageReconciler(
+            DocumentRepository documentRepository,
+            StoredBlobRepository storedBlobRepository,
+            BlobStorageService blobStorageService,
+            DocumentUploadSessionService uploadSessionService,
+            DocumentStore documentStore,
+            PlatformTransactionManager transactionManager,
+            ExclusiveRunLock runLock,
+            @Value("${app.documents.storage-path:uploads}") String storagePath,
+            @Value("${app.documents.uploads.session-ttl:24h}") Duration uploadSessionTtl,
+            @Value("${app.storage.reconciler.enabled:true}") boolean enabled,
+            @Value("${app.storage.reconciler.action:quarantine}") String action,
+            @Value("${app.storage.reconciler.min-age:6h}") Duration minAge,
+            @Value("${app.storage.reconciler.max-scan-per-second:2000}") double maxScanPerSecond,
+            @Value("${app.storage.reconciler.max-operations-per-second:20}") double maxOperationsPerSecond
+    ) {
+        this.documentRepository = documentRepository;
+        this.storedBlobRepository = storedBlobRepository;
+        this.blobStorageService = blobStorageService;
+        this.uploadSessionService = uploadSessionService;
+        this.documentStore = documentStore;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.runLock = runLock;
+        this.storageDirectory = Paths.get(storagePath).toAbsolutePath().normalize();
+        this.uploadSessionDirectory = DocumentUploadSessionService.sessionDirectory(storagePath);
+        this.uploadSessionTtl = uploadSessionTtl;
+        this.enabled = enabled;
+        this.minAge = minAge;
+        this.maxScanPerSecond = maxScanPerSecond;
+        this.maxOperationsPerSecond = maxOperationsPerSecond;
+
+        if ("quarantine".equalsIgnoreCase(action)) {
+            this.quarantine = true;
+        } else if ("delete".equalsIgnoreCase(action)) {
+            this.quarantine = false;
+        } else {
+            throw new IllegalArgumentException("app.storage.reconciler.action must be quarantine or delete, not " + action);
+        }
+    }
+
+    @Scheduled(cron = "${app.storage.reconciler.cron:0 30 3 * * *}")
+    public void scheduledRun() {
+        if (!enabled) {
+            return;
+        }
+        if (running.get()) {
+            logger.info("Skipping scheduled storage reconciliation, a run is already in progress");
+            return;
+        }
+        try {
+            reconcile(false);
+        } catch (ResponseStatusException ex) {
+            logger.info("Skipping scheduled storage reconciliation: {}", ex.getReason());
+        } catch (RuntimeException ex) {
+            logger.error("Storage reconciliation failed", ex);
+        }
+    }
+
+    public Optional<StorageReconciliationReportDto> getLastReport() {
+        return Optional.ofNullable(lastReport);
+    }
+
+    /**
+     * Runs a full reconciliation. With {@code dryRun} nothing is changed and the report only
+     * lists what would be repaired or removed.
+     */
+    public StorageReconciliationReportDto reconcile(boolean dryRun) {
+        if (!running.compareAndSet(false, true)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "A storage reconciliation is already running");
+        }
+        try (ExclusiveRunLock.Lease lease = runLock.tryAcquire("storage-reconciler")) {
+            if (lease == null) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        "A storage reconciliation is already running on another instance");
+            }
+            StorageReconciliationReportDto report = new StorageReconciliationReportDto();
+            report.setStartedAt(Instant.now());
+            report.setDryRun(dryRun);
+            report.setAction(quarantine ? "quarantine" : "delete");
+
+            Instant cutoff = report.getStartedAt().minus(minAge);
+            try {
+                repairReferenceCounts(report, cutoff);
+                sweepObjects(report, cutoff);
+                sweepLegacyFiles(report, cutoff);
+                sweepStagingFiles(report, cutoff);
+                sweepUploadSessions(report);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                report.getErrors().add("Interrupted");
+            } catch (IOException | RuntimeException ex) {
+                logger.error("Storage reconciliation aborted", ex);
+                report.getErrors().add("Aborted: " + ex.getMessage());
+            }
+
+            report.setFinishedAt(Instant.now());
+            logger.info("Storage reconciliation {}: scanned {} objects, {} orphans ({} bytes), {} removed, "
+                            + "{} quarantined, {} missing, {} reference counts repaired, {} legacy orphans",
+                    dryRun ? "(dry run)" : "finished",
+                    report.getObjectsScanned(), report.getOrphanObjects(), report.getOrphanBytes(),
+                    report.getRemovedObjects(), report.getQuarantinedObjects(), report.getMissingObjects(),
+                    report.getReferenceCountsRepaired(), report.getLegacyOrphanFiles());
+            lastReport = report;
+            return report;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void repairReferenceCounts(StorageReconciliationReportDto report, Instant cutoff) {
+        for (String digest : storedBlobRepository.findDigestsWithStaleRefCount()) {
+            if (report.isDryRun() || blobStorageService.repairReferences(digest, cutoff)) {
+                report.setReferenceCountsRepaired(report.getReferenceCountsRepaired() + 1);
+            }
+        }
+    }
+
+    private void sweepObjects(StorageReconciliationReportDto report, Instant cutoff)
+            throws IOException, InterruptedException {
+        IoThrottle scanThrottle = new IoThrottle(maxScanPerSecond);
+        List<StoredObject> orphans = new ArrayList<>();
+
+        try (Stream<StoredObject> objects = documentStore.list()) {
+            Iterator<StoredObject> stored = objects.iterator();
+            InterruptedException interrupted = readOnlyTransaction.execute(status -> {
+                try (Stream<Object[]> rows = documentRepository.streamStoredContent()) {
+                    mergeJoin(stored, new ExpectedKeys(rows.iterator()), scanThrottle, cutoff, report, orphans);
+                    return null;
+                } catch (InterruptedException ex) {
+                    return ex;
+                }
+            });
+            if (interrupted != null) {
+                throw interrupted;
+            }
+        }
+
+        // Removal re-checks each key under its digest lock, outside the listing transaction.
+        IoThrottle operationThrottle = new IoThrottle(maxOperationsPerSecond);
+        for (StoredObject orphan : orphans) {
+            if (report.isDryRun()) {
+                continue;
+            }
+            operationThrottle.acquire(1);
+            try {
+                if (blobStorageService.removeIfUnreferenced(orphan.key(), quarantine)) {
+                    countRemoval(report);
+                }
+            } catch (IOException ex) {
+                addError(report, "Could not remove " + orphan.key() + ": " + ex.getMessage());
+            }
+        }
+    }
+
+    private void mergeJoin(
+            Iterator<StoredObject> stored,
+            Iterator<String> expected,
+            IoThrottle throttle,
+            Instant cutoff,
+            StorageReconciliationReportDto report,
+            List<StoredObject> orphans
+    ) throws InterruptedException {
+        StoredObject object = stored.hasNext() ? stored.next() : null;
+        String key = expected.hasNext() ? expected.next() : null;
+        // Previews sort after every content key of their digest, so that digest was the last one seen.
+        String lastDigest = null;
+
+        while (object != null || key != null) {
+            int order = object == null ? 1 : key == null ? -1 : object.key().compareTo(key);
+
+            if (order <= 0) {
+                throttle.acquire(1);
+                report.setObjectsScanned(report.getObjectsScanned() + 1);
+                report.setBytesScanned(report.getBytesScanned() + object.size());
+                String digest = BlobStorageService.digestOf(object.key());
+                boolean referencedPreview = BlobStorageService.isPreviewKey(object.key()) && digest != null
+                        && digest.equals(lastDigest);
+                if (order < 0 && digest != null && !referencedPreview
+                        && object.lastModified() != null && object.lastModified().isBefore(cutoff)) {
+                    report.setOrphanObjects(report.getOrphanObjects() + 1);
+                    report.setOrphanBytes(report.getOrphanBytes() + object.size());
+                    addSample(report.getOrphanSample(), object.key());
+                    orphans.add(object);
+                }
+                object = stored.hasNext() ? stored.next() : null;
+            } else {
+                report.setMissingObjects(report.getMissingObjects() + 1);
+                addSample(report.getMissingSample(), key);
+            }
+
+            if (order >= 0) {
+                lastDigest = BlobStorageService.digestOf(key);
+                key = expected.hasNext() ? expected.next() : null;
+            }
+        }
+    }
+
+    private void sweepLegacyFiles(StorageReconciliationReportDto report, Instant cutoff)
+            throws IOException, InterruptedException {
+        if (!Files.isDirectory(storageDirectory)) {
+            return;
+        }
+
+        Set<Path> referenced = new HashSet<>();
+        for (String filePath : documentRepository.findLegacyFilePaths()) {
+            if (filePath != null && !filePath.isBlank()) {
+                referenced.add(Paths.get(filePath).toAbsolutePath().normalize());
+            }
+        }
+
+        Path legacyQuarantine = storageDirectory.resolve("quarantine").resolve("legacy");
+        IoThrottle operationThrottle = new IoThrottle(maxOperationsPerSecond);
+
+        // Before content addressing, uploads were written straight into the storage directory.
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(storageDirectory)) {
+            for (Path file : entries) {
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                if (!attributes.isRegularFile()
+                        || file.getFileName().toString().startsWith(".")
+                        || referenced.contains(file)
+                        || !attributes.lastModifiedTime().toInstant().isBefore(cutoff)) {
+                    continue;
+                }
+
+                report.setLegacyOrphanFiles(report.getLegacyOrphanFiles() + 1);
+                report.setLegacyOrphanBytes(report.getLegacyOrphanBytes() + attributes.size());
+                addSample(report.getOrphanSample(), file.getFileName().toString());
+                if (report.isDryRun()) {
+                    continue;
+                }
+
+                operationThrottle.acquire(1);
+                try {
+                    if (quarantine) {
+                        Files.createDirectories(legacyQuarantine);
+                        move(file, legacyQuarantine.resolve(file.getFileName()));
+                    } else {
+                        Files.deleteIfExists(file);
+                    }
+                    countRemoval(report);
+                } catch (IOException ex) {
+                    addError(report, "Could not remove " + file + ": " + ex.getMessage());
+                }
+            }
+        }
+    }
+
+    private void sweepStagingFiles(StorageReconciliationReportDto report, Instant cutoff) throws IOException {
+        Path staging = storageDirectory.resolve(".staging");
+        if (!Files.isDirectory(staging)) {
+            return;
+        }
+
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(staging, "*.tmp")) {
+            for (Path file : entries) {
+                if (!Files.getLastModifiedTime(file).toInstant().isBefore(cutoff)) {
+                    continue;
+                }
+                if (!report.isDryRun()) {
+                    Files.deleteIfExists(file);
+                }
+                report.setStagingFilesRemoved(report.getStagingFilesRemoved() + 1);
+            }
+        }
+    }
+
+    private void sweepUploadSessions(StorageReconciliationReportDto report) throws IOException {
+        if (!report.isDryRun()) {
+            report.setUploadSessionsPurged(uploadSessionService.purgeExpiredSessions());
+        }
+        if (!Files.isDirectory(uploadSessionDirectory)) {
+            return;
+        }
+
+        // Chunk writes touch the part file, so an old one belongs to a session that is idle at best.
+        Instant cutoff = report.getStartedAt().minus(uploadSessionTtl);
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(uploadSessionDirectory, "*.part")) {
+            for (Path file : entries) {
+                if (!Files.getLastModifiedTime(file).toInstant().isBefore(cutoff)) {
+                    continue;
+                }
+                UUID sessionId = DocumentUploadSessionService.sessionIdOf(file);
+                if (sessionId != null && uploadSessionService.isActive(sessionId)) {
+                    continue;
+                }
+                if (!report.isDryRun()) {
+                    Files.deleteIfExists(file);
+                }
+                report.setUploadPartFilesRemoved(report.getUploadPartFilesRemoved() + 1);
+            }
+        }
+    }
+
+    private void countRemoval(StorageReconciliationReportDto report) {
+        if (quarantine) {
+            report.setQuarantinedObjects(report.getQuarantinedObjects() + 1);
+        } else {
+            report.setRemovedObjects(report.getRemovedObjects() + 1);
+        }
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void addSample(List<String> sample, String value) {
+        if (sample.size() < SAMPLE_LIMIT) {
+            sample.add(value);
+        }
+    }
+
+    private void addError(StorageReconciliationReportDto report, String message) {
+        logger.warn(message);
+        addSample(report.getErrors(), message);
+    }
+
+    /**
+     * Turns the (content_hash, storage_codec) rows, ordered by hash, into the sorted object keys
+     * they are stored under. A hash's keys sort directly after the bare hash and before the next
+     * hash, so sorting within one hash keeps the whole sequence in order.
+     */
+    private static final class ExpectedKeys implements Iterator<String> {
+        private final Iterator<Object[]> rows;
+        private final TreeSet<String> pending = new TreeSet<>();
+        private Object[] lookahead;
+
+        ExpectedKeys(Iterator<Object[]> rows) {
+            this.rows = rows;
+            this.lookahead = rows.hasNext() ? rows.next() : null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (pending.isEmpty() && lookahead != null) {
+                String hash = (String) lookahead[0];
+                while (lookahead != null && hash.equals(lookahead[0])) {
+                    BlobCodec codec = lookahead[1] == null ? BlobCodec.NONE : BlobCodec.valueOf((String) lookahead[1]);
+                    pending.add(BlobStorageService.objectKey(hash, codec));
+                    lookahead = rows.hasNext() ? rows.next() : null;
+                }
+            }
+            return !pending.isEmpty();
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return pending.pollFirst();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.proceduralnexus.apiservice.business.services;
+
+import com.proceduralnexus.apiservice.controller.support.RetryAfterException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileStore;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Decides whether an upload may start, so a burst of uploads cannot take every request
+ * thread or fill the disk.
+ * <p>
+ * Uploads hold a permit for as long as their request runs. Permits are limited globally
+ * (leaving the rest of the Tomcat pool to reads) and per tenant, i.e. per organization, or
+ * per user for users without one. Once the global pool is mostly taken, a tenant that already
+ * holds its fair share of it (the pool divided by the tenants currently uploading) is
+ * turned away too, so one busy organization cannot crowd out the others. A free-space
+ * watermark on the storage volume is checked before any bytes are read.
+ * <p>
+ * Rejections are immediate rather than queued, because a queued upload would still tie up
+ * a request thread; clients are told when to retry.
+ */
+@Service
+public class UploadAdmissionService {
+
+    // Share of the global permits in use above which fair shares are enforced.
+    private static final double CONTENTION_THRESHOLD = 0.75;
+
+    private final boolean enabled;
+    private final int globalLimit;
+    private final int tenantLimit;
+    private final long minFreeDiskBytes;
+    private final Duration retryAfter;
+    private final Duration diskFullRetryAfter;
+    private final Path storageDirectory;
+
+    private final Semaphore globalPermits;
+    private final ConcurrentHashMap<String, Integer> tenantPermits = new ConcurrentHashMap<>();
+
+    public UploadAdmissionService(
+            @Value("${app.uploads.admission.enabled:true}") boolean enabled,
+            @Value("${app.uploads.admission.max-concurrent:32}") int globalLimit,
+            @Value("${app.uploads.admission.max-concurrent-per-organization:8}") int tenantLimit,
+            @Value("${app.uploads.admission.min-free-disk:2GB}") DataSize minFreeDisk,
+            @Value("${app.uploads.admission.retry-after:5s}") Duration retryAfter,
+            @Value("${app.uploads.admission.disk-full-retry-after:5m}") Duration diskFullRetryAfter,
+            @Value("${app.documents.storage-path:uploads}") String storagePath
+    ) {
+        this.enabled = enabled;
+        this.globalLimit = globalLimit;
+        this.tenantLimit = tenantLimit;
+        this.minFreeDiskBytes = minFreeDisk.toBytes();
+        this.retryAfter = retryAfter;
+        this.diskFullRetryAfter = diskFullRetryAfter;
+        this.storageDirectory = Paths.get(storagePath).toAbsolutePath().normalize();
+        this.globalPermits = new Semaphore(globalLimit);
+    }
+
+    /**
+     * Admits an upload of {@code contentLength} bytes (or unknown, when negative) by
+     * {@code userId}, a member of {@code organizationId} (or of none, when null), as the
+     * caller's access token says. The returned permit must be closed when the request finishes.
+     *
+     * @throws RetryAfterException with 507 when the disk is too full or 429 when too many
+     *                             uploads are running
+     */
+    public Permit admit(UUID userId, Long organizationId, long contentLength) {
+        if (!enabled) {
+            return Permit.NONE;
+        }
+
+        checkFreeSpace(contentLength);
+
+        String tenant = tenantOf(userId, organizationId);
+        if (!globalPermits.tryAcquire()) {
+            throw new RetryAfterException(HttpStatus.TOO_MANY_REQUESTS, "Too many uploads in progress", retryAfter);
+        }
+
+        boolean contended = globalLimit - globalPermits.availablePermits() > globalLimit * CONTENTION_THRESHOLD;
+        AtomicBoolean admitted = new AtomicBoolean();
+        tenantPermits.compute(tenant, (key, held) -> {
+            int current = held == null ? 0 : held;
+            int fairShare = Math.max(1, globalLimit / Math.max(1, tenantPermits.size()));
+            if (current >= tenantLimit || (contended && current >= fairShare)) {
+                return held;
+            }
+            admitted.set(true);
+            return current + 1;
+        });
+
+        if (!admitted.get()) {
+            globalPermits.release();
+            throw new RetryAfterException(HttpStatus.TOO_MANY_REQUESTS,
+                    "Too many uploads in progress for your organization", retryAfter);
+        }
+
+        return new Permit(() -> {
+            tenantPermits.computeIfPresent(tenant, (key, held) -> held <= 1 ? null : held - 1);
+            globalPermits.release();
+        });
+    }
+
+    private void checkFreeSpace(long contentLength) {
+        long usable;
+        try {
+            FileStore store = Files.getFileStore(Files.exists(storageDirectory) ? storageDirectory : storageDirectory.getRoot());
+            usable = store.getUsableSpace();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        if (usable - Math.max(0, contentLength) < minFreeDiskBytes) {
+            throw new RetryAfterException(HttpStatus.INSUFFICIENT_STORAGE,
+                    "Not enough storage space to accept uploads", diskFullRetryAfter);
+        }
+    }
+
+    private static String tenantOf(UUID userId, Long organizationId) {
+        if (organizationId != null) {
+            return "org:" + organizationId;
+        }
+        return userId == null ? "anonymous" : "user:" + userId;
+    }
+
+    /**
+     * Held by an admitted upload; closing it more than once is harmless.
+     */
+    public static final class Permit implements AutoCloseable {
+        static final Permit NONE = new Permit(() -> { });
+
+        private final Runnable release;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Permit(Runnable release) {
+            this.release = release;
+        }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                release.run();
+            }
+        }
+    }
+}
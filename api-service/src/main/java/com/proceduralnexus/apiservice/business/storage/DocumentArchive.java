@@ -0,0 +1,91 @@
+package com.proceduralnexus.apiservice.business.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * A ZIP of several documents that is produced while it is written out.
+ * <p>
+ * Entries are copied one at a time from their stored content with a small fixed buffer,
+ * so memory use does not depend on the number or size of the documents and no temporary
+ * archive is created.
+ */
+public final class DocumentArchive {
+
+    private static final Logger logger = LoggerFactory.getLogger(DocumentArchive.class);
+
+    @FunctionalInterface
+    public interface ContentSource {
+        DocumentContent load() throws IOException;
+    }
+
+    public record Entry(String fileName, ContentSource source) {
+    }
+
+    private final String fileName;
+    private final List<Entry> entries;
+
+    public DocumentArchive(String fileName, List<Entry> entries) {
+        this.fileName = fileName;
+        this.entries = List.copyOf(entries);
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(out);
+        // Most documents are PDFs, which barely shrink; favor throughput over ratio.
+        zip.setLevel(Deflater.BEST_SPEED);
+
+        Set<String> usedNames = new HashSet<>();
+        for (Entry entry : entries) {
+            DocumentContent content;
+            try {
+                content = entry.source().load();
+            } catch (IOException | RuntimeException ex) {
+                // The response is already streaming; leave the document out rather than break the archive.
+                logger.warn("Skipping {} in export {}: {}", entry.fileName(), fileName, ex.getMessage());
+                continue;
+            }
+
+            zip.putNextEntry(new ZipEntry(uniqueName(entry.fileName(), usedNames)));
+            try (InputStream in = content.open(0, -1)) {
+                in.transferTo(zip);
+            }
+            zip.closeEntry();
+        }
+
+        zip.finish();
+        zip.flush();
+    }
+
+    private static String uniqueName(String name, Set<String> usedNames) {
+        String safe = name.replaceAll("[\\\\/:*?\"<>|\\p{Cntrl}]", "_");
+        String candidate = safe;
+        int dot = safe.lastIndexOf('.');
+        String base = dot > 0 ? safe.substring(0, dot) : safe;
+        String extension = dot > 0 ? safe.substring(dot) : "";
+
+        for (int copy = 2; !usedNames.add(candidate.toLowerCase(Locale.ROOT)); copy++) {
+            candidate = base + " (" + copy + ")" + extension;
+        }
+        return candidate;
+    }
+}
@@ -0,0 +1,72 @@
+package com.proceduralnexus.apiservice.business.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * The stored bytes of a document together with what is needed to serve them over HTTP:
+ * length, validators (content hash / last modification) and access either as a local
+ * file, for zero-copy transfers, or as a ranged stream.
+ */
+public final class DocumentContent {
+
+    @FunctionalInterface
+    public interface RangeReader {
+        InputStream open(long offset, long length) throws IOException;
+    }
+
+    private final long length;
+    private final String contentHash;
+    private final Instant lastModified;
+    private final Path localFile;
+    private final RangeReader reader;
+
+    public DocumentContent(long length, String contentHash, Instant lastModified, Path localFile, RangeReader reader) {
+        this.length = length;
+        this.contentHash = contentHash;
+        this.lastModified = lastModified;
+        this.localFile = localFile;
+        this.reader = reader;
+    }
+
+    public long getLength() {
+        return length;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public Instant getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * The file holding exactly these bytes, when they are stored uncompressed on local disk.
+     */
+    public Optional<Path> getLocalFile() {
+        return Optional.ofNullable(localFile);
+    }
+
+    /**
+     * Opens {@code length} bytes starting at {@code offset}; a negative length reads to the end.
+     */
+    public InputStream open(long offset, long length) throws IOException {
+        return reader.open(offset, length);
+    }
+
+    /**
+     * Strong validator from the content digest when there is one, otherwise a weak one
+     * derived from the modification time and size.
+     */
+    public String getETag() {
+        if (contentHash != null) {
+            return "\"sha256-" + contentHash + "\"";
+        }
+        long modified = lastModified != null ? lastModified.toEpochMilli() : 0L;
+        return "W/\"" + Long.toHexString(modified) + "-" + Long.toHexString(length) + "\"";
+    }
+}
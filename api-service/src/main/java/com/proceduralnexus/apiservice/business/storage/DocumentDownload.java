@@ -0,0 +1,10 @@
+package com.proceduralnexus.apiservice.business.storage;
+
+import com.proceduralnexus.apiservice.controller.dtos.DocumentResponseDto;
+
+/**
+ * Everything needed to answer a download: the document's metadata and its stored bytes,
+ * resolved from a single lookup.
+ */
+public record DocumentDownload(DocumentResponseDto metadata, DocumentContent content) {
+}
@@ -0,0 +1,14 @@
+package com.proceduralnexus.apiservice.business.storage;
+
+/**
+ * A rendered first-page preview of a document's content, as a small JPEG.
+ */
+public record DocumentPreview(String contentHash, byte[] image) {
+
+    /**
+     * Previews are derived from immutable content, so the digest identifies them for good.
+     */
+    public String getETag() {
+        return "\"preview-" + contentHash + "\"";
+    }
+}
@@ -0,0 +1,60 @@
+package com.proceduralnexus.apiservice.business.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Storage backend for document content.
+ * <p>
+ * Keys are opaque, URL-safe strings chosen by the caller (content digests in practice).
+ * Implementations must stream in both directions: {@link #put} consumes a file that is
+ * already on local disk and {@link #open} returns a stream over the stored bytes, so no
+ * backend ever has to hold a whole document on the heap.
+ */
+public interface DocumentStore {
+
+    boolean exists(String key) throws IOException;
+
+    /**
+     * Stores the local file {@code source} under {@code key}. The source file is consumed:
+     * it is moved or deleted once the bytes are safely stored.
+     */
+    void put(String key, Path source, long size) throws IOException;
+
+    /**
+     * Opens {@code length} bytes of the object starting at {@code offset}; a negative
+     * length reads to the end.
+     */
+    InputStream open(String key, long offset, long length) throws IOException;
+
+    default InputStream open(String key) throws IOException {
+        return open(key, 0, -1);
+    }
+
+    long size(String key) throws IOException;
+
+    void delete(String key) throws IOException;
+
+    /**
+     * Streams every object in ascending key order (plain {@link String#compareTo} order), so
+     * callers can merge-join the listing with other sorted sources. Close the stream when done.
+     */
+    Stream<StoredObject> list() throws IOException;
+
+    /**
+     * Moves the object out of the store into a quarantine area kept by the backend, where it
+     * is no longer listed or served but can still be restored by hand.
+     */
+    void quarantine(String key) throws IOException;
+
+    /**
+     * The file backing {@code key} when this store keeps its objects on the local
+     * filesystem, which lets callers use zero-copy file transfers.
+     */
+    default Optional<Path> localPath(String key) {
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,337 @@
+package com.proceduralnexus.apiservice.business.storage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Seekable deflate container used to keep documents compressed at rest.
+ * <p>
+ * The input is cut into fixed-size frames that are deflated independently, so a byte range
+ * can be served by inflating only the frames it touches:
+ * <pre>
+ * header   "PNXZ" | version (1 byte) | frame size (int)
+ * frames   compressed length (int) | raw deflate data      ... repeated
+ * end      0 (int)
+ * index    compressed offset of each frame (long)          ... one per frame
+ * trailer  frame count (int) | original size (long) | index offset (long) | "PNXI"
+ * </pre>
+ * Reading from the start needs neither index nor trailer; a ranged read fetches the trailer
+ * and the index entry of its first frame, then streams from there.
+ */
+public final class FramedDeflate {
+
+    private static final int HEADER_MAGIC = 0x504E585A; // "PNXZ"
+    private static final int TRAILER_MAGIC = 0x504E5849; // "PNXI"
+    private static final byte VERSION = 1;
+    private static final int HEADER_SIZE = 4 + 1 + 4;
+    private static final int TRAILER_SIZE = 4 + 8 + 8 + 4;
+
+    private FramedDeflate() {
+    }
+
+    /**
+     * Wraps {@code out} so that everything written is stored as framed deflate. Closing the
+     * returned stream writes the index and trailer and closes {@code out}.
+     */
+    public static OutputStream compressor(OutputStream out, int frameSize, int level) throws IOException {
+        return new FrameWriter(out, frameSize, level);
+    }
+
+    /**
+     * Whether deflating {@code sample} saves enough to be worth it: the compressed size must be
+     * at most {@code maxRatio} of the original.
+     */
+    public static boolean isCompressible(byte[] sample, int length, int level, double maxRatio) {
+        if (length == 0) {
+            return false;
+        }
+        Deflater deflater = new Deflater(level, true);
+        try {
+            deflater.setInput(sample, 0, length);
+            deflater.finish();
+            byte[] scratch = new byte[8192];
+            long compressed = 0;
+            long budget = (long) (length * maxRatio);
+            while (!deflater.finished()) {
+                compressed += deflater.deflate(scratch);
+                if (compressed > budget) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Opens {@code length} uncompressed bytes starting at {@code offset} of the framed object
+     * stored under {@code key}; a negative length reads to the end.
+     */
+    public static InputStream open(DocumentStore store, String key, long offset, long length) throws IOException {
+        if (length == 0) {
+            return InputStream.nullInputStream();
+        }
+
+        DataInputStream header = new DataInputStream(store.open(key, 0, HEADER_SIZE));
+        int frameSize;
+        try (header) {
+            if (header.readInt() != HEADER_MAGIC || header.readByte() != VERSION) {
+                throw new IOException("Object " + key + " is not a framed deflate stream");
+            }
+            frameSize = header.readInt();
+        }
+
+        long frameStart = HEADER_SIZE;
+        int frame = 0;
+        if (offset >= frameSize) {
+            long storedSize = store.size(key);
+            long indexOffset;
+            int frameCount;
+            try (DataInputStream trailer = new DataInputStream(store.open(key, storedSize - TRAILER_SIZE, TRAILER_SIZE))) {
+                frameCount = trailer.readInt();
+                trailer.readLong();
+                indexOffset = trailer.readLong();
+                if (trailer.readInt() != TRAILER_MAGIC) {
+                    throw new IOException("Object " + key + " has a damaged trailer");
+                }
+            }
+
+            frame = (int) (offset / frameSize);
+            if (frame >= frameCount) {
+                return InputStream.nullInputStream();
+            }
+            try (DataInputStream index = new DataInputStream(store.open(key, indexOffset + 8L * frame, 8))) {
+                frameStart = index.readLong();
+            }
+        }
+
+        InputStream frames = new FrameReader(store.open(key, frameStart, -1), frameSize);
+        try {
+            // Stops early at the end marker, so an offset past the end reads nothing.
+            frames.skip(offset - (long) frame * frameSize);
+        } catch (IOException | RuntimeException ex) {
+            frames.close();
+            throw ex;
+        }
+        return length < 0 ? frames : new BoundedInputStream(frames, length);
+    }
+
+    /**
+     * The uncompressed size recorded in the trailer of the framed object under {@code key}.
+     */
+    public static long originalSize(DocumentStore store, String key) throws IOException {
+        long storedSize = store.size(key);
+        try (DataInputStream trailer = new DataInputStream(store.open(key, storedSize - TRAILER_SIZE, TRAILER_SIZE))) {
+            trailer.readInt();
+            long originalSize = trailer.readLong();
+            trailer.readLong();
+            if (trailer.readInt() != TRAILER_MAGIC) {
+                throw new IOException("Object " + key + " has a damaged trailer");
+            }
+            return originalSize;
+        }
+    }
+
+    private static final class FrameWriter extends FilterOutputStream {
+        private final Deflater deflater;
+        private final byte[] frame;
+        private byte[] compressed;
+        private final ByteArrayOutputStream index = new ByteArrayOutputStream();
+        private int buffered;
+        private long position;
+        private long originalSize;
+        private int frameCount;
+        private boolean closed;
+
+        FrameWriter(OutputStream out, int frameSize, int level) throws IOException {
+            super(out);
+            this.deflater = new Deflater(level, true);
+            this.frame = new byte[frameSize];
+            // Incompressible input grows by a few bytes per 16K block; the buffer still grows if needed.
+            this.compressed = new byte[frameSize + frameSize / 1000 + 64];
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(HEADER_MAGIC).put(VERSION).putInt(frameSize);
+            out.write(header.array());
+            position = HEADER_SIZE;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            frame[buffered++] = (byte) b;
+            if (buffered == frame.length) {
+                flushFrame();
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                int n = Math.min(len, frame.length - buffered);
+                System.arraycopy(b, off, frame, buffered, n);
+                buffered += n;
+                off += n;
+                len -= n;
+                if (buffered == frame.length) {
+                    flushFrame();
+                }
+            }
+        }
+
+        private void flushFrame() throws IOException {
+            if (buffered == 0) {
+                return;
+            }
+            deflater.reset();
+            deflater.setInput(frame, 0, buffered);
+            deflater.finish();
+            int length = 0;
+            while (!deflater.finished()) {
+                if (length == compressed.length) {
+                    compressed = Arrays.copyOf(compressed, compressed.length * 2);
+                }
+                length += deflater.deflate(compressed, length, compressed.length - length);
+            }
+
+            index.write(ByteBuffer.allocate(8).putLong(position).array());
+            out.write(ByteBuffer.allocate(4).putInt(length).array());
+            out.write(compressed, 0, length);
+
+            position += 4 + length;
+            originalSize += buffered;
+            frameCount++;
+            buffered = 0;
+        }
+
+        @Override
+        public void flush() {
+            // Frames are only written whole; the underlying stream is flushed on close.
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                flushFrame();
+                out.write(ByteBuffer.allocate(4).putInt(0).array());
+                long indexOffset = position + 4;
+                index.writeTo(out);
+
+                ByteBuffer trailer = ByteBuffer.allocate(TRAILER_SIZE);
+                trailer.putInt(frameCount).putLong(originalSize).putLong(indexOffset).putInt(TRAILER_MAGIC);
+                out.write(trailer.array());
+                out.flush();
+            } finally {
+                deflater.end();
+                out.close();
+            }
+        }
+    }
+
+    private static final class FrameReader extends InputStream {
+        private final DataInputStream in;
+        private final Inflater inflater = new Inflater(true);
+        private final byte[] frame;
+        private byte[] compressed = new byte[0];
+        private int available;
+        private int position;
+        private boolean finished;
+
+        FrameReader(InputStream in, int frameSize) {
+            this.in = new DataInputStream(in);
+            this.frame = new byte[frameSize];
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (!fill()) {
+                return -1;
+            }
+            return frame[position++] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (!fill()) {
+                return -1;
+            }
+            int n = Math.min(len, available - position);
+            System.arraycopy(frame, position, b, off, n);
+            position += n;
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = 0;
+            while (skipped < n && fill()) {
+                int step = (int) Math.min(n - skipped, available - position);
+                position += step;
+                skipped += step;
+            }
+            return skipped;
+        }
+
+        private boolean fill() throws IOException {
+            while (position == available) {
+                if (finished) {
+                    return false;
+                }
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException ex) {
+                    throw new IOException("Framed deflate stream ended without an end marker", ex);
+                }
+                if (length == 0) {
+                    finished = true;
+                    return false;
+                }
+                if (compressed.length < length) {
+                    compressed = new byte[length];
+                }
+                in.readFully(compressed, 0, length);
+
+                inflater.reset();
+                inflater.setInput(compressed, 0, length);
+                try {
+                    available = 0;
+                    while (!inflater.finished() && available < frame.length) {
+                        int n = inflater.inflate(frame, available, frame.length - available);
+                        if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                            throw new IOException("Truncated frame in framed deflate stream");
+                        }
+                        available += n;
+                    }
+                } catch (DataFormatException ex) {
+                    throw new IOException("Corrupt frame in framed deflate stream", ex);
+                }
+                position = 0;
+            }
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            inflater.end();
+            in.close();
+        }
+    }
+}
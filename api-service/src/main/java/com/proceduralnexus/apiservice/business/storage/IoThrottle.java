@@ -0,0 +1,35 @@
+package com.proceduralnexus.apiservice.business.storage;
+
+/**
+ * Paces background storage work (objects or bytes per second) so maintenance jobs do not
+ * compete with user traffic for disk or network bandwidth. Not thread-safe: each job run
+ * uses its own instance.
+ */
+public final class IoThrottle {
+
+    private final double permitsPerSecond;
+    private long nextFreeNanos = System.nanoTime();
+
+    public IoThrottle(double permitsPerSecond) {
+        this.permitsPerSecond = permitsPerSecond;
+    }
+
+    /**
+     * Accounts for {@code permits} units of work, sleeping first if the work done so far is
+     * ahead of the configured rate. A rate of zero or less disables throttling.
+     */
+    public void acquire(long permits) throws InterruptedException {
+        if (permitsPerSecond <= 0 || permits <= 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (nextFreeNanos > now) {
+            long waitNanos = nextFreeNanos - now;
+            Thread.sleep(waitNanos / 1_000_000, (int) (waitNanos % 1_000_000));
+        } else {
+            // Do not bank unused time from idle periods into a later burst.
+            nextFreeNanos = now;
+        }
+        nextFreeNanos += (long) (permits * 1_000_000_000d / permitsPerSecond);
+    }
+}
@@ -0,0 +1,210 @@
+package com.proceduralnexus.apiservice.business.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Keeps objects on the local filesystem in a hash-sharded tree:
+ * with the default depth of 2 the key {@code 3fa9c1...} lives at {@code 3f/a9/3fa9c1...}.
+ * Keys are content digests, so the shards fill evenly and no directory grows past a few
+ * hundred entries even with millions of documents. Quarantined objects are moved to a
+ * {@code quarantine} directory next to the root.
+ */
+public class LocalDocumentStore implements DocumentStore {
+
+    private static final Pattern KEY_PATTERN = Pattern.compile("[a-z0-9][a-z0-9._-]*");
+    private static final int SHARD_WIDTH = 2;
+
+    private final Path root;
+    private final Path quarantineRoot;
+    private final int shardDepth;
+
+    public LocalDocumentStore(Path root, int shardDepth) {
+        if (shardDepth < 0 || shardDepth > 4) {
+            throw new IllegalArgumentException("Shard depth must be between 0 and 4");
+        }
+        this.root = root.toAbsolutePath().normalize();
+        this.quarantineRoot = this.root.resolveSibling("quarantine");
+        this.shardDepth = shardDepth;
+
+        try {
+            Files.createDirectories(this.root);
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not create the document store directory " + this.root, ex);
+        }
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.exists(resolve(key));
+    }
+
+    @Override
+    public void put(String key, Path source, long size) throws IOException {
+        Path target = resolve(key);
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    @Override
+    public InputStream open(String key, long offset, long length) throws IOException {
+        return openRange(resolve(key), offset, length);
+    }
+
+    /**
+     * Opens {@code length} bytes of {@code file} starting at {@code offset}; a negative
+     * length reads to the end.
+     */
+    public static InputStream openRange(Path file, long offset, long length) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            channel.position(offset);
+        } catch (IOException ex) {
+            channel.close();
+            throw ex;
+        }
+        InputStream in = Channels.newInputStream(channel);
+        return length < 0 ? in : new BoundedInputStream(in, length);
+    }
+
+    @Override
+    public long size(String key) throws IOException {
+        return Files.size(resolve(key));
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(resolve(key));
+    }
+
+    @Override
+    public Stream<StoredObject> list() {
+        // Shard directories are key prefixes, so a depth-first walk in name order yields keys in order.
+        Iterator<Path> files = new SortedFileIterator(root);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(files, Spliterator.ORDERED), false)
+                .flatMap(file -> {
+                    try {
+                        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                        return Stream.of(new StoredObject(
+                                file.getFileName().toString(),
+                                attributes.size(),
+                                attributes.lastModifiedTime().toInstant()
+                        ));
+                    } catch (NoSuchFileException ex) {
+                        // Deleted while we were listing.
+                        return Stream.empty();
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+    }
+
+    @Override
+    public void quarantine(String key) throws IOException {
+        Path source = resolve(key);
+        Path target = quarantineRoot.resolve(key);
+        Files.createDirectories(quarantineRoot);
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    @Override
+    public Optional<Path> localPath(String key) {
+        return Optional.of(resolve(key));
+    }
+
+    Path resolve(String key) {
+        if (key == null || !KEY_PATTERN.matcher(key).matches()) {
+            throw new IllegalArgumentException("Invalid document store key: " + key);
+        }
+
+        Path dir = root;
+        for (int level = 0; level < shardDepth; level++) {
+            int start = level * SHARD_WIDTH;
+            if (key.length() < start + SHARD_WIDTH) {
+                break;
+            }
+            dir = dir.resolve(key.substring(start, start + SHARD_WIDTH));
+        }
+        return dir.resolve(key);
+    }
+
+    private static final class SortedFileIterator implements Iterator<Path> {
+        private final Deque<Iterator<Path>> stack = new ArrayDeque<>();
+        private Path next;
+
+        SortedFileIterator(Path root) {
+            stack.push(sortedChildren(root));
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && !stack.isEmpty()) {
+                Iterator<Path> children = stack.peek();
+                if (!children.hasNext()) {
+                    stack.pop();
+                    continue;
+                }
+                Path child = children.next();
+                if (Files.isDirectory(child)) {
+                    stack.push(sortedChildren(child));
+                } else if (Files.isRegularFile(child)) {
+                    next = child;
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public Path next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Path result = next;
+            next = null;
+            return result;
+        }
+
+        private static Iterator<Path> sortedChildren(Path dir) {
+            try (Stream<Path> children = Files.list(dir)) {
+                return children
+                        .sorted(Comparator.comparing(child -> child.getFileName().toString()))
+                        .toList()
+                        .iterator();
+            } catch (NoSuchFileException ex) {
+                return Collections.emptyIterator();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.proceduralnexus.apiservice.business.storage;
+
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CopyObjectRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+/**
+ * Keeps objects in an S3-compatible bucket (AWS S3, MinIO, ...), so several api-service
+ * nodes can share the same documents. Uploads stream from the staged file and downloads
+ * stream from the HTTP response; ranged reads map onto S3 {@code Range} requests.
+ * Quarantined objects are copied under {@code quarantine/} outside the key prefix.
+ */
+public class S3DocumentStore implements DocumentStore {
+
+    private static final String QUARANTINE_PREFIX = "quarantine/";
+
+    private final S3Client s3;
+    private final String bucket;
+    private final String keyPrefix;
+
+    public S3DocumentStore(S3Client s3, String bucket, String keyPrefix) {
+        this.s3 = s3;
+        this.bucket = bucket;
+        this.keyPrefix = keyPrefix == null ? "" : keyPrefix;
+    }
+
+    @Override
+    public boolean exists(String key) throws IOException {
+        try {
+            s3.headObject(HeadObjectRequest.builder().bucket(bucket).key(objectKey(key)).build());
+            return true;
+        } catch (NoSuchKeyException ex) {
+            return false;
+        } catch (SdkException ex) {
+            if (isNotFound(ex)) {
+                return false;
+            }
+            throw new IOException("Could not check object " + key, ex);
+        }
+    }
+
+    @Override
+    public void put(String key, Path source, long size) throws IOException {
+        try {
+            s3.putObject(
+                    PutObjectRequest.builder()
+                            .bucket(bucket)
+                            .key(objectKey(key))
+                            .contentLength(size)
+                            .build(),
+                    RequestBody.fromFile(source)
+            );
+        } catch (SdkException ex) {
+            throw new IOException("Could not upload object " + key, ex);
+        }
+        Files.deleteIfExists(source);
+    }
+
+    @Override
+    public InputStream open(String key, long offset, long length) throws IOException {
+        if (length == 0) {
+            return InputStream.nullInputStream();
+        }
+
+        GetObjectRequest.Builder request = GetObjectRequest.builder()
+                .bucket(bucket)
+                .key(objectKey(key));
+
+        if (offset > 0 || length >= 0) {
+            String end = length >= 0 ? String.valueOf(offset + length - 1) : "";
+            request.range("bytes=" + offset + "-" + end);
+        }
+
+        try {
+            return s3.getObject(request.build());
+        } catch (NoSuchKeyException ex) {
+            throw new NoSuchFileException(key);
+        } catch (SdkException ex) {
+            throw new IOException("Could not read object " + key, ex);
+        }
+    }
+
+    @Override
+    public long size(String key) throws IOException {
+        try {
+            return s3.headObject(HeadObjectRequest.builder().bucket(bucket).key(objectKey(key)).build())
+                    .contentLength();
+        } catch (NoSuchKeyException ex) {
+            throw new NoSuchFileException(key);
+        } catch (SdkException ex) {
+            if (isNotFound(ex)) {
+                throw new NoSuchFileException(key);
+            }
+            throw new IOException("Could not read object metadata " + key, ex);
+        }
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        try {
+            s3.deleteObject(DeleteObjectRequest.builder().bucket(bucket).key(objectKey(key)).build());
+        } catch (SdkException ex) {
+            throw new IOException("Could not delete object " + key, ex);
+        }
+    }
+
+    @Override
+    public Stream<StoredObject> list() throws IOException {
+        ListObjectsV2Request request = ListObjectsV2Request.builder()
+                .bucket(bucket)
+                .prefix(keyPrefix)
+                .build();
+        try {
+            // S3 lists keys in UTF-8 binary order, which matches String order for our ASCII keys.
+            return s3.listObjectsV2Paginator(request).contents().stream()
+                    .map(object -> new StoredObject(
+                            object.key().substring(keyPrefix.length()),
+                            object.size(),
+                            object.lastModified()
+                    ));
+        } catch (SdkException ex) {
+            throw new IOException("Could not list objects in bucket " + bucket, ex);
+        }
+    }
+
+    @Override
+    public void quarantine(String key) throws IOException {
+        try {
+            s3.copyObject(CopyObjectRequest.builder()
+                    .sourceBucket(bucket)
+                    .sourceKey(objectKey(key))
+                    .destinationBucket(bucket)
+                    .destinationKey(QUARANTINE_PREFIX + objectKey(key))
+                    .build());
+        } catch (NoSuchKeyException ex) {
+            throw new NoSuchFileException(key);
+        } catch (SdkException ex) {
+            throw new IOException("Could not quarantine object " + key, ex);
+        }
+        delete(key);
+    }
+
+    private String objectKey(String key) {
+        return keyPrefix + key;
+    }
+
+    private static boolean isNotFound(SdkException ex) {
+        // HEAD responses carry no body, so a missing key surfaces as a bare 404.
+        return ex instanceof S3Exception s3Ex
+                && s3Ex.statusCode() == 404;
+    }
+}
@@ -0,0 +1,9 @@
+package com.proceduralnexus.apiservice.business.storage;
+
+import java.time.Instant;
+
+/**
+ * An entry of a {@link DocumentStore} listing.
+ */
+public record StoredObject(String key, long size, Instant lastModified) {
+}
@@ -0,0 +1,257 @@
+package com.proceduralnexus.apiservice.business.templates;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * An email template compiled into segments: literal text, variables and conditional sections.
+ * Parsed once; rendering only appends to a caller-supplied buffer.
+ * <p>
+ * A template source is a {@code Subject:} line, an empty line and the HTML body. Both may use
+ * {@code {{name}}} for a value (HTML-escaped in the body; the subject is plain text),
+ * {@code {{#name}}...{{/name}}} for a part shown only when the value is present and not
+ * empty or false, and {@code {{! comment}}}. Missing values render as nothing.
+ */
+public final class EmailTemplate {
+
+    private static final String SUBJECT_HEADER = "Subject:";
+    private static final Pattern NAME = Pattern.compile("[A-Za-z][A-Za-z0-9_]*");
+
+    private final String name;
+    private final Segment[] subject;
+    private final Segment[] body;
+    private final int literalLength;
+
+    private EmailTemplate(String name, Segment[] subject, Segment[] body, int literalLength) {
+        this.name = name;
+        this.subject = subject;
+        this.body = body;
+        this.literalLength = literalLength;
+    }
+
+    /**
+     * Parses {@code source}, failing with the template name and line on a syntax error.
+     */
+    public static EmailTemplate compile(String name, String source) {
+        String text = source.replace("\r\n", "\n");
+        int headerEnd = text.indexOf('\n');
+        if (!text.startsWith(SUBJECT_HEADER) || headerEnd < 0) {
+            throw new IllegalArgumentException(name + ": must start with a '" + SUBJECT_HEADER + "' line");
+        }
+        int bodyStart = headerEnd + 1;
+        if (text.startsWith("\n", bodyStart)) {
+            bodyStart++;
+        }
+
+        Parser subject = new Parser(name, text, SUBJECT_HEADER.length(), headerEnd, false);
+        Parser body = new Parser(name, text, bodyStart, text.length(), true);
+        Segment[] subjectSegments = subject.parse();
+        Segment[] bodySegments = body.parse();
+        return new EmailTemplate(name, trimLeading(subjectSegments), bodySegments, body.literalLength);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Length of the body's literal text: a lower bound on the rendered size.
+     */
+    public int getLiteralLength() {
+        return literalLength;
+    }
+
+    public void renderSubject(Map<String, ?> model, StringBuilder out) {
+        render(subject, model, out);
+    }
+
+    public void renderBody(Map<String, ?> model, StringBuilder out) {
+        render(body, model, out);
+    }
+
+    private static void render(Segment[] segments, Map<String, ?> model, StringBuilder out) {
+        for (Segment segment : segments) {
+            segment.render(model, out);
+        }
+    }
+
+    // The space after "Subject:" is not part of the subject.
+    private static Segment[] trimLeading(Segment[] segments) {
+        if (segments.length == 0 || !(segments[0] instanceof Literal literal)) {
+            return segments;
+        }
+        String text = literal.text().stripLeading();
+        if (text.isEmpty()) {
+            return Arrays.copyOfRange(segments, 1, segments.length);
+        }
+        Segment[] trimmed = segments.clone();
+        trimmed[0] = new Literal(text);
+        return trimmed;
+    }
+
+    /**
+     * Appends {@code text} to {@code out} with the characters that are special in HTML text
+     * and attribute values replaced by entities.
+     */
+    public static void escapeHtml(CharSequence text, StringBuilder out) {
+        int length = text.length();
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            String entity = switch (text.charAt(i)) {
+                case '&' -> "&amp;";
+                case '<' -> "&lt;";
+                case '>' -> "&gt;";
+                case '"' -> "&quot;";
+                case '\'' -> "&#39;";
+                default -> null;
+            };
+            if (entity != null) {
+                out.append(text, start, i).append(entity);
+                start = i + 1;
+            }
+        }
+        out.append(text, start, length);
+    }
+
+    private static boolean isPresent(Object value) {
+        if (value == null || Boolean.FALSE.equals(value)) {
+            return false;
+        }
+        if (value instanceof CharSequence text) {
+            return !text.isEmpty();
+        }
+        if (value instanceof Collection<?> collection) {
+            return !collection.isEmpty();
+        }
+        return true;
+    }
+
+    private sealed interface Segment permits Literal, Variable, Section {
+        void render(Map<String, ?> model, StringBuilder out);
+    }
+
+    private record Literal(String text) implements Segment {
+        @Override
+        public void render(Map<String, ?> model, StringBuilder out) {
+            out.append(text);
+        }
+    }
+
+    private record Variable(String name, boolean escape) implements Segment {
+        @Override
+        public void render(Map<String, ?> model, StringBuilder out) {
+            Object value = model.get(name);
+            if (value == null) {
+                return;
+            }
+            CharSequence text = value instanceof CharSequence chars ? chars : value.toString();
+            if (escape) {
+                escapeHtml(text, out);
+            } else {
+                out.append(text);
+            }
+        }
+    }
+
+    private record Section(String name, Segment[] children) implements Segment {
+        @Override
+        public void render(Map<String, ?> model, StringBuilder out) {
+            if (isPresent(model.get(name))) {
+                EmailTemplate.render(children, model, out);
+            }
+        }
+    }
+
+    private static final class Parser {
+        private final String template;
+        private final String text;
+        private final int start;
+        private final int end;
+        private final boolean escape;
+        private int literalLength;
+
+        Parser(String template, String text, int start, int end, boolean escape) {
+            this.template = template;
+            this.text = text;
+            this.start = start;
+            this.end = end;
+            this.escape = escape;
+        }
+
+        Segment[] parse() {
+            Deque<String> open = new ArrayDeque<>();
+            Deque<List<Segment>> levels = new ArrayDeque<>();
+            levels.push(new ArrayList<>());
+
+            int position = start;
+            while (position < end) {
+                int tagStart = text.indexOf("{{", position);
+                if (tagStart < 0 || tagStart >= end) {
+                    addLiteral(levels.peek(), text.substring(position, end));
+                    break;
+                }
+                addLiteral(levels.peek(), text.substring(position, tagStart));
+
+                int tagEnd = text.indexOf("}}", tagStart + 2);
+                if (tagEnd < 0 || tagEnd >= end) {
+                    throw error(tagStart, "unclosed '{{'");
+                }
+                String tag = text.substring(tagStart + 2, tagEnd).strip();
+                position = tagEnd + 2;
+
+                if (tag.startsWith("!")) {
+                    continue;
+                }
+                if (tag.startsWith("#")) {
+                    open.push(name(tag.substring(1), tagStart));
+                    levels.push(new ArrayList<>());
+                } else if (tag.startsWith("/")) {
+                    String closed = name(tag.substring(1), tagStart);
+                    if (open.isEmpty() || !open.peek().equals(closed)) {
+                        throw error(tagStart, "'{{/" + closed + "}}' does not close an open section");
+                    }
+                    Segment[] children = levels.pop().toArray(Segment[]::new);
+                    levels.peek().add(new Section(open.pop(), children));
+                } else {
+                    levels.peek().add(new Variable(name(tag, tagStart), escape));
+                }
+            }
+
+            if (!open.isEmpty()) {
+                throw new IllegalArgumentException(template + ": section '" + open.peek() + "' is not closed");
+            }
+            return levels.pop().toArray(Segment[]::new);
+        }
+
+        private void addLiteral(List<Segment> segments, String literal) {
+            if (!literal.isEmpty()) {
+                segments.add(new Literal(literal));
+                literalLength += literal.length();
+            }
+        }
+
+        private String name(String tag, int offset) {
+            String name = tag.strip();
+            if (!NAME.matcher(name).matches()) {
+                throw error(offset, "'" + name + "' is not a valid name");
+            }
+            return name;
+        }
+
+        private IllegalArgumentException error(int offset, String message) {
+            int line = 1;
+            for (int i = 0; i < offset; i++) {
+                if (text.charAt(i) == '\n') {
+                    line++;
+                }
+            }
+            return new IllegalArgumentException(template + ": line " + line + ": " + message);
+        }
+    }
+}
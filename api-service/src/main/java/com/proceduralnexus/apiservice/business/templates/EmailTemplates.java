@@ -0,0 +1,121 @@
+package com.proceduralnexus.apiservice.business.templates;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The email templates, loaded from {@code app.email.templates.location} and compiled once at
+ * startup, so a broken template fails the deployment instead of a send.
+ * <p>
+ * {@code name.html} is the default variant of template {@code name}; {@code name_ro.html} or
+ * {@code name_pt_BR.html} are used for those locales, falling back from language and country
+ * to language to the default like resource bundles do. Rendering reuses a buffer per thread,
+ * so bulk sends allocate little besides the resulting strings.
+ */
+@Component
+public class EmailTemplates {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailTemplates.class);
+
+    // A buffer grown past this by an unusually large email is not kept for the next one.
+    private static final int MAX_RETAINED_BUFFER = 256 * 1024;
+
+    private final Map<String, EmailTemplate> templates;
+    private final Locale defaultLocale;
+    private final Map<String, Map<Locale, EmailTemplate>> resolved = new ConcurrentHashMap<>();
+    private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(4096));
+
+    public EmailTemplates(
+            @Value("${app.email.templates.location:classpath*:templates/email/*.html}") String location,
+            @Value("${app.email.default-locale:en}") Locale defaultLocale
+    ) {
+        this.templates = load(location);
+        this.defaultLocale = defaultLocale;
+        logger.info("Compiled {} email templates from {}", templates.size(), location);
+    }
+
+    /**
+     * Renders template {@code name} in the variant closest to {@code locale} (the configured
+     * default locale if null).
+     *
+     * @throws IllegalArgumentException if there is no such template
+     */
+    public RenderedEmail render(String name, Locale locale, Map<String, ?> model) {
+        EmailTemplate template = resolve(name, locale != null ? locale : defaultLocale);
+
+        StringBuilder buffer = buffers.get();
+        if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+            buffer = new StringBuilder(4096);
+            buffers.set(buffer);
+        }
+
+        buffer.setLength(0);
+        buffer.ensureCapacity(template.getLiteralLength() + 256);
+        template.renderBody(model, buffer);
+        String body = buffer.toString();
+
+        buffer.setLength(0);
+        template.renderSubject(model, buffer);
+        String subject = buffer.toString();
+
+        return new RenderedEmail(subject, body);
+    }
+
+    public RenderedEmail render(String name, Map<String, ?> model) {
+        return render(name, null, model);
+    }
+
+    private EmailTemplate resolve(String name, Locale locale) {
+        return resolved.computeIfAbsent(name, n -> new ConcurrentHashMap<>())
+                .computeIfAbsent(locale, l -> lookup(name, l));
+    }
+
+    private EmailTemplate lookup(String name, Locale locale) {
+        String language = locale.getLanguage();
+        String country = locale.getCountry();
+        EmailTemplate template = null;
+        if (!language.isEmpty() && !country.isEmpty()) {
+            template = templates.get(name + "_" + language + "_" + country);
+        }
+        if (template == null && !language.isEmpty()) {
+            template = templates.get(name + "_" + language);
+        }
+        if (template == null) {
+            template = templates.get(name);
+        }
+        if (template == null) {
+            throw new IllegalArgumentException("No email template named '" + name + "'");
+        }
+        return template;
+    }
+
+    private static Map<String, EmailTemplate> load(String location) {
+        Map<String, EmailTemplate> templates = new HashMap<>();
+        try {
+            for (Resource resource : new PathMatchingResourcePatternResolver().getResources(location)) {
+                String filename = resource.getFilename();
+                if (filename == null || !filename.endsWith(".html")) {
+                    continue;
+                }
+                String name = filename.substring(0, filename.length() - ".html".length());
+                String source = resource.getContentAsString(StandardCharsets.UTF_8);
+                templates.put(name, EmailTemplate.compile(name, source));
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not load email templates from " + location, ex);
+        }
+        return Map.copyOf(templates);
+    }
+}
@@ -0,0 +1,7 @@
+package com.proceduralnexus.apiservice.business.templates;
+
+/**
+ * A rendered email: a plain-text subject and an HTML body.
+ */
+public record RenderedEmail(String subject, String body) {
+}
@@ -0,0 +1,57 @@
+package com.proceduralnexus.apiservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import com.proceduralnexus.apiservice.business.services.DocumentEvictionBroadcaster;
+import com.proceduralnexus.apiservice.business.services.DocumentMetadataCache;
+import com.proceduralnexus.apiservice.business.services.RedisDocumentEvictionBroadcaster;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Selects how document metadata cache evictions reach other instances with
+ * {@code app.documents.metadata-cache.evictions}: {@code local} (they do not, the default;
+ * only correct with a single instance) or {@code redis} (published on a channel every
+ * instance subscribes to).
+ */
+@Configuration
+public class DocumentMetadataCacheConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.documents.metadata-cache.evictions", havingValue = "local", matchIfMissing = true)
+    public DocumentEvictionBroadcaster localDocumentEvictionBroadcaster() {
+        return message -> {
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.documents.metadata-cache.evictions", havingValue = "redis")
+    public DocumentEvictionBroadcaster redisDocumentEvictionBroadcaster(
+            StringRedisTemplate redisTemplate,
+            @Value("${app.documents.metadata-cache.redis.channel:api-service:document-evictions}") String channel
+    ) {
+        return new RedisDocumentEvictionBroadcaster(redisTemplate, channel);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.documents.metadata-cache.evictions", havingValue = "redis")
+    public RedisMessageListenerContainer documentEvictionListener(
+            RedisConnectionFactory connectionFactory,
+            DocumentMetadataCache metadataCache,
+            @Value("${app.documents.metadata-cache.redis.channel:api-service:document-evictions}") String channel
+    ) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(
+                (message, pattern) -> metadataCache.applyEviction(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(channel));
+        return container;
+    }
+}
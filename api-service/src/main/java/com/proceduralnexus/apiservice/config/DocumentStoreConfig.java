@@ -0,0 +1,75 @@
+package com.proceduralnexus.apiservice.config;
+
+import java.net.URI;
+import java.nio.file.Paths;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+import com.proceduralnexus.apiservice.business.storage.DocumentStore;
+import com.proceduralnexus.apiservice.business.storage.LocalDocumentStore;
+import com.proceduralnexus.apiservice.business.storage.S3DocumentStore;
+
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+
+/**
+ * Selects the {@link DocumentStore} backend with {@code app.documents.store.type}
+ * ({@code local} by default, or {@code s3}).
+ */
+@Configuration
+public class DocumentStoreConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.documents.store.type", havingValue = "local", matchIfMissing = true)
+    public DocumentStore localDocumentStore(
+            @Value("${app.documents.storage-path:uploads}") String storagePath,
+            @Value("${app.documents.store.local.shard-depth:2}") int shardDepth
+    ) {
+        return new LocalDocumentStore(Paths.get(storagePath).resolve("blobs"), shardDepth);
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "app.documents.store.type", havingValue = "s3")
+    public S3Client documentStoreS3Client(
+            @Value("${app.documents.store.s3.endpoint:}") String endpoint,
+            @Value("${app.documents.store.s3.region:us-east-1}") String region,
+            @Value("${app.documents.store.s3.access-key:}") String accessKey,
+            @Value("${app.documents.store.s3.secret-key:}") String secretKey,
+            @Value("${app.documents.store.s3.path-style-access:true}") boolean pathStyleAccess
+    ) {
+        S3ClientBuilder builder = S3Client.builder()
+                .region(Region.of(region))
+                .forcePathStyle(pathStyleAccess);
+
+        if (StringUtils.hasText(endpoint)) {
+            builder.endpointOverride(URI.create(endpoint));
+        }
+
+        if (StringUtils.hasText(accessKey)) {
+            builder.credentialsProvider(StaticCredentialsProvider.create(
+                    AwsBasicCredentials.create(accessKey, secretKey)));
+        } else {
+            builder.credentialsProvider(DefaultCredentialsProvider.create());
+        }
+
+        return builder.build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.documents.store.type", havingValue = "s3")
+    public DocumentStore s3DocumentStore(
+            S3Client documentStoreS3Client,
+            @Value("${app.documents.store.s3.bucket}") String bucket,
+            @Value("${app.documents.store.s3.key-prefix:documents/}") String keyPrefix
+    ) {
+        return new S3DocumentStore(documentStoreS3Client, bucket, keyPrefix);
+    }
+}
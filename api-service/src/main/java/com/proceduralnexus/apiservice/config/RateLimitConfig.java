@@ -0,0 +1,43 @@
+package com.proceduralnexus.apiservice.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import com.proceduralnexus.apiservice.security.LocalRateLimitStore;
+import com.proceduralnexus.apiservice.security.RateLimitStore;
+import com.proceduralnexus.apiservice.security.RedisRateLimitStore;
+
+/**
+ * Selects where the auth rate limiter keeps its buckets with {@code app.security.rate-limit.store}:
+ * {@code local} (this process, the default) or {@code redis} (shared by all nodes).
+ */
+@Configuration
+public class RateLimitConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.security.rate-limit.store", havingValue = "local", matchIfMissing = true)
+    public RateLimitStore localRateLimitStore(
+            @Value("${app.security.rate-limit.local.max-keys:100000}") long maxKeys,
+            @Value("${app.security.rate-limit.local.stripes:64}") int stripes,
+            @Value("${app.security.rate-limit.local.idle-expiry:1h}") Duration idleExpiry
+    ) {
+        return new LocalRateLimitStore(maxKeys, stripes, idleExpiry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.security.rate-limit.store", havingValue = "redis")
+    public RateLimitStore redisRateLimitStore(
+            StringRedisTemplate redisTemplate,
+            @Value("${app.security.rate-limit.redis.key-prefix:api-service:rate-limit:}") String keyPrefix,
+            @Value("${app.security.rate-limit.local.max-keys:100000}") long maxKeys,
+            @Value("${app.security.rate-limit.local.stripes:64}") int stripes,
+            @Value("${app.security.rate-limit.local.idle-expiry:1h}") Duration idleExpiry
+    ) {
+        return new RedisRateLimitStore(redisTemplate, keyPrefix, new LocalRateLimitStore(maxKeys, stripes, idleExpiry));
+    }
+}
@@ -0,0 +1,37 @@
+package com.proceduralnexus.apiservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import com.proceduralnexus.apiservice.security.LocalRefreshTokenStore;
+import com.proceduralnexus.apiservice.security.RedisRefreshTokenStore;
+import com.proceduralnexus.apiservice.security.RefreshTokenStore;
+
+/**
+ * Selects where refresh tokens are kept with {@code app.security.refresh-tokens.store}:
+ * {@code local} (this process, the default; sessions end on restart) or {@code redis}
+ * (shared by all nodes).
+ */
+@Configuration
+public class RefreshTokenConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.security.refresh-tokens.store", havingValue = "local", matchIfMissing = true)
+    public RefreshTokenStore localRefreshTokenStore(
+            @Value("${app.security.refresh-tokens.local.max-sessions:100000}") long maxSessions
+    ) {
+        return new LocalRefreshTokenStore(maxSessions);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.security.refresh-tokens.store", havingValue = "redis")
+    public RefreshTokenStore redisRefreshTokenStore(
+            StringRedisTemplate redisTemplate,
+            @Value("${app.security.refresh-tokens.redis.key-prefix:api-service:refresh:}") String keyPrefix
+    ) {
+        return new RedisRefreshTokenStore(redisTemplate, keyPrefix);
+    }
+}
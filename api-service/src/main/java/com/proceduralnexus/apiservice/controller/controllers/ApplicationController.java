@@ -3,8 +3,6 @@ package com.proceduralnexus.apiservice.controller.controllers;
 import java.util.List;
 
 import org.springframework.http.HttpStatus;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -39,36 +37,33 @@ public class ApplicationController {
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     @Operation(summary = "Create application", description = "Applicant creates an application to an organization.")
-    public ApplicationResponseDto create(
-            @RequestBody ApplicationCreateRequestDto req,
-            @AuthenticationPrincipal UserDetails userDetails
-    ) {
-        return applicationService.createApplication(userDetails.getUsername(), req);
+    public ApplicationResponseDto create(@RequestBody ApplicationCreateRequestDto req) {
+        return applicationService.createApplication(req);
     }
 
     @GetMapping
     @Operation(summary = "List pending applications for HR org", description = "Returns pending applications for the HR's organization.")
-    public List<ApplicationResponseDto> listForHr(@AuthenticationPrincipal UserDetails userDetails) {
-        return applicationService.listPendingForHr(userDetails.getUsername());
+    public List<ApplicationResponseDto> listForHr() {
+        return applicationService.listPendingForHr();
     }
 
     @PostMapping("/{id}/accept")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     @Operation(summary = "Accept application", description = "Accept application: set applicant organization and delete application.")
-    public void accept(@PathVariable Long id, @AuthenticationPrincipal UserDetails userDetails) {
-        applicationService.accept(id, userDetails.getUsername());
+    public void accept(@PathVariable Long id) {
+        applicationService.accept(id);
     }
 
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     @Operation(summary = "Reject application", description = "Reject application: delete application.")
-    public void reject(@PathVariable Long id, @AuthenticationPrincipal UserDetails userDetails) {
-        applicationService.reject(id, userDetails.getUsername());
+    public void reject(@PathVariable Long id) {
+        applicationService.reject(id);
     }
 
     @GetMapping("/mine")
     @Operation(summary = "List applications for the current applicant", description = "Returns all applications submitted by the current user.")
-    public List<ApplicationResponseDto> listForApplicant(@AuthenticationPrincipal UserDetails userDetails) {
-        return applicationService.listForApplicant(userDetails.getUsername());
+    public List<ApplicationResponseDto> listForApplicant() {
+        return applicationService.listForApplicant();
     }
 }
@@ -7,11 +7,17 @@ import com.proceduralnexus.apiservice.data.entities.RoleName;
 import com.proceduralnexus.apiservice.data.payloads.JwtResponse;
 import com.proceduralnexus.apiservice.data.payloads.LoginRequest;
 import com.proceduralnexus.apiservice.data.payloads.MessageResponse;
+import com.proceduralnexus.apiservice.data.payloads.PublicKeyResponse;
+import com.proceduralnexus.apiservice.data.payloads.RefreshTokenRequest;
 import com.proceduralnexus.apiservice.data.payloads.RegisterRequest;
+import com.proceduralnexus.apiservice.data.payloads.SignInCodeRequest;
 import com.proceduralnexus.apiservice.data.repositories.ProfileRepository;
 import com.proceduralnexus.apiservice.data.repositories.RoleRepository;
+import com.proceduralnexus.apiservice.security.AuthRateLimiter;
 import com.proceduralnexus.apiservice.security.JwtUtils;
+import com.proceduralnexus.apiservice.security.RefreshTokenService;
 import com.proceduralnexus.apiservice.security.UserDetailsImpl;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -27,6 +33,8 @@ import org.springframework.web.bind.annotation.*;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
@@ -51,8 +59,16 @@ public class AuthController {
     @Autowired
     EmailVerificationService emailVerificationService;
 
+    @Autowired
+    AuthRateLimiter rateLimiter;
+
+    @Autowired
+    RefreshTokenService refreshTokenService;
+
     @PostMapping("/login")
-    public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
+    public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest, HttpServletRequest request) {
+        rateLimiter.check(AuthRateLimiter.Action.LOGIN, request.getRemoteAddr(), loginRequest.getEmail());
+
         try {
             Authentication authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(loginRequest.getEmail(), loginRequest.getPassword()));
@@ -76,6 +92,7 @@ public class AuthController {
                     .collect(Collectors.toList());
 
             return ResponseEntity.ok(new JwtResponse(jwt,
+                    refreshTokenService.issue(userDetails.getId()),
                     userDetails.getId(),
                     userDetails.getEmail(),
                     roles));
@@ -87,7 +104,9 @@ public class AuthController {
     }
 
     @PostMapping("/register")
-    public ResponseEntity<?> registerUser(@Valid @RequestBody RegisterRequest signUpRequest) {
+    public ResponseEntity<?> registerUser(@Valid @RequestBody RegisterRequest signUpRequest, HttpServletRequest request) {
+        rateLimiter.check(AuthRateLimiter.Action.REGISTER, request.getRemoteAddr(), signUpRequest.getEmail());
+
         if (userRepository.existsByEmail(signUpRequest.getEmail())) {
             return ResponseEntity
                     .badRequest()
@@ -146,9 +165,35 @@ public class AuthController {
         return ResponseEntity.ok(new MessageResponse("User registered successfully! Please check your email to verify your account."));
     }
     
+    /**
+     * Trades a refresh token for a new access token and the next refresh token. The access
+     * token is built from the profile as it is now, so role or organization changes apply.
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refreshToken(@Valid @RequestBody RefreshTokenRequest refreshRequest) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshRequest.getRefreshToken());
+        return tokensFor(rotation.profileId(), rotation::refreshToken);
+    }
+
+    /**
+     * Trades the single-use code of a Google sign-in redirect for an access and a refresh token.
+     */
+    @PostMapping("/oauth2/exchange")
+    public ResponseEntity<?> exchangeSignInCode(@Valid @RequestBody SignInCodeRequest exchangeRequest) {
+        UUID profileId = refreshTokenService.redeemSignInCode(exchangeRequest.getCode());
+        return tokensFor(profileId, () -> refreshTokenService.issue(profileId));
+    }
+
+    /**
+     * Ends the session of the given refresh token. The access token stays valid until it
+     * expires (proceduralnexus.app.jwtExpirationMs), so clients should discard it as well.
+     */
     @PostMapping("/logout")
-    public ResponseEntity<?> logoutUser() {
-      return ResponseEntity.ok(new MessageResponse("Log out successful!"));
+    public ResponseEntity<?> logoutUser(@RequestBody(required = false) RefreshTokenRequest logoutRequest) {
+        if (logoutRequest != null && logoutRequest.getRefreshToken() != null && !logoutRequest.getRefreshToken().isBlank()) {
+            refreshTokenService.revoke(logoutRequest.getRefreshToken());
+        }
+        return ResponseEntity.ok(new MessageResponse("Log out successful!"));
     }
 
     @GetMapping("/verify-email")
@@ -165,7 +210,9 @@ public class AuthController {
     }
 
     @PostMapping("/resend-verification")
-    public ResponseEntity<?> resendVerificationEmail(@RequestParam String email) {
+    public ResponseEntity<?> resendVerificationEmail(@RequestParam String email, HttpServletRequest request) {
+        rateLimiter.check(AuthRateLimiter.Action.RESEND_VERIFICATION, request.getRemoteAddr(), email);
+
         boolean sent = emailVerificationService.resendVerificationEmail(email);
         
         if (sent) {
@@ -177,6 +224,38 @@ public class AuthController {
         }
     }
 
+    private ResponseEntity<?> tokensFor(UUID profileId, Supplier<String> refreshToken) {
+        Profile user = userRepository.findById(profileId).orElse(null);
+        if (user == null) {
+            return ResponseEntity
+                    .status(HttpStatus.UNAUTHORIZED)
+                    .body(new MessageResponse("This session is no longer valid"));
+        }
+
+        UserDetailsImpl userDetails = UserDetailsImpl.build(user);
+        List<String> roles = userDetails.getAuthorities().stream()
+                .map(item -> item.getAuthority())
+                .collect(Collectors.toList());
+
+        return ResponseEntity.ok(new JwtResponse(jwtUtils.generateJwtToken(userDetails),
+                refreshToken.get(),
+                userDetails.getId(),
+                userDetails.getEmail(),
+                roles));
+    }
+
+    /**
+     * The key other services verify access tokens with, when they are signed with ES256.
+     */
+    @GetMapping("/public-key")
+    public ResponseEntity<?> publicKey() {
+        return jwtUtils.getPublicKeyPem()
+                .<ResponseEntity<?>>map(pem -> ResponseEntity.ok(new PublicKeyResponse(jwtUtils.getAlgorithm(), pem)))
+                .orElseGet(() -> ResponseEntity
+                        .status(HttpStatus.NOT_FOUND)
+                        .body(new MessageResponse("Access tokens are signed with a shared secret.")));
+    }
+
     // @GetMapping("/google")
     // public ResponseEntity<?> googleAuth() {
     //     return ResponseEntity.status(302).header("Location", "/oauth2/authorization/google").build();
@@ -1,14 +1,26 @@
 package com.proceduralnexus.apiservice.controller.controllers;
 
 import com.proceduralnexus.apiservice.business.interfaces.IDocumentService;
+import com.proceduralnexus.apiservice.business.services.DocumentUploadSessionService;
 import com.proceduralnexus.apiservice.business.services.ProfileService;
+import com.proceduralnexus.apiservice.business.storage.DocumentArchive;
+import com.proceduralnexus.apiservice.business.storage.DocumentDownload;
+import com.proceduralnexus.apiservice.business.storage.DocumentPreview;
+import com.proceduralnexus.apiservice.controller.dtos.DocumentPageDto;
 import com.proceduralnexus.apiservice.controller.dtos.DocumentPatchRequest;
 import com.proceduralnexus.apiservice.controller.dtos.DocumentResponseDto;
+import com.proceduralnexus.apiservice.controller.dtos.DocumentSearchResultDto;
+import com.proceduralnexus.apiservice.controller.dtos.UploadSessionCreateDto;
+import com.proceduralnexus.apiservice.controller.dtos.UploadSessionResponseDto;
+import com.proceduralnexus.apiservice.controller.support.DocumentContentWriter;
 import com.proceduralnexus.apiservice.data.entities.Profile;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import org.springframework.core.io.Resource;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -17,7 +29,10 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.time.Duration;
 import java.util.List;
 import java.util.UUID;
 
@@ -30,11 +45,14 @@ public class DocumentController {
 
     private final IDocumentService documentService;
     private final ProfileService profileService;
+    private final DocumentUploadSessionService uploadSessionService;
 
     public DocumentController(IDocumentService documentService,
-                              ProfileService profileService) {
+                              ProfileService profileService,
+                              DocumentUploadSessionService uploadSessionService) {
         this.documentService = documentService;
         this.profileService = profileService;
+        this.uploadSessionService = uploadSessionService;
     }
 
     /**
@@ -63,13 +81,112 @@ public class DocumentController {
         return documentService.uploadDocument(file, batchId, uploader, name, type);
     }
 
+    /**
+     * POST /documents/upload/batch
+     * Content-Type: multipart/form-data
+     * Params:
+     *  - files (one part per file)
+     *  - uploaderId
+     *  - batchId (optional, generated when missing)
+     *  - type (optional, applies to every file)
+     */
+    @PostMapping(
+            value = "/upload/batch",
+            consumes = MediaType.MULTIPART_FORM_DATA_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    @ResponseStatus(HttpStatus.CREATED)
+    @Operation(summary = "Upload document batch",
+            description = "Uploads several files in one request; they share a batchId and are stored in one transaction.")
+    public List<DocumentResponseDto> uploadDocuments(
+            @RequestPart("files") List<MultipartFile> files,
+            @RequestParam(value = "batchId", required = false) String batchId,
+            @RequestParam("uploaderId") UUID uploaderId,
+            @RequestParam(value = "type", required = false) String type
+    ) {
+        Profile uploader = profileService.findById(uploaderId);
+        return documentService.uploadDocuments(files, batchId, uploader, type);
+    }
+
+    /**
+     * POST /documents/uploads
+     * Body: UploadSessionCreateDto (name, uploaderId, totalSize, optional chunkSize, fileName, batchId, type, sha256)
+     */
+    @PostMapping(
+            value = "/uploads",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    @ResponseStatus(HttpStatus.CREATED)
+    @Operation(summary = "Start resumable upload",
+            description = "Creates an upload session. Chunks are then sent with PUT /documents/uploads/{sessionId}/chunks/{index}.")
+    public UploadSessionResponseDto createUploadSession(@Valid @RequestBody UploadSessionCreateDto request) {
+        return uploadSessionService.createSession(request);
+    }
+
+    /**
+     * GET /documents/uploads/{sessionId}
+     * Reports received and missing chunks so an interrupted client can resume.
+     */
+    @GetMapping(value = "/uploads/{sessionId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Get upload session",
+            description = "Returns the chunks already received for a resumable upload.")
+    public UploadSessionResponseDto getUploadSession(@PathVariable UUID sessionId) {
+        return uploadSessionService.getSession(sessionId);
+    }
+
+    /**
+     * PUT /documents/uploads/{sessionId}/chunks/{index}
+     * Content-Type: application/octet-stream
+     * Chunks may be sent in any order and in parallel; re-sending a chunk overwrites it.
+     */
+    @PutMapping(
+            value = "/uploads/{sessionId}/chunks/{index}",
+            consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    @Operation(summary = "Upload chunk",
+            description = "Writes one chunk of a resumable upload at its position in the file.")
+    public UploadSessionResponseDto uploadChunk(
+            @PathVariable UUID sessionId,
+            @PathVariable int index,
+            HttpServletRequest request
+    ) throws IOException {
+        return uploadSessionService.writeChunk(sessionId, index, request.getContentLengthLong(), request.getInputStream());
+    }
+
+    /**
+     * POST /documents/uploads/{sessionId}/commit
+     */
+    @PostMapping(value = "/uploads/{sessionId}/commit", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.CREATED)
+    @Operation(summary = "Commit resumable upload",
+            description = "Verifies that every chunk arrived, and the SHA-256 if the session was given one, "
+                    + "and stores the assembled document.")
+    public DocumentResponseDto commitUploadSession(@PathVariable UUID sessionId) {
+        return uploadSessionService.commit(sessionId);
+    }
+
+    /**
+     * DELETE /documents/uploads/{sessionId}
+     */
+    @DeleteMapping("/uploads/{sessionId}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @Operation(summary = "Abort resumable upload",
+            description = "Discards an upload session and the chunks received so far.")
+    public void abortUploadSession(@PathVariable UUID sessionId) {
+        uploadSessionService.abort(sessionId);
+    }
+
     /**
      * GET /documents
+     * Newest first, at most app.documents.page.max-size documents; use /documents/page for more.
      */
     @GetMapping
     @Operation(
             summary = "List documents",
-            description = "Returns a list of all stored documents (metadata only)."
+            description = "Returns the newest stored documents (metadata only), at most one page's maximum size. "
+                    + "Use /documents/page to go through all of them."
     )
     public List<DocumentResponseDto> listDocuments(
             @RequestParam(name = "uploaderId", required = false) UUID uploaderId
@@ -77,18 +194,108 @@ public class DocumentController {
         return documentService.getDocuments(uploaderId);
     }
 
+    /**
+     * GET /documents/page?uploaderId=&type=&signed=&batchId=&cursor=&limit=
+     * Newest first; follow nextCursor for the next page.
+     */
+    @GetMapping(value = "/page", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(
+            summary = "List documents page by page",
+            description = "Returns documents newest first, optionally filtered by uploader, type, signed state and batch. "
+                    + "Pass the returned nextCursor as cursor to get the following page."
+    )
+    public DocumentPageDto listDocumentPage(
+            @RequestParam(name = "uploaderId", required = false) UUID uploaderId,
+            @RequestParam(name = "type", required = false) String type,
+            @RequestParam(name = "signed", required = false) Boolean signed,
+            @RequestParam(name = "batchId", required = false) String batchId,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "limit", required = false) Integer limit
+    ) {
+        return documentService.getDocumentPage(uploaderId, type, signed, batchId, cursor, limit);
+    }
+
+    /**
+     * GET /documents/search?q=&uploaderId=&type=&offset=&limit=
+     * Best match first; follow nextOffset for the next page.
+     */
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(
+            summary = "Search documents",
+            description = "Full-text search over document names and the text extracted from their content, "
+                    + "best match first. q accepts words, \"quoted phrases\", or and -excluded words. "
+                    + "Pass the returned nextOffset as offset to get the following page."
+    )
+    public DocumentSearchResultDto searchDocuments(
+            @RequestParam(name = "q") String query,
+            @RequestParam(name = "uploaderId", required = false) UUID uploaderId,
+            @RequestParam(name = "type", required = false) String type,
+            @RequestParam(name = "offset", required = false) Integer offset,
+            @RequestParam(name = "limit", required = false) Integer limit
+    ) {
+        return documentService.searchDocuments(query, uploaderId, type, offset, limit);
+    }
+
+    /**
+     * GET /documents/export?batchId=... or ?uploaderId=...
+     * Streams a ZIP of the matching documents as it is built.
+     */
+    @GetMapping(value = "/export", produces = "application/zip")
+    @Operation(
+            summary = "Export documents as ZIP",
+            description = "Streams a ZIP archive of every document in a batch or of one uploader. Exactly one of batchId or uploaderId is required."
+    )
+    public ResponseEntity<StreamingResponseBody> exportDocuments(
+            @RequestParam(name = "batchId", required = false) String batchId,
+            @RequestParam(name = "uploaderId", required = false) UUID uploaderId
+    ) {
+        DocumentArchive archive = documentService.exportDocuments(batchId, uploaderId);
+        String filename = archive.getFileName();
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + filename.replace("\"", "") + "\"; filename*=UTF-8''" + encodeRFC5987(filename))
+                .body(archive::writeTo);
+    }
+
+    /**
+     * GET /documents/{id}/preview
+     * Small JPEG of the first page. Rendered in the background after upload; 404 until it is ready.
+     */
+    @GetMapping(value = "/{id}/preview", produces = MediaType.IMAGE_JPEG_VALUE)
+    @Operation(
+            summary = "Document preview",
+            description = "Returns a low-resolution JPEG of the document's first page. "
+                    + "Responds 404 while the preview is still being rendered."
+    )
+    public ResponseEntity<byte[]> getDocumentPreview(@PathVariable Long id) {
+        DocumentPreview preview = documentService.getDocumentPreview(id);
+        // The content behind a document never changes, so neither does its preview.
+        return ResponseEntity.ok()
+                .contentType(MediaType.IMAGE_JPEG)
+                .cacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePrivate().immutable())
+                .eTag(preview.getETag())
+                .body(preview.image());
+    }
+
     /**
      * GET /documents/{id}
-     * Download/view file.
+     * Download/view file. Supports Range requests and revalidation with If-None-Match / If-Modified-Since.
      */
     @GetMapping("/{id}")
     @Operation(
             summary = "Download document",
-            description = "Returns the binary content of the document with the given ID."
+            description = "Returns the binary content of the document with the given ID. "
+                    + "Honors a single byte Range (206) and conditional headers (304)."
     )
-    public ResponseEntity<Resource> downloadDocument(@PathVariable Long id) {
-        Resource file = documentService.loadDocumentFile(id);
-        DocumentResponseDto meta = documentService.getDocumentMetadata(id);
+    public void downloadDocument(
+            @PathVariable Long id,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        DocumentDownload download = documentService.openDocument(id);
+        DocumentResponseDto meta = download.metadata();
 
         String baseName = meta.getName() == null ? "document" : meta.getName().trim();
         if (baseName.isBlank()) baseName = "document";
@@ -97,11 +304,13 @@ public class DocumentController {
                 ? baseName
                 : baseName + ".pdf";
 
-        return ResponseEntity.ok()
-                .contentType(MediaType.APPLICATION_PDF)
-                .header(HttpHeaders.CONTENT_DISPOSITION,
-                        "attachment; filename=\"" + filename + "\"; filename*=UTF-8''" + encodeRFC5987(filename))
-                .body(file);
+        DocumentContentWriter.write(
+                download.content(),
+                MediaType.APPLICATION_PDF,
+                "attachment; filename=\"" + filename + "\"; filename*=UTF-8''" + encodeRFC5987(filename),
+                request,
+                response
+        );
     }
 
     /**
@@ -0,0 +1,59 @@
+package com.proceduralnexus.apiservice.controller.controllers;
+
+import com.proceduralnexus.apiservice.business.services.ExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+/**
+ * Full-table exports as newline-delimited JSON (one object per line), streamed while they are
+ * read so they work for tables of any size.
+ */
+@RestController
+@SecurityRequirement(name = "bearerAuth")
+@RequestMapping("/admin/exports")
+@PreAuthorize("hasAuthority('ADMIN')")
+public class ExportController {
+
+    private final ExportService exportService;
+
+    public ExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    @GetMapping(value = "/documents", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export document metadata", description = "Streams every document's metadata as NDJSON.")
+    public ResponseEntity<StreamingResponseBody> exportDocuments() {
+        return ndjson("documents", exportService::writeDocuments);
+    }
+
+    @GetMapping(value = "/profiles", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export profiles", description = "Streams every profile with its roles as NDJSON.")
+    public ResponseEntity<StreamingResponseBody> exportProfiles() {
+        return ndjson("profiles", exportService::writeProfiles);
+    }
+
+    @GetMapping(value = "/applications", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export applications", description = "Streams every application as NDJSON.")
+    public ResponseEntity<StreamingResponseBody> exportApplications() {
+        return ndjson("applications", exportService::writeApplications);
+    }
+
+    private static ResponseEntity<StreamingResponseBody> ndjson(String name, StreamingResponseBody body) {
+        String filename = name + "-" + LocalDate.now(ZoneOffset.UTC) + ".ndjson";
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+}
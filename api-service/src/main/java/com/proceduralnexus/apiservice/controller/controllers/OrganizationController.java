@@ -4,9 +4,6 @@ import java.util.List;
 
 import com.proceduralnexus.apiservice.controller.dtos.OrganizationMemberDto;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import com.proceduralnexus.apiservice.business.interfaces.IOrganizationService;
@@ -15,6 +12,8 @@ import com.proceduralnexus.apiservice.controller.dtos.OrganizationCreateDto;
 import com.proceduralnexus.apiservice.controller.dtos.OrganizationResponseDto;
 import com.proceduralnexus.apiservice.controller.dtos.OrganizationUpdateDto;
 import com.proceduralnexus.apiservice.data.entities.Profile;
+import com.proceduralnexus.apiservice.data.entities.RoleName;
+import com.proceduralnexus.apiservice.security.CurrentUser;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -30,11 +29,14 @@ public class OrganizationController {
 
     private final IOrganizationService organizationService;
     private final ProfileService profileService;
+    private final CurrentUser currentUser;
 
     public OrganizationController(IOrganizationService organizationService,
-                                  ProfileService profileService) {
+                                  ProfileService profileService,
+                                  CurrentUser currentUser) {
         this.organizationService = organizationService;
         this.profileService = profileService;
+        this.currentUser = currentUser;
     }
 
     /**
@@ -66,16 +68,13 @@ public class OrganizationController {
             summary = "Create organization",
             description = "Creates a new organization. Default owner is current user. If caller is ADMIN, can provide ownerEmail."
     )
-    public OrganizationResponseDto createOrganization(
-            @Valid @RequestBody OrganizationCreateDto request,
-            @AuthenticationPrincipal UserDetails userDetails
-    ) {
+    public OrganizationResponseDto createOrganization(@Valid @RequestBody OrganizationCreateDto request) {
         Profile owner;
 
         if (request.getOwnerEmail() != null && !request.getOwnerEmail().isBlank()) {
             owner = profileService.findByEmail(request.getOwnerEmail().trim());
         } else {
-            owner = profileService.findByEmail(userDetails.getUsername());
+            owner = currentUser.getProfile();
         }
 
         return organizationService.createOrganization(request, owner);
@@ -94,17 +93,10 @@ public class OrganizationController {
     )
     public OrganizationResponseDto updateOrganization(
             @PathVariable Long id,
-            @Valid @RequestBody OrganizationUpdateDto request,
-            @AuthenticationPrincipal UserDetails userDetails
+            @Valid @RequestBody OrganizationUpdateDto request
     ) {
-        String email = userDetails.getUsername();
-        Profile currentUser = profileService.findByEmail(email);
-
-        boolean isAdmin = userDetails.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .anyMatch(a -> a.equals("ADMIN"));
-
-        return organizationService.updateOrganization(id, request, currentUser, isAdmin);
+        return organizationService.updateOrganization(id, request,
+                currentUser.getId(), currentUser.hasRole(RoleName.ADMIN));
     }
 
     /**
@@ -128,18 +120,7 @@ public class OrganizationController {
             summary = "Delete organization",
             description = "Deletes an organization. Only the owner or an admin can delete."
     )
-    public void deleteOrganization(
-            @PathVariable Long id,
-            @AuthenticationPrincipal UserDetails userDetails
-    ) {
-        String email = userDetails.getUsername();
-        Profile currentUser = profileService.findByEmail(email);
-
-
-        boolean isAdmin = userDetails.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .anyMatch(a -> a.equals("ADMIN"));
-
-        organizationService.deleteOrganization(id, currentUser, isAdmin);
+    public void deleteOrganization(@PathVariable Long id) {
+        organizationService.deleteOrganization(id, currentUser.getId(), currentUser.hasRole(RoleName.ADMIN));
     }
 }
@@ -0,0 +1,54 @@
+package com.proceduralnexus.apiservice.controller.controllers;
+
+import com.proceduralnexus.apiservice.business.services.IntegrityScrubber;
+import com.proceduralnexus.apiservice.business.services.StorageReconciler;
+import com.proceduralnexus.apiservice.controller.dtos.IntegrityScrubReportDto;
+import com.proceduralnexus.apiservice.controller.dtos.StorageReconciliationReportDto;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+@RestController
+@SecurityRequirement(name = "bearerAuth")
+@RequestMapping("/admin/storage")
+@PreAuthorize("hasAuthority('ADMIN')")
+public class StorageAdminController {
+
+    private final StorageReconciler storageReconciler;
+    private final IntegrityScrubber integrityScrubber;
+
+    public StorageAdminController(StorageReconciler storageReconciler, IntegrityScrubber integrityScrubber) {
+        this.storageReconciler = storageReconciler;
+        this.integrityScrubber = integrityScrubber;
+    }
+
+    @GetMapping("/reconciliation")
+    public ResponseEntity<StorageReconciliationReportDto> getLastReconciliation() {
+        return storageReconciler.getLastReport()
+                .map(ResponseEntity::ok)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "No reconciliation has run yet"));
+    }
+
+    @PostMapping("/reconciliation")
+    public ResponseEntity<StorageReconciliationReportDto> reconcile(
+            @RequestParam(defaultValue = "true") boolean dryRun
+    ) {
+        return ResponseEntity.ok(storageReconciler.reconcile(dryRun));
+    }
+
+    @GetMapping("/integrity")
+    public ResponseEntity<IntegrityScrubReportDto> getIntegrityReport() {
+        return ResponseEntity.ok(integrityScrubber.getReport());
+    }
+
+    @PostMapping("/integrity")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public void startIntegrityScrub() {
+        if (!integrityScrubber.start()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "An integrity scrub is already running");
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.proceduralnexus.apiservice.controller.dtos;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One page of a document listing. Pass {@code nextCursor} back as {@code cursor} to get the
+ * following page; it is {@code null} on the last page.
+ */
+public class DocumentPageDto {
+
+    private List<DocumentResponseDto> items = new ArrayList<>();
+    private String nextCursor;
+    private int limit;
+
+    public List<DocumentResponseDto> getItems() {
+        return items;
+    }
+
+    public void setItems(List<DocumentResponseDto> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+}
@@ -0,0 +1,48 @@
+package com.proceduralnexus.apiservice.controller.dtos;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One page of search results, best match first. Pass {@code nextOffset} back as
+ * {@code offset} to get the following page; it is {@code null} on the last page.
+ */
+public class DocumentSearchResultDto {
+
+    private List<DocumentResponseDto> items = new ArrayList<>();
+    private int offset;
+    private int limit;
+    private Integer nextOffset;
+
+    public List<DocumentResponseDto> getItems() {
+        return items;
+    }
+
+    public void setItems(List<DocumentResponseDto> items) {
+        this.items = items;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public void setOffset(int offset) {
+        this.offset = offset;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+
+    public Integer getNextOffset() {
+        return nextOffset;
+    }
+
+    public void setNextOffset(Integer nextOffset) {
+        this.nextOffset = nextOffset;
+    }
+}
@@ -0,0 +1,111 @@
+package com.proceduralnexus.apiservice.controller.dtos;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Progress of the current or last integrity scrub, plus every blob currently flagged.
+ */
+public class IntegrityScrubReportDto {
+
+    private boolean running;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private long blobsVerified;
+    private long bytesVerified;
+    private long mismatches;
+    private long missing;
+    private long unreadable;
+    private long legacyDocumentsBackfilled;
+    private List<Long> legacyDocumentsMissing = new ArrayList<>();
+    private List<IntegrityIssueDto> issues = new ArrayList<>();
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public void setRunning(boolean running) {
+        this.running = running;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public long getBlobsVerified() {
+        return blobsVerified;
+    }
+
+    public void setBlobsVerified(long blobsVerified) {
+        this.blobsVerified = blobsVerified;
+    }
+
+    public long getBytesVerified() {
+        return bytesVerified;
+    }
+
+    public void setBytesVerified(long bytesVerified) {
+        this.bytesVerified = bytesVerified;
+    }
+
+    public long getMismatches() {
+        return mismatches;
+    }
+
+    public void setMismatches(long mismatches) {
+        this.mismatches = mismatches;
+    }
+
+    public long getMissing() {
+        return missing;
+    }
+
+    public void setMissing(long missing) {
+        this.missing = missing;
+    }
+
+    public long getUnreadable() {
+        return unreadable;
+    }
+
+    public void setUnreadable(long unreadable) {
+        this.unreadable = unreadable;
+    }
+
+    public long getLegacyDocumentsBackfilled() {
+        return legacyDocumentsBackfilled;
+    }
+
+    public void setLegacyDocumentsBackfilled(long legacyDocumentsBackfilled) {
+        this.legacyDocumentsBackfilled = legacyDocumentsBackfilled;
+    }
+
+    public List<Long> getLegacyDocumentsMissing() {
+        return legacyDocumentsMissing;
+    }
+
+    public void setLegacyDocumentsMissing(List<Long> legacyDocumentsMissing) {
+        this.legacyDocumentsMissing = legacyDocumentsMissing;
+    }
+
+    public List<IntegrityIssueDto> getIssues() {
+        return issues;
+    }
+
+    public void setIssues(List<IntegrityIssueDto> issues) {
+        this.issues = issues;
+    }
+}
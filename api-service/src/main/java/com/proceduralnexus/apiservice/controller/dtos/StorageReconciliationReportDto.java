@@ -0,0 +1,193 @@
+package com.proceduralnexus.apiservice.controller.dtos;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of one storage reconciliation run. The sample lists hold at most a few keys each;
+ * the counters cover everything that was found.
+ */
+public class StorageReconciliationReportDto {
+
+    private Instant startedAt;
+    private Instant finishedAt;
+    private boolean dryRun;
+    private String action;
+    private long objectsScanned;
+    private long bytesScanned;
+    private long orphanObjects;
+    private long orphanBytes;
+    private long removedObjects;
+    private long quarantinedObjects;
+    private long missingObjects;
+    private long referenceCountsRepaired;
+    private long legacyOrphanFiles;
+    private long legacyOrphanBytes;
+    private long stagingFilesRemoved;
+    private long uploadSessionsPurged;
+    private long uploadPartFilesRemoved;
+    private List<String> orphanSample = new ArrayList<>();
+    private List<String> missingSample = new ArrayList<>();
+    private List<String> errors = new ArrayList<>();
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public boolean isDryRun() {
+        return dryRun;
+    }
+
+    public void setDryRun(boolean dryRun) {
+        this.dryRun = dryRun;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public void setAction(String action) {
+        this.action = action;
+    }
+
+    public long getObjectsScanned() {
+        return objectsScanned;
+    }
+
+    public void setObjectsScanned(long objectsScanned) {
+        this.objectsScanned = objectsScanned;
+    }
+
+    public long getBytesScanned() {
+        return bytesScanned;
+    }
+
+    public void setBytesScanned(long bytesScanned) {
+        this.bytesScanned = bytesScanned;
+    }
+
+    public long getOrphanObjects() {
+        return orphanObjects;
+    }
+
+    public void setOrphanObjects(long orphanObjects) {
+        this.orphanObjects = orphanObjects;
+    }
+
+    public long getOrphanBytes() {
+        return orphanBytes;
+    }
+
+    public void setOrphanBytes(long orphanBytes) {
+        this.orphanBytes = orphanBytes;
+    }
+
+    public long getRemovedObjects() {
+        return removedObjects;
+    }
+
+    public void setRemovedObjects(long removedObjects) {
+        this.removedObjects = removedObjects;
+    }
+
+    public long getQuarantinedObjects() {
+        return quarantinedObjects;
+    }
+
+    public void setQuarantinedObjects(long quarantinedObjects) {
+        this.quarantinedObjects = quarantinedObjects;
+    }
+
+    public long getMissingObjects() {
+        return missingObjects;
+    }
+
+    public void setMissingObjects(long missingObjects) {
+        this.missingObjects = missingObjects;
+    }
+
+    public long getReferenceCountsRepaired() {
+        return referenceCountsRepaired;
+    }
+
+    public void setReferenceCountsRepaired(long referenceCountsRepaired) {
+        this.referenceCountsRepaired = referenceCountsRepaired;
+    }
+
+    public long getLegacyOrphanFiles() {
+        return legacyOrphanFiles;
+    }
+
+    public void setLegacyOrphanFiles(long legacyOrphanFiles) {
+        this.legacyOrphanFiles = legacyOrphanFiles;
+    }
+
+    public long getLegacyOrphanBytes() {
+        return legacyOrphanBytes;
+    }
+
+    public void setLegacyOrphanBytes(long legacyOrphanBytes) {
+        this.legacyOrphanBytes = legacyOrphanBytes;
+    }
+
+    public long getStagingFilesRemoved() {
+        return stagingFilesRemoved;
+    }
+
+    public void setStagingFilesRemoved(long stagingFilesRemoved) {
+        this.stagingFilesRemoved = stagingFilesRemoved;
+    }
+
+    public long getUploadSessionsPurged() {
+        return uploadSessionsPurged;
+    }
+
+    public void setUploadSessionsPurged(long uploadSessionsPurged) {
+        this.uploadSessionsPurged = uploadSessionsPurged;
+    }
+
+    public long getUploadPartFilesRemoved() {
+        return uploadPartFilesRemoved;
+    }
+
+    public void setUploadPartFilesRemoved(long uploadPartFilesRemoved) {
+        this.uploadPartFilesRemoved = uploadPartFilesRemoved;
+    }
+
+    public List<String> getOrphanSample() {
+        return orphanSample;
+    }
+
+    public void setOrphanSample(List<String> orphanSample) {
+        this.orphanSample = orphanSample;
+    }
+
+    public List<String> getMissingSample() {
+        return missingSample;
+    }
+
+    public void setMissingSample(List<String> missingSample) {
+        this.missingSample = missingSample;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+}
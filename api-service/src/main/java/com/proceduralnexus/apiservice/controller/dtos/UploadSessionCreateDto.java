@@ -0,0 +1,55 @@
+package com.proceduralnexus.apiservice.controller.dtos;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+
+import java.util.UUID;
+
+public class UploadSessionCreateDto {
+
+    @NotBlank
+    private String name;
+
+    @NotNull
+    private UUID uploaderId;
+
+    private String fileName;
+    private String batchId;
+    private String type;
+
+    @NotNull
+    @Positive
+    private Long totalSize;
+
+    private Integer chunkSize;
+
+    // Hex SHA-256 of the whole file; when given, a commit whose content differs is rejected.
+    @Pattern(regexp = "[0-9a-fA-F]{64}")
+    private String sha256;
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public UUID getUploaderId() { return uploaderId; }
+    public void setUploaderId(UUID uploaderId) { this.uploaderId = uploaderId; }
+
+    public String getFileName() { return fileName; }
+    public void setFileName(String fileName) { this.fileName = fileName; }
+
+    public String getBatchId() { return batchId; }
+    public void setBatchId(String batchId) { this.batchId = batchId; }
+
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public Long getTotalSize() { return totalSize; }
+    public void setTotalSize(Long totalSize) { this.totalSize = totalSize; }
+
+    public Integer getChunkSize() { return chunkSize; }
+    public void setChunkSize(Integer chunkSize) { this.chunkSize = chunkSize; }
+
+    public String getSha256() { return sha256; }
+    public void setSha256(String sha256) { this.sha256 = sha256; }
+}
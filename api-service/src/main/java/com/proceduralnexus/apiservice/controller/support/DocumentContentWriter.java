@@ -0,0 +1,170 @@
+package com.proceduralnexus.apiservice.controller.support;
+
+import com.proceduralnexus.apiservice.business.storage.DocumentContent;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Writes {@link DocumentContent} to a servlet response with conditional (304) and single
+ * byte-range (206) support.
+ * <p>
+ * Local files are handed to Tomcat's sendfile when the connector supports it, so the body is
+ * copied by the kernel after the handler returns; otherwise they are sent with
+ * {@link FileChannel#transferTo}. Content from remote stores is streamed for just the
+ * requested range.
+ */
+public final class DocumentContentWriter {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // Clients may keep a copy but must revalidate it, which costs a 304 when nothing changed.
+    private static final String CACHE_CONTROL = CacheControl.noCache().cachePrivate().getHeaderValue();
+
+    private DocumentContentWriter() {
+    }
+
+    public static void write(
+            DocumentContent content,
+            MediaType contentType,
+            String contentDisposition,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        String etag = content.getETag();
+        long lastModified = content.getLastModified() != null ? content.getLastModified().toEpochMilli() : -1;
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+
+        // Sets ETag / Last-Modified and answers 304 (or 412 for If-Match) on a match.
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+
+        long length = content.getLength();
+        long start = 0;
+        long end = length - 1;
+        boolean partial = false;
+
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader != null && length > 0 && ifRangeMatches(request, etag, lastModified)) {
+            List<HttpRange> ranges = parseRanges(rangeHeader);
+            // Multi-range requests are answered with the whole document, as RFC 9110 allows.
+            if (ranges.size() == 1) {
+                boolean satisfiable;
+                try {
+                    start = ranges.get(0).getRangeStart(length);
+                    end = ranges.get(0).getRangeEnd(length);
+                    // HttpRange accepts a first position past the end and clamps the last one before it.
+                    satisfiable = start < length;
+                } catch (IllegalArgumentException ex) {
+                    satisfiable = false;
+                }
+                if (!satisfiable) {
+                    response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    return;
+                }
+                partial = true;
+            }
+        }
+
+        long count = end - start + 1;
+        if (partial) {
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        } else {
+            response.setStatus(HttpStatus.OK.value());
+        }
+        response.setContentType(contentType.toString());
+        if (contentDisposition != null) {
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, contentDisposition);
+        }
+        response.setContentLengthLong(count);
+
+        if (count == 0 || HttpMethod.HEAD.matches(request.getMethod())) {
+            return;
+        }
+
+        Optional<Path> localFile = content.getLocalFile();
+        if (localFile.isPresent()) {
+            if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+                request.setAttribute(SENDFILE_FILENAME, localFile.get().toAbsolutePath().toString());
+                request.setAttribute(SENDFILE_START, start);
+                request.setAttribute(SENDFILE_END, end + 1);
+                return;
+            }
+            transferFile(localFile.get(), start, count, response.getOutputStream());
+            return;
+        }
+
+        try (InputStream in = content.open(start, count)) {
+            in.transferTo(response.getOutputStream());
+        }
+    }
+
+    private static void transferFile(Path file, long position, long count, OutputStream out) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(out);
+            long remaining = count;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, target);
+                if (sent <= 0) {
+                    throw new IOException("File " + file + " ended before the requested range");
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    private static List<HttpRange> parseRanges(String header) {
+        try {
+            return HttpRange.parseRanges(header);
+        } catch (IllegalArgumentException ex) {
+            // A malformed Range header is ignored and the full document is sent.
+            return List.of();
+        }
+    }
+
+    /**
+     * {@code If-Range} only keeps the Range when the client's copy is still current: a strong
+     * ETag must match exactly, a date must equal Last-Modified.
+     */
+    private static boolean ifRangeMatches(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return !etag.startsWith("W/") && ifRange.equals(etag);
+        }
+        try {
+            long date = request.getDateHeader(HttpHeaders.IF_RANGE);
+            return lastModified >= 0 && date == (lastModified / 1000) * 1000;
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.proceduralnexus.apiservice.controller.support;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+
+/**
+ * A request turned away for now, answered with a {@code Retry-After} header telling the
+ * client how long to wait.
+ */
+public class RetryAfterException extends ResponseStatusException {
+    private final Duration retryAfter;
+
+    public RetryAfterException(HttpStatus status, String reason, Duration retryAfter) {
+        super(status, reason);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    /**
+     * The delay in whole seconds, rounded up: a client retrying after the floor would be
+     * refused again.
+     */
+    public long getRetryAfterSeconds() {
+        return Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, Long.toString(getRetryAfterSeconds()));
+        return headers;
+    }
+}
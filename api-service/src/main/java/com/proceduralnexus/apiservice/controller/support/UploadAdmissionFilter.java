@@ -0,0 +1,103 @@
+package com.proceduralnexus.apiservice.controller.support;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.proceduralnexus.apiservice.business.services.UploadAdmissionService;
+import com.proceduralnexus.apiservice.security.UserDetailsImpl;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs {@link UploadAdmissionService} in front of the upload endpoints. It sits after the
+ * security filters, so the caller is known, but before multipart parsing, so a rejected
+ * upload is answered before its body is read.
+ */
+@Component
+public class UploadAdmissionFilter extends OncePerRequestFilter {
+
+    private static final List<UploadRoute> UPLOAD_ROUTES = List.of(
+            new UploadRoute(HttpMethod.POST, "/documents/upload"),
+            new UploadRoute(HttpMethod.POST, "/documents/upload/batch"),
+            new UploadRoute(HttpMethod.PUT, "/documents/uploads/*/chunks/*"),
+            new UploadRoute(HttpMethod.POST, "/documents/uploads/*/commit")
+    );
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final UploadAdmissionService admissionService;
+    private final ObjectMapper objectMapper;
+
+    public UploadAdmissionFilter(UploadAdmissionService admissionService, ObjectMapper objectMapper) {
+        this.admissionService = admissionService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return UPLOAD_ROUTES.stream().noneMatch(route ->
+                route.method().matches(request.getMethod()) && pathMatcher.match(route.pattern(), path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        UploadAdmissionService.Permit permit;
+        try {
+            UserDetailsImpl user = currentUser();
+            permit = admissionService.admit(
+                    user == null ? null : user.getId(),
+                    user == null ? null : user.getOrganizationId(),
+                    request.getContentLengthLong()
+            );
+        } catch (RetryAfterException ex) {
+            reject(request, response, ex);
+            return;
+        }
+
+        try (permit) {
+            filterChain.doFilter(request, response);
+        }
+    }
+
+    private static UserDetailsImpl currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserDetailsImpl user) {
+            return user;
+        }
+        return null;
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response,
+                        RetryAfterException ex) throws IOException {
+        // Written directly: the body has not been read, so the connection is closed after the reply.
+        response.setStatus(ex.getStatusCode().value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()));
+        response.setHeader(HttpHeaders.CONNECTION, "close");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", Instant.now().toString());
+        body.put("status", ex.getStatusCode().value());
+        body.put("error", ex.getReason());
+        body.put("path", request.getRequestURI());
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    private record UploadRoute(HttpMethod method, String pattern) {
+    }
+}
@@ -0,0 +1,9 @@
+package com.proceduralnexus.apiservice.data.entities;
+
+/**
+ * How the bytes of a stored blob are encoded at rest.
+ */
+public enum BlobCodec {
+    NONE,
+    DEFLATE
+}
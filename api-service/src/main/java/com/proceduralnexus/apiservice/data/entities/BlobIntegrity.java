@@ -0,0 +1,14 @@
+package com.proceduralnexus.apiservice.data.entities;
+
+/**
+ * Result of re-hashing a stored blob.
+ */
+public enum BlobIntegrity {
+    OK,
+    /** The stored bytes no longer hash to the blob's digest. */
+    MISMATCH,
+    /** The object is gone from the store. */
+    MISSING,
+    /** The object exists but could not be read or decoded. */
+    UNREADABLE
+}
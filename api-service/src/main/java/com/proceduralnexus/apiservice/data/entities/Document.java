@@ -18,7 +18,8 @@ public class Document {
     }
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "document_seq")
+    @SequenceGenerator(name = "document_seq", sequenceName = "document_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -27,6 +28,13 @@ public class Document {
     @Column(nullable = false)
     private String filePath;
 
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "storage_codec", length = 16)
+    private BlobCodec storageCodec;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "document_type")
     private DocumentType type;
@@ -79,6 +87,22 @@ public class Document {
         this.filePath = filePath;
     }
 
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    public BlobCodec getStorageCodec() {
+        return storageCodec;
+    }
+
+    public void setStorageCodec(BlobCodec storageCodec) {
+        this.storageCodec = storageCodec;
+    }
+
     public DocumentType getType() {
         return type;
     }
@@ -0,0 +1,173 @@
+package com.proceduralnexus.apiservice.data.entities;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A resumable upload in progress. The chunks themselves are written to a part file named
+ * after the session id; this row records what the upload is and which chunks have arrived.
+ */
+@Entity
+@Table(name = "document_upload_session")
+public class DocumentUploadSession {
+
+    @Id
+    private UUID id;
+
+    @Column(name = "uploader_id", nullable = false)
+    private UUID uploaderId;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(name = "file_name")
+    private String fileName;
+
+    @Column(name = "batch_id")
+    private String batchId;
+
+    private String type;
+
+    @Column(name = "total_size", nullable = false)
+    private long totalSize;
+
+    @Column(name = "chunk_size", nullable = false)
+    private int chunkSize;
+
+    @Column(name = "chunk_count", nullable = false)
+    private int chunkCount;
+
+    // Bit n is set once chunk n is on disk, in java.util.BitSet byte order.
+    @Column(name = "received_chunks", nullable = false)
+    private byte[] receivedChunks;
+
+    @Column(name = "expected_digest", length = 64)
+    private String expectedDigest;
+
+    @Column(nullable = false)
+    private boolean committing;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false, nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "last_touched_at", nullable = false)
+    private Instant lastTouchedAt;
+
+    // Getters and Setters
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public UUID getUploaderId() {
+        return uploaderId;
+    }
+
+    public void setUploaderId(UUID uploaderId) {
+        this.uploaderId = uploaderId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public String getBatchId() {
+        return batchId;
+    }
+
+    public void setBatchId(String batchId) {
+        this.batchId = batchId;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public long getTotalSize() {
+        return totalSize;
+    }
+
+    public void setTotalSize(long totalSize) {
+        this.totalSize = totalSize;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public int getChunkCount() {
+        return chunkCount;
+    }
+
+    public void setChunkCount(int chunkCount) {
+        this.chunkCount = chunkCount;
+    }
+
+    public byte[] getReceivedChunks() {
+        return receivedChunks;
+    }
+
+    public void setReceivedChunks(byte[] receivedChunks) {
+        this.receivedChunks = receivedChunks;
+    }
+
+    public String getExpectedDigest() {
+        return expectedDigest;
+    }
+
+    public void setExpectedDigest(String expectedDigest) {
+        this.expectedDigest = expectedDigest;
+    }
+
+    public boolean isCommitting() {
+        return committing;
+    }
+
+    public void setCommitting(boolean committing) {
+        this.committing = committing;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getLastTouchedAt() {
+        return lastTouchedAt;
+    }
+
+    public void setLastTouchedAt(Instant lastTouchedAt) {
+        this.lastTouchedAt = lastTouchedAt;
+    }
+}
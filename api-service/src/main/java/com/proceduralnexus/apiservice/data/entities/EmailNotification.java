@@ -6,6 +6,10 @@ import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.Instant;
 
+/**
+ * An email in the outbox: written in the transaction that triggers it and sent afterwards
+ * by EmailOutboxService.
+ */
 @Entity
 @Table(name = "email_notification")
 public class EmailNotification {
@@ -14,19 +18,33 @@ public class EmailNotification {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "profile_id", referencedColumnName = "id")
     private Profile recipient;
 
+    @Column(name = "recipient_email", nullable = false)
+    private String recipientEmail;
+
     @Column(nullable = false)
     private String subject;
 
-    @Lob
-    @Column(nullable = false)
+    @Column(columnDefinition = "TEXT", nullable = false)
     private String body;
 
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private EmailStatus status = EmailStatus.PENDING;
+
+    // Attempts started so far, including one in progress.
     @Column(nullable = false)
-    private String status = "PENDING"; // PENDING, SENT, FAILED
+    private int attempts;
+
+    // When the email is due; while an attempt is in progress, when it is considered abandoned.
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
 
     @Column(name = "sent_at")
     private Instant sentAt;
@@ -57,6 +75,14 @@ public class EmailNotification {
         this.recipient = recipient;
     }
 
+    public String getRecipientEmail() {
+        return recipientEmail;
+    }
+
+    public void setRecipientEmail(String recipientEmail) {
+        this.recipientEmail = recipientEmail;
+    }
+
     public String getSubject() {
         return subject;
     }
@@ -73,14 +99,38 @@ public class EmailNotification {
         this.body = body;
     }
 
-    public String getStatus() {
+    public EmailStatus getStatus() {
         return status;
     }
 
-    public void setStatus(String status) {
+    public void setStatus(EmailStatus status) {
         this.status = status;
     }
 
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public Instant getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(Instant nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
     public Instant getSentAt() {
         return sentAt;
     }
@@ -0,0 +1,12 @@
+package com.proceduralnexus.apiservice.data.entities;
+
+/**
+ * Delivery state of an outbox email, see EmailOutboxService.
+ */
+public enum EmailStatus {
+    /** Waiting to be sent, or to be retried after a failed attempt. */
+    PENDING,
+    SENT,
+    /** Given up on: the message was rejected or every attempt failed. */
+    FAILED
+}
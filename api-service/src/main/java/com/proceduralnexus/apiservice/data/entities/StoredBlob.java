@@ -0,0 +1,109 @@
+package com.proceduralnexus.apiservice.data.entities;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+
+/**
+ * A unique piece of document content, stored once and shared by every
+ * {@link Document} whose bytes hash to the same digest.
+ */
+@Entity
+@Table(name = "stored_blob")
+public class StoredBlob {
+
+    @Id
+    @Column(length = 64, nullable = false, updatable = false)
+    private String digest;
+
+    @Column(name = "size_in_bytes", nullable = false)
+    private long sizeInBytes;
+
+    @Column(name = "stored_size_in_bytes")
+    private Long storedSizeInBytes;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "storage_codec", length = 16, nullable = false)
+    private BlobCodec storageCodec = BlobCodec.NONE;
+
+    @Column(name = "ref_count", nullable = false)
+    private int refCount;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false, nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "verified_at")
+    private Instant verifiedAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "integrity_status", length = 16)
+    private BlobIntegrity integrityStatus;
+
+    // Getters and Setters
+
+    public String getDigest() {
+        return digest;
+    }
+
+    public void setDigest(String digest) {
+        this.digest = digest;
+    }
+
+    public long getSizeInBytes() {
+        return sizeInBytes;
+    }
+
+    public void setSizeInBytes(long sizeInBytes) {
+        this.sizeInBytes = sizeInBytes;
+    }
+
+    public Long getStoredSizeInBytes() {
+        return storedSizeInBytes;
+    }
+
+    public void setStoredSizeInBytes(Long storedSizeInBytes) {
+        this.storedSizeInBytes = storedSizeInBytes;
+    }
+
+    public BlobCodec getStorageCodec() {
+        return storageCodec;
+    }
+
+    public void setStorageCodec(BlobCodec storageCodec) {
+        this.storageCodec = storageCodec;
+    }
+
+    public int getRefCount() {
+        return refCount;
+    }
+
+    public void setRefCount(int refCount) {
+        this.refCount = refCount;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getVerifiedAt() {
+        return verifiedAt;
+    }
+
+    public void setVerifiedAt(Instant verifiedAt) {
+        this.verifiedAt = verifiedAt;
+    }
+
+    public BlobIntegrity getIntegrityStatus() {
+        return integrityStatus;
+    }
+
+    public void setIntegrityStatus(BlobIntegrity integrityStatus) {
+        this.integrityStatus = integrityStatus;
+    }
+}
@@ -5,13 +5,15 @@ import java.util.UUID;
 
 public class JwtResponse {
     private String token;
+    private String refreshToken;
     private String type = "Bearer";
     private UUID id;
     private String email;
     private List<String> roles;
 
-    public JwtResponse(String accessToken, UUID id, String email, List<String> roles) {
+    public JwtResponse(String accessToken, String refreshToken, UUID id, String email, List<String> roles) {
         this.token = accessToken;
+        this.refreshToken = refreshToken;
         this.id = id;
         this.email = email;
         this.roles = roles;
@@ -25,6 +27,14 @@ public class JwtResponse {
         this.token = accessToken;
     }
 
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+
     public String getTokenType() {
         return type;
     }
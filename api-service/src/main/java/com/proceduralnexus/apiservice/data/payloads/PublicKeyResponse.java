@@ -0,0 +1,27 @@
+package com.proceduralnexus.apiservice.data.payloads;
+
+public class PublicKeyResponse {
+    private String algorithm;
+    private String publicKey;
+
+    public PublicKeyResponse(String algorithm, String publicKey) {
+        this.algorithm = algorithm;
+        this.publicKey = publicKey;
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public void setAlgorithm(String algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    public String getPublicKey() {
+        return publicKey;
+    }
+
+    public void setPublicKey(String publicKey) {
+        this.publicKey = publicKey;
+    }
+}
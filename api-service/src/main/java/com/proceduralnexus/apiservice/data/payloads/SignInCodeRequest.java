@@ -0,0 +1,16 @@
+package com.proceduralnexus.apiservice.data.payloads;
+
+import jakarta.validation.constraints.NotBlank;
+
+public class SignInCodeRequest {
+    @NotBlank
+    private String code;
+
+    public String getCode() {
+        return code;
+    }
+
+    public void setCode(String code) {
+        this.code = code;
+    }
+}
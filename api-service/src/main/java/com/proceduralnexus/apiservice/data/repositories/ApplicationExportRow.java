@@ -0,0 +1,22 @@
+package com.proceduralnexus.apiservice.data.repositories;
+
+import com.proceduralnexus.apiservice.data.entities.Application;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Application as exported, read straight from the query.
+ */
+public record ApplicationExportRow(
+        Long id,
+        UUID applicantId,
+        String applicantEmail,
+        Long organizationId,
+        String organizationName,
+        Long cvDocumentId,
+        Application.ApplicationStatus status,
+        Instant createdAt,
+        Instant updatedAt
+) {
+}
@@ -3,14 +3,38 @@ package com.proceduralnexus.apiservice.data.repositories;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import com.proceduralnexus.apiservice.data.entities.Application;
 
 public interface ApplicationRepository extends JpaRepository<Application, Long> {
+    @EntityGraph(attributePaths = {"applicant", "cv"})
     List<Application> findByOrganization_IdAndStatusOrderByCreatedAtDesc(Long organizationId, Application.ApplicationStatus status);
     Optional<Application> findByApplicant_IdAndOrganization_Id(UUID profileId, Long organizationId);
+    @EntityGraph(attributePaths = {"applicant", "cv"})
     List<Application> findByApplicant_IdOrderByCreatedAtDesc(UUID applicantId);
     void deleteByApplicant_Id(UUID applicantId);
+
+    /**
+     * Every application in id order for NDJSON export. Must be consumed and closed inside a
+     * read-only transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select new com.proceduralnexus.apiservice.data.repositories.ApplicationExportRow(
+                a.id, p.id, p.email, o.id, o.name, cv.id, a.status, a.createdAt, a.updatedAt)
+            from Application a join a.applicant p join a.organization o left join a.cv cv
+            order by a.id
+            """)
+    Stream<ApplicationExportRow> streamForExport();
 }
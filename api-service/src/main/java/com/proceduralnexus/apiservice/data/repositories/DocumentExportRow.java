@@ -0,0 +1,25 @@
+package com.proceduralnexus.apiservice.data.repositories;
+
+import com.proceduralnexus.apiservice.data.entities.Document;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Document metadata as exported, read straight from the query so no entity is kept in the
+ * persistence context while a large export streams.
+ */
+public record DocumentExportRow(
+        Long id,
+        String name,
+        Document.DocumentType type,
+        Long fileSizeInBytes,
+        String contentHash,
+        String batchId,
+        boolean signed,
+        UUID uploaderId,
+        String uploaderEmail,
+        Instant createdAt,
+        Instant updatedAt
+) {
+}
@@ -0,0 +1,30 @@
+package com.proceduralnexus.apiservice.data.repositories;
+
+import com.proceduralnexus.apiservice.data.entities.Document;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Keyset-paginated document listing, newest first. Kept as a fragment of
+ * {@link DocumentRepository} because the query is assembled from the filters that are set,
+ * so each combination can use its own index.
+ */
+public interface DocumentPageRepository {
+
+    /**
+     * Up to {@code limit} documents ordered by {@code (created_at, id)} descending, starting
+     * after the given position (or from the newest when {@code afterCreatedAt} is null).
+     * Filters that are {@code null} are not applied. The uploader is fetched with each row.
+     */
+    List<Document> findPage(
+            UUID uploaderId,
+            Document.DocumentType type,
+            Boolean signed,
+            String batchId,
+            Instant afterCreatedAt,
+            Long afterId,
+            int limit
+    );
+}
@@ -0,0 +1,71 @@
+package com.proceduralnexus.apiservice.data.repositories;
+
+import com.proceduralnexus.apiservice.data.entities.Document;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+class DocumentPageRepositoryImpl implements DocumentPageRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Document> findPage(
+            UUID uploaderId,
+            Document.DocumentType type,
+            Boolean signed,
+            String batchId,
+            Instant afterCreatedAt,
+            Long afterId,
+            int limit
+    ) {
+        List<String> conditions = new ArrayList<>();
+        if (uploaderId != null) {
+            conditions.add("d.uploader.id = :uploaderId");
+        }
+        if (type != null) {
+            conditions.add("d.type = :type");
+        }
+        if (signed != null) {
+            conditions.add("d.signed = :signed");
+        }
+        if (batchId != null) {
+            conditions.add("d.batchId = :batchId");
+        }
+        if (afterCreatedAt != null) {
+            // A row-value comparison lets the database seek straight to the position in the index.
+            conditions.add("(d.createdAt, d.id) < (:afterCreatedAt, :afterId)");
+        }
+
+        StringBuilder jpql = new StringBuilder("select d from Document d join fetch d.uploader");
+        if (!conditions.isEmpty()) {
+            jpql.append(" where ").append(String.join(" and ", conditions));
+        }
+        jpql.append(" order by d.createdAt desc, d.id desc");
+
+        TypedQuery<Document> query = entityManager.createQuery(jpql.toString(), Document.class);
+        if (uploaderId != null) {
+            query.setParameter("uploaderId", uploaderId);
+        }
+        if (type != null) {
+            query.setParameter("type", type);
+        }
+        if (signed != null) {
+            query.setParameter("signed", signed);
+        }
+        if (batchId != null) {
+            query.setParameter("batchId", batchId);
+        }
+        if (afterCreatedAt != null) {
+            query.setParameter("afterCreatedAt", afterCreatedAt);
+            query.setParameter("afterId", afterId);
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+}
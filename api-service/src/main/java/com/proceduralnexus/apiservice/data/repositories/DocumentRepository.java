@@ -1,15 +1,108 @@
 package com.proceduralnexus.apiservice.data.repositories;
 
+import com.proceduralnexus.apiservice.data.entities.BlobCodec;
 import com.proceduralnexus.apiservice.data.entities.Document;
-import com.proceduralnexus.apiservice.data.entities.Profile;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface DocumentRepository extends JpaRepository<Document, Long> {
+public interface DocumentRepository extends JpaRepository<Document, Long>, DocumentPageRepository, DocumentSearchRepository {
     List<Document> findByUploader_Id(UUID uploaderId);
-    void deleteByUploader_IdAndTypeNot(UUID uploaderId, Document.DocumentType type);
+    List<Document> findByBatchIdOrderByIdAsc(String batchId);
+    List<Document> findByUploader_IdAndTypeNot(UUID uploaderId, Document.DocumentType type);
+
+    @Query("select d from Document d join fetch d.uploader where d.id = :id")
+    Optional<Document> findWithUploaderById(@Param("id") Long id);
+
+    /**
+     * Distinct (content_hash, storage_codec) pairs in byte order of the hash, for merge-joining
+     * with a sorted storage listing. Must be consumed inside a read-only transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(value = """
+            SELECT content_hash, storage_codec
+            FROM document
+            WHERE content_hash IS NOT NULL
+            GROUP BY content_hash, storage_codec
+            ORDER BY content_hash COLLATE "C"
+            """, nativeQuery = true)
+    Stream<Object[]> streamStoredContent();
+
+    /**
+     * Every document in id order for NDJSON export. Rows are fetched from a cursor in chunks, so
+     * the stream must be consumed and closed inside a read-only transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select new com.proceduralnexus.apiservice.data.repositories.DocumentExportRow(
+                d.id, d.name, d.type, d.fileSizeInBytes, d.contentHash, d.batchId, d.signed,
+                u.id, u.email, d.createdAt, d.updatedAt)
+            from Document d join d.uploader u
+            order by d.id
+            """)
+    Stream<DocumentExportRow> streamForExport();
+
+    boolean existsByContentHashAndStorageCodec(String contentHash, BlobCodec storageCodec);
+
+    boolean existsByContentHashAndStorageCodecIsNull(String contentHash);
+
+    long countByContentHash(String contentHash);
+
+    @Query("select d.filePath from Document d where d.contentHash is null")
+    List<String> findLegacyFilePaths();
+
+    @Query("select d.id from Document d where d.contentHash is null order by d.id")
+    List<Long> findLegacyDocumentIds();
+
+    @Query("select d.id from Document d where d.contentHash = :contentHash order by d.id")
+    List<Long> findIdsByContentHash(@Param("contentHash") String contentHash);
+
+    @Query("select d.contentHash from Document d where d.uploader.id = :uploaderId and d.contentHash is not null")
+    List<String> findContentHashesByUploader(@Param("uploaderId") UUID uploaderId);
+
+    @Query("select d.id from Document d where d.uploader.id = :uploaderId")
+    List<Long> findIdsByUploader(@Param("uploaderId") UUID uploaderId);
+
+    @Query("select d from Document d join fetch d.uploader where d.id in :ids")
+    List<Document> findAllWithUploaderByIdIn(@Param("ids") Collection<Long> ids);
+
+    // content_text only feeds the search vector, so it is not mapped on the entity.
+
+    @Query(value = """
+            SELECT EXISTS (SELECT 1 FROM document WHERE content_hash = :digest AND content_text IS NULL)
+            """, nativeQuery = true)
+    boolean existsContentAwaitingText(@Param("digest") String digest);
+
+    /**
+     * (content_hash, storage_codec, file_size_in_bytes) of up to {@code limit} distinct contents
+     * whose text has not been extracted yet, skipping files too large to analyse.
+     */
+    @Query(value = """
+            SELECT DISTINCT ON (content_hash) content_hash, storage_codec, file_size_in_bytes
+            FROM document
+            WHERE content_text IS NULL AND content_hash IS NOT NULL AND file_size_in_bytes <= :maxSize
+            ORDER BY content_hash
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Object[]> findContentAwaitingText(@Param("maxSize") long maxSize, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "UPDATE document SET content_text = :text WHERE content_hash = :digest AND content_text IS NULL",
+            nativeQuery = true)
+    int storeContentText(@Param("digest") String digest, @Param("text") String text);
 }
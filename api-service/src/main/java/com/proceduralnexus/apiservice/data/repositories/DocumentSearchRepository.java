@@ -0,0 +1,21 @@
+package com.proceduralnexus.apiservice.data.repositories;
+
+import com.proceduralnexus.apiservice.data.entities.Document;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Ranked full-text search over document names and extracted content, backed by the
+ * {@code search_vector} column and its GIN index. Kept as a fragment of
+ * {@link DocumentRepository} because the column is not mapped on the entity.
+ */
+public interface DocumentSearchRepository {
+
+    /**
+     * Ids of up to {@code limit} documents matching {@code query} (web search syntax: words,
+     * "quoted phrases", {@code or}, {@code -excluded}), best match first, skipping the first
+     * {@code offset}. Filters that are {@code null} are not applied.
+     */
+    List<Long> searchIds(String query, UUID uploaderId, Document.DocumentType type, int offset, int limit);
+}
@@ -0,0 +1,49 @@
+package com.proceduralnexus.apiservice.data.repositories;
+
+import com.proceduralnexus.apiservice.data.entities.Document;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.util.List;
+import java.util.UUID;
+
+class DocumentSearchRepositoryImpl implements DocumentSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Long> searchIds(String query, UUID uploaderId, Document.DocumentType type, int offset, int limit) {
+        StringBuilder sql = new StringBuilder("""
+                SELECT d.id
+                FROM document d, websearch_to_tsquery('simple', :query) q
+                WHERE d.search_vector @@ q
+                """);
+        if (uploaderId != null) {
+            sql.append(" AND d.uploader_profile_id = :uploaderId");
+        }
+        if (type != null) {
+            sql.append(" AND d.document_type = :type");
+        }
+        // Normalisation 1 divides by the log of the document length, so long CVs that mention
+        // a word in passing do not outrank short ones about it. Names weigh more than content.
+        sql.append(" ORDER BY ts_rank_cd(d.search_vector, q, 1) DESC, d.id DESC");
+        sql.append(" LIMIT :limit OFFSET :offset");
+
+        Query search = entityManager.createNativeQuery(sql.toString(), Long.class);
+        search.setParameter("query", query);
+        if (uploaderId != null) {
+            search.setParameter("uploaderId", uploaderId);
+        }
+        if (type != null) {
+            search.setParameter("type", type.name());
+        }
+        search.setParameter("limit", limit);
+        search.setParameter("offset", offset);
+
+        @SuppressWarnings("unchecked")
+        List<Long> ids = search.getResultList();
+        return ids;
+    }
+}
@@ -0,0 +1,52 @@
+package com.proceduralnexus.apiservice.data.repositories;
+
+import com.proceduralnexus.apiservice.data.entities.DocumentUploadSession;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface DocumentUploadSessionRepository extends JpaRepository<DocumentUploadSession, UUID> {
+
+    /**
+     * Records chunk {@code index} as received. The bit is set in place, so chunks landing
+     * at the same time, on any instance, cannot overwrite each other's bits.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE document_upload_session
+            SET received_chunks = set_bit(received_chunks, :index, 1), last_touched_at = :now
+            WHERE id = :id
+            """, nativeQuery = true)
+    int markReceived(@Param("id") UUID id, @Param("index") int index, @Param("now") Instant now);
+
+    @Query("select s.committing from DocumentUploadSession s where s.id = :id")
+    Optional<Boolean> findCommitting(@Param("id") UUID id);
+
+    @Modifying
+    @Query("update DocumentUploadSession s set s.lastTouchedAt = :now where s.id = :id")
+    int touch(@Param("id") UUID id, @Param("now") Instant now);
+
+    /**
+     * Claims the session for a commit; 0 means another request, possibly on another
+     * instance, is already committing it.
+     */
+    @Modifying
+    @Query("update DocumentUploadSession s set s.committing = true where s.id = :id and s.committing = false")
+    int beginCommit(@Param("id") UUID id);
+
+    @Modifying
+    @Query("update DocumentUploadSession s set s.committing = false where s.id = :id")
+    int abortCommit(@Param("id") UUID id);
+
+    @Query("select s.id from DocumentUploadSession s where s.lastTouchedAt < :before order by s.lastTouchedAt asc")
+    List<UUID> findIdsTouchedBefore(@Param("before") Instant before, Pageable pageable);
+}
@@ -0,0 +1,70 @@
+package com.proceduralnexus.apiservice.data.repositories;
+
+import com.proceduralnexus.apiservice.data.entities.EmailNotification;
+import com.proceduralnexus.apiservice.data.entities.EmailStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EmailNotificationRepository extends JpaRepository<EmailNotification, Long> {
+
+    /**
+     * Pending emails due by {@code now}, oldest first, locked for the caller's transaction.
+     * Rows locked by another dispatcher are skipped (a lock timeout of -2 is SKIP LOCKED), so
+     * several instances can drain the outbox without sending anything twice.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+            select n from EmailNotification n
+            where n.status = :status and n.nextAttemptAt <= :now
+            order by n.nextAttemptAt asc
+            """)
+    List<EmailNotification> findDueForUpdate(
+            @Param("status") EmailStatus status,
+            @Param("now") Instant now,
+            Pageable pageable
+    );
+
+    @Modifying
+    @Query("""
+            update EmailNotification n
+            set n.status = :status, n.sentAt = :sentAt, n.lastError = null, n.updatedAt = :sentAt
+            where n.id in :ids
+            """)
+    int markSent(
+            @Param("ids") Collection<Long> ids,
+            @Param("status") EmailStatus status,
+            @Param("sentAt") Instant sentAt
+    );
+
+    @Modifying
+    @Query("""
+            update EmailNotification n
+            set n.status = :status, n.nextAttemptAt = :nextAttemptAt, n.lastError = :error, n.updatedAt = :now
+            where n.id = :id
+            """)
+    int markFailedAttempt(
+            @Param("id") Long id,
+            @Param("status") EmailStatus status,
+            @Param("nextAttemptAt") Instant nextAttemptAt,
+            @Param("error") String error,
+            @Param("now") Instant now
+    );
+
+    @Modifying
+    @Query("delete from EmailNotification n where n.status = :status and n.sentAt < :before")
+    int deleteSentBefore(@Param("status") EmailStatus status, @Param("before") Instant before);
+}
@@ -2,7 +2,21 @@ package com.proceduralnexus.apiservice.data.repositories;
 
 import com.proceduralnexus.apiservice.data.entities.Organization;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
 
 public interface OrganizationRepository extends JpaRepository<Organization, Long> {
     boolean existsByName(String name);
+
+    /**
+     * Every organization with its owner and member count, without loading the members.
+     */
+    @Query("""
+            select new com.proceduralnexus.apiservice.data.repositories.OrganizationSummary(
+                o, (select count(p) from Profile p where p.organization = o))
+            from Organization o join fetch o.owner
+            order by o.id
+            """)
+    List<OrganizationSummary> findAllSummaries();
 }
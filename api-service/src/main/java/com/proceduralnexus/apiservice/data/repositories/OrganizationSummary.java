@@ -0,0 +1,9 @@
+package com.proceduralnexus.apiservice.data.repositories;
+
+import com.proceduralnexus.apiservice.data.entities.Organization;
+
+/**
+ * An organization with its owner loaded and its members counted rather than fetched.
+ */
+public record OrganizationSummary(Organization organization, long membersCount) {
+}
@@ -0,0 +1,41 @@
+package com.proceduralnexus.apiservice.data.repositories;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Profile as exported, read straight from the query. Never carries the password hash.
+ */
+public record ProfileExportRow(
+        UUID id,
+        String firstname,
+        String lastname,
+        String email,
+        boolean emailVerified,
+        Long organizationId,
+        List<String> roles,
+        Instant createdAt,
+        Instant updatedAt
+) {
+
+    /**
+     * Used by the export query, which aggregates role names into one comma-separated value.
+     */
+    public ProfileExportRow(
+            UUID id,
+            String firstname,
+            String lastname,
+            String email,
+            boolean emailVerified,
+            Long organizationId,
+            String roles,
+            Instant createdAt,
+            Instant updatedAt
+    ) {
+        this(id, firstname, lastname, email, emailVerified, organizationId,
+                roles == null || roles.isEmpty() ? List.of() : Arrays.asList(roles.split(",")),
+                createdAt, updatedAt);
+    }
+}
@@ -1,16 +1,43 @@
 package com.proceduralnexus.apiservice.data.repositories;
 
 import com.proceduralnexus.apiservice.data.entities.Profile;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProfileRepository extends JpaRepository<Profile, UUID> {
     Optional<Profile> findByEmail(String email);
     Boolean existsByEmail(String email);
     List<Profile> findAllByOrganization_Id(Long organizationId);
+
+    @Query("select p.tokenVersion from Profile p where p.id = :id")
+    Optional<Integer> findTokenVersionById(@Param("id") UUID id);
+
+    /**
+     * Every profile in id order for NDJSON export, roles aggregated in the same row. Must be
+     * consumed and closed inside a read-only transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select new com.proceduralnexus.apiservice.data.repositories.ProfileExportRow(
+                p.id, p.firstname, p.lastname, p.email, p.emailVerified, p.organization.id,
+                listagg(cast(r.name as String), ','), p.createdAt, p.updatedAt)
+            from Profile p left join p.roles r
+            group by p.id
+            order by p.id
+            """)
+    Stream<ProfileExportRow> streamForExport();
 }
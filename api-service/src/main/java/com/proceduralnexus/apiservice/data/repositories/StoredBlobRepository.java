@@ -0,0 +1,101 @@
+package com.proceduralnexus.apiservice.data.repositories;
+
+import com.proceduralnexus.apiservice.data.entities.BlobCodec;
+import com.proceduralnexus.apiservice.data.entities.BlobIntegrity;
+import com.proceduralnexus.apiservice.data.entities.StoredBlob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StoredBlobRepository extends JpaRepository<StoredBlob, String> {
+
+    /**
+     * Takes the database lock guarding {@code key} (derived from a digest), held until the
+     * transaction ends. Every instance sharing the database waits on the same lock.
+     */
+    @Query(value = "SELECT CAST(pg_advisory_xact_lock(:key) AS VARCHAR)", nativeQuery = true)
+    String lock(@Param("key") long key);
+
+    @Modifying
+    @Query("""
+            update StoredBlob b
+            set b.refCount = b.refCount + :count, b.storedSizeInBytes = :storedSize, b.storageCodec = :codec
+            where b.digest = :digest
+            """)
+    int addReferences(
+            @Param("digest") String digest,
+            @Param("storedSize") long storedSize,
+            @Param("codec") BlobCodec codec,
+            @Param("count") int count
+    );
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO stored_blob (digest, size_in_bytes, stored_size_in_bytes, storage_codec, ref_count, created_at)
+            VALUES (:digest, :size, :storedSize, :codec, :count, now())
+            """, nativeQuery = true)
+    void insert(
+            @Param("digest") String digest,
+            @Param("size") long size,
+            @Param("storedSize") long storedSize,
+            @Param("codec") String codec,
+            @Param("count") int count
+    );
+
+    @Query("select b.storageCodec from StoredBlob b where b.digest = :digest")
+    Optional<BlobCodec> findStorageCodec(@Param("digest") String digest);
+
+    @Modifying
+    @Query("update StoredBlob b set b.refCount = b.refCount - 1 where b.digest = :digest")
+    int release(@Param("digest") String digest);
+
+    /**
+     * Blobs whose reference count disagrees with the documents that actually point at them,
+     * e.g. after rows were removed by a database cascade.
+     */
+    @Query(value = """
+            SELECT b.digest
+            FROM stored_blob b
+            WHERE b.ref_count <> (SELECT COUNT(*) FROM document d WHERE d.content_hash = b.digest)
+            ORDER BY b.digest
+            """, nativeQuery = true)
+    List<String> findDigestsWithStaleRefCount();
+
+    @Modifying
+    @Query("update StoredBlob b set b.refCount = :refCount where b.digest = :digest")
+    int setRefCount(@Param("digest") String digest, @Param("refCount") int refCount);
+
+    /**
+     * Blobs not verified since {@code before}, least recently verified first and in digest
+     * order within that, which follows the layout of the sharded local store.
+     */
+    @Query("""
+            select b from StoredBlob b
+            where b.verifiedAt is null or b.verifiedAt < :before
+            order by b.verifiedAt asc nulls first, b.digest asc
+            """)
+    List<StoredBlob> findDueForVerification(@Param("before") Instant before, Pageable pageable);
+
+    @Modifying
+    @Query("update StoredBlob b set b.verifiedAt = :verifiedAt, b.integrityStatus = :status where b.digest = :digest")
+    int recordVerification(
+            @Param("digest") String digest,
+            @Param("verifiedAt") Instant verifiedAt,
+            @Param("status") BlobIntegrity status
+    );
+
+    List<StoredBlob> findByIntegrityStatusInOrderByVerifiedAtDesc(Collection<BlobIntegrity> statuses);
+
+    @Modifying
+    @Query("delete from StoredBlob b where b.digest = :digest and b.refCount <= 0")
+    int deleteIfUnreferenced(@Param("digest") String digest);
+}
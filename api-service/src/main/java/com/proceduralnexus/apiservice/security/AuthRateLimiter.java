@@ -0,0 +1,100 @@
+package com.proceduralnexus.apiservice.security;
+
+import com.proceduralnexus.apiservice.controller.support.RetryAfterException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Throttles the unauthenticated endpoints that cost BCrypt work or an email: each call takes
+ * a token from a bucket for the client address and one for the email it names, and is refused
+ * with 429 and Retry-After when either is empty. The per-address bucket stops one client
+ * trying many accounts, the per-email one stops many clients hammering one account.
+ */
+@Component
+public class AuthRateLimiter {
+
+    public enum Action {
+        LOGIN("login"),
+        REGISTER("register"),
+        RESEND_VERIFICATION("resend-verification");
+
+        private final String key;
+
+        Action(String key) {
+            this.key = key;
+        }
+    }
+
+    private final RateLimitStore store;
+    private final boolean enabled;
+    private final Map<Action, Limit> limits = new EnumMap<>(Action.class);
+    private final MeterRegistry meterRegistry;
+
+    public AuthRateLimiter(
+            RateLimitStore store,
+            MeterRegistry meterRegistry,
+            @Value("${app.security.rate-limit.enabled:true}") boolean enabled,
+            @Value("${app.security.rate-limit.login.period:1m}") Duration loginPeriod,
+            @Value("${app.security.rate-limit.login.per-address:20}") int loginPerAddress,
+            @Value("${app.security.rate-limit.login.per-email:5}") int loginPerEmail,
+            @Value("${app.security.rate-limit.register.period:1h}") Duration registerPeriod,
+            @Value("${app.security.rate-limit.register.per-address:10}") int registerPerAddress,
+            @Value("${app.security.rate-limit.register.per-email:3}") int registerPerEmail,
+            @Value("${app.security.rate-limit.resend-verification.period:1h}") Duration resendPeriod,
+            @Value("${app.security.rate-limit.resend-verification.per-address:10}") int resendPerAddress,
+            @Value("${app.security.rate-limit.resend-verification.per-email:3}") int resendPerEmail
+    ) {
+        this.store = store;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        limits.put(Action.LOGIN, new Limit(loginPeriod, loginPerAddress, loginPerEmail));
+        limits.put(Action.REGISTER, new Limit(registerPeriod, registerPerAddress, registerPerEmail));
+        limits.put(Action.RESEND_VERIFICATION, new Limit(resendPeriod, resendPerAddress, resendPerEmail));
+    }
+
+    /**
+     * Takes a token for {@code clientAddress} and one for {@code email} (if given), or throws
+     * {@link RetryAfterException}.
+     */
+    public void check(Action action, String clientAddress, String email) {
+        if (!enabled) {
+            return;
+        }
+        Limit limit = limits.get(action);
+
+        if (StringUtils.hasText(clientAddress)) {
+            take(action, "address", clientAddress, limit.perAddress(), limit.period());
+        }
+        if (StringUtils.hasText(email)) {
+            take(action, "email", email.trim().toLowerCase(Locale.ROOT), limit.perEmail(), limit.period());
+        }
+    }
+
+    private void take(Action action, String keyType, String value, int capacity, Duration period) {
+        Duration wait = store.tryConsume(action.key + ":" + keyType + ":" + value, capacity, period);
+        if (!wait.isZero()) {
+            rejectedCounter(action, keyType).increment();
+            throw new RetryAfterException(HttpStatus.TOO_MANY_REQUESTS, "Too many attempts, please try again later", wait);
+        }
+    }
+
+    private Counter rejectedCounter(Action action, String keyType) {
+        return Counter.builder("auth.rate-limit.rejected")
+                .description("Auth requests refused by the rate limiter")
+                .tag("action", action.key)
+                .tag("key", keyType)
+                .register(meterRegistry);
+    }
+
+    private record Limit(Duration period, int perAddress, int perEmail) {
+    }
+}
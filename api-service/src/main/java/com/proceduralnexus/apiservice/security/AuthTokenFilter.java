@@ -1,5 +1,6 @@
 package com.proceduralnexus.apiservice.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -23,6 +24,9 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
+    @Autowired
+    private TokenVersionService tokenVersionService;
+
     private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
 
     @Override
@@ -30,10 +34,9 @@ public class AuthTokenFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
-
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            Claims claims = jwt != null ? jwtUtils.parseClaims(jwt) : null;
+            UserDetails userDetails = claims != null ? resolvePrincipal(claims) : null;
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(
                                 userDetails,
@@ -50,6 +53,25 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * The principal comes from the token itself; only its version is checked, against a cache.
+     * A revoked token leaves the request unauthenticated, so the client has to log in again.
+     */
+    private UserDetails resolvePrincipal(Claims claims) {
+        UserDetailsImpl principal = jwtUtils.getPrincipal(claims);
+        if (principal == null) {
+            // Issued before tokens carried claims; remove once those have expired.
+            return userDetailsService.loadUserByUsername(claims.getSubject());
+        }
+
+        if (!tokenVersionService.isCurrent(principal.getId(), principal.getTokenVersion())) {
+            logger.debug("JWT token of {} has been revoked", principal.getId());
+            return null;
+        }
+
+        return principal;
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
 
@@ -0,0 +1,186 @@
+package com.proceduralnexus.apiservice.security;
+
+import com.proceduralnexus.apiservice.controller.support.RetryAfterException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt on a pool of its own, so a burst of logins cannot take every request thread and core.
+ * <p>
+ * At most {@code threads} hashes run at once and {@code queue-capacity} wait; beyond that,
+ * callers are refused with 503 and Retry-After instead of queueing up. Unless a strength is
+ * configured, the work factor is calibrated at startup to the largest one that hashes within
+ * {@code target-latency} on this machine; as each instance calibrates on its own, deployments
+ * of more than one should configure the strength. Stored hashes of a lower strength are
+ * rewritten on the next successful login (see {@link #upgradeEncoding}).
+ */
+@Component
+public class BoundedPasswordEncoder implements PasswordEncoder {
+    private static final Logger logger = LoggerFactory.getLogger(BoundedPasswordEncoder.class);
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d\\d)\\$");
+    private static final int MIN_STRENGTH = 4;
+    private static final int MAX_STRENGTH = 31;
+
+    private final int strength;
+    private final BCryptPasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Duration retryAfter;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejected;
+
+    public BoundedPasswordEncoder(
+            @Value("${app.security.password.strength:0}") int strength,
+            @Value("${app.security.password.target-latency:250ms}") Duration targetLatency,
+            @Value("${app.security.password.min-strength:10}") int minStrength,
+            @Value("${app.security.password.max-strength:14}") int maxStrength,
+            @Value("${app.security.password.threads:0}") int threads,
+            @Value("${app.security.password.queue-capacity:64}") int queueCapacity,
+            @Value("${app.security.password.retry-after:2s}") Duration retryAfter,
+            MeterRegistry meterRegistry
+    ) {
+        this.strength = strength > 0 ? strength : calibrate(targetLatency, minStrength, maxStrength);
+        this.delegate = new BCryptPasswordEncoder(this.strength);
+        this.retryAfter = retryAfter;
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("password-hash-")
+        );
+
+        this.encodeTimer = Timer.builder("auth.password.hash")
+                .description("Time spent hashing a password")
+                .tag("operation", "encode")
+                .register(meterRegistry);
+        this.matchesTimer = Timer.builder("auth.password.hash")
+                .description("Time spent hashing a password")
+                .tag("operation", "matches")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("auth.password.hash.rejected")
+                .description("Hashes refused because the queue was full")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.hash.queue", executor, pool -> pool.getQueue().size())
+                .description("Hashes waiting for a thread")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Hashes in progress")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.hash.strength", () -> this.strength)
+                .description("BCrypt work factor of new hashes")
+                .register(meterRegistry);
+
+        if (strength > 0) {
+            logger.info("Hashing passwords with BCrypt strength {} on {} threads", this.strength, poolSize);
+        } else {
+            logger.info("Hashing passwords with calibrated BCrypt strength {} on {} threads; with several "
+                    + "instances, set app.security.password.strength={} on all of them", this.strength, poolSize, this.strength);
+        }
+    }
+
+    @PreDestroy
+    void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(encodeTimer, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * True for BCrypt hashes of a lower cost than the current strength. Never downgrades:
+     * nodes that calibrated different strengths would otherwise rewrite the same hash back
+     * and forth on every login.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) < strength;
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    private <T> T run(Timer timer, Callable<T> hash) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> timer.recordCallable(hash));
+        } catch (RejectedExecutionException ex) {
+            rejected.increment();
+            throw new RetryAfterException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Too many sign-ins in progress, please retry shortly", retryAfter);
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing a password", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    // Each step doubles the work, so one timing at the lowest strength predicts the others.
+    private static int calibrate(Duration targetLatency, int minStrength, int maxStrength) {
+        int min = Math.max(MIN_STRENGTH, minStrength);
+        int max = Math.min(MAX_STRENGTH, Math.max(min, maxStrength));
+
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(min);
+        String sample = UUID.randomUUID().toString();
+        probe.encode(sample);
+
+        long start = System.nanoTime();
+        probe.encode(sample);
+        long nanos = Math.max(1, System.nanoTime() - start);
+
+        int strength = min;
+        while (strength < max && nanos * 2 <= targetLatency.toNanos()) {
+            strength++;
+            nanos *= 2;
+        }
+        return strength;
+    }
+}
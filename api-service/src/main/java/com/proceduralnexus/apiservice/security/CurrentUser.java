@@ -0,0 +1,108 @@
+package com.proceduralnexus.apiservice.security;
+
+import com.proceduralnexus.apiservice.data.entities.Profile;
+import com.proceduralnexus.apiservice.data.entities.RoleName;
+import com.proceduralnexus.apiservice.data.repositories.ProfileRepository;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * The caller of the current request, for services that would otherwise look the profile up
+ * by email again.
+ * <p>
+ * Id, email, organization and roles come from the authenticated principal, i.e. the access
+ * token, and cost no query. The profile entity is loaded only if asked for, and at most once
+ * per request. Injected into singletons as a proxy, so it must only be used while handling a
+ * request.
+ */
+@Component
+@RequestScope
+public class CurrentUser {
+
+    private final ProfileRepository profileRepository;
+
+    private UserDetailsImpl principal;
+    private Set<String> roles;
+    private Profile profile;
+
+    public CurrentUser(ProfileRepository profileRepository) {
+        this.profileRepository = profileRepository;
+    }
+
+    public UUID getId() {
+        return principal().getId();
+    }
+
+    public String getEmail() {
+        return principal().getEmail();
+    }
+
+    /**
+     * The caller's organization id, or null if they do not belong to one.
+     */
+    public Long getOrganizationId() {
+        return principal().getOrganizationId();
+    }
+
+    public Set<String> getRoles() {
+        if (roles == null) {
+            roles = principal().getAuthorities().stream()
+                    .map(GrantedAuthority::getAuthority)
+                    .collect(Collectors.toUnmodifiableSet());
+        }
+        return roles;
+    }
+
+    public boolean hasRole(RoleName role) {
+        return getRoles().contains(role.name());
+    }
+
+    /**
+     * The caller's organization id, or 400 with {@code message} if they do not belong to one.
+     */
+    public Long requireOrganizationId(String message) {
+        Long organizationId = getOrganizationId();
+        if (organizationId == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, message);
+        }
+        return organizationId;
+    }
+
+    /**
+     * The caller's profile, loaded on first use.
+     */
+    public Profile getProfile() {
+        if (profile == null) {
+            profile = profileRepository.findById(getId())
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Profile not found"));
+        }
+        return profile;
+    }
+
+    /**
+     * A reference to the caller's profile for setting associations, without loading it.
+     */
+    public Profile getProfileReference() {
+        return profile != null ? profile : profileRepository.getReferenceById(getId());
+    }
+
+    private UserDetailsImpl principal() {
+        if (principal == null) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication == null || !(authentication.getPrincipal() instanceof UserDetailsImpl user)) {
+                throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthenticated");
+            }
+            principal = user;
+        }
+        return principal;
+    }
+}
@@ -7,50 +7,127 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 
+import java.security.GeneralSecurityException;
 import java.security.Key;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
 import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
+/**
+ * Issues and verifies access tokens. The keys and the parser are built once at startup; the
+ * parser is immutable and shared by all requests.
+ * <p>
+ * Tokens are signed with HS256 and the shared secret by default. With
+ * {@code proceduralnexus.app.jwtAlgorithm=ES256} they are signed with an EC P-256 private
+ * key instead, and services that only need to verify them can do so with the public key
+ * (see {@code GET /auth/public-key}) without holding anything that can sign.
+ */
 @Component
 public class JwtUtils {
     private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
 
-    @Value("${proceduralnexus.app.jwtSecret:SecretKeyMustBeAtLeast256BitsLongSoThisIsJustAPlaceholderForDevelopmentPurposes}")
-    private String jwtSecret;
+    private static final String PROFILE_ID_CLAIM = "pid";
+    private static final String ROLES_CLAIM = "roles";
+    private static final String ORGANIZATION_ID_CLAIM = "org";
+    private static final String TOKEN_VERSION_CLAIM = "ver";
 
-    @Value("${proceduralnexus.app.jwtExpirationMs:86400000}")
-    private int jwtExpirationMs;
+    private final int jwtExpirationMs;
+    private final SignatureAlgorithm algorithm;
+    private final Key signingKey;
+    private final PublicKey publicKey;
+    private final JwtParser parser;
+
+    public JwtUtils(
+            @Value("${proceduralnexus.app.jwtSecret:SecretKeyMustBeAtLeast256BitsLongSoThisIsJustAPlaceholderForDevelopmentPurposes}") String jwtSecret,
+            @Value("${proceduralnexus.app.jwtExpirationMs:900000}") int jwtExpirationMs,
+            @Value("${proceduralnexus.app.jwtAlgorithm:HS256}") SignatureAlgorithm algorithm,
+            @Value("${proceduralnexus.app.jwtPrivateKey:}") String jwtPrivateKey,
+            @Value("${proceduralnexus.app.jwtPublicKey:}") String jwtPublicKey
+    ) {
+        this.jwtExpirationMs = jwtExpirationMs;
+        this.algorithm = algorithm;
+
+        switch (algorithm) {
+            case HS256 -> {
+                this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+                this.publicKey = null;
+            }
+            case ES256 -> {
+                if (jwtPrivateKey.isBlank() || jwtPublicKey.isBlank()) {
+                    throw new IllegalStateException(
+                            "ES256 needs proceduralnexus.app.jwtPrivateKey and proceduralnexus.app.jwtPublicKey");
+                }
+                try {
+                    KeyFactory keyFactory = KeyFactory.getInstance("EC");
+                    this.signingKey = keyFactory.generatePrivate(new PKCS8EncodedKeySpec(decodePem(jwtPrivateKey)));
+                    this.publicKey = keyFactory.generatePublic(new X509EncodedKeySpec(decodePem(jwtPublicKey)));
+                } catch (GeneralSecurityException | IllegalArgumentException e) {
+                    throw new IllegalStateException("Invalid ES256 key pair: " + e.getMessage(), e);
+                }
+            }
+            default -> throw new IllegalStateException("Unsupported JWT algorithm: " + algorithm);
+        }
+
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(publicKey != null ? publicKey : signingKey)
+                .build();
+
+        if (publicKey != null) {
+            // Each key parses on its own even when they come from different pairs; only a round trip tells.
+            String probe = Jwts.builder().setSubject("key-pair-check").signWith(signingKey, algorithm).compact();
+            try {
+                parser.parseClaimsJws(probe);
+            } catch (JwtException e) {
+                throw new IllegalStateException(
+                        "Invalid ES256 key pair: the public key does not verify tokens signed with the private key", e);
+            }
+        }
+    }
 
     public String generateJwtToken(Authentication authentication) {
 
         UserDetailsImpl userPrincipal = (UserDetailsImpl) authentication.getPrincipal();
 
-        return generateTokenFromUsername(userPrincipal.getUsername());
+        return generateJwtToken(userPrincipal);
     }
 
-    public String generateTokenFromUsername(String username) {
+    /**
+     * Signs a token carrying everything {@link #getPrincipal} needs, so requests can be
+     * authenticated without loading the profile.
+     */
+    public String generateJwtToken(UserDetailsImpl userPrincipal) {
+        List<String> roles = userPrincipal.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+
         return Jwts.builder()
-                .setSubject(username)
+                .setSubject(userPrincipal.getUsername())
+                .claim(PROFILE_ID_CLAIM, userPrincipal.getId().toString())
+                .claim(ROLES_CLAIM, roles)
+                .claim(ORGANIZATION_ID_CLAIM, userPrincipal.getOrganizationId())
+                .claim(TOKEN_VERSION_CLAIM, userPrincipal.getTokenVersion())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(key(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, algorithm)
                 .compact();
     }
-    
-    private Key key() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
-    }
 
-    public String getUserNameFromJwtToken(String token) {
-        return Jwts.parserBuilder().setSigningKey(key()).build()
-               .parseClaimsJws(token).getBody().getSubject();
-    }
-
-    public boolean validateJwtToken(String authToken) {
+    /**
+     * Verifies {@code authToken} and returns its claims in one pass, or null if it is not a
+     * valid token.
+     */
+    public Claims parseClaims(String authToken) {
         try {
-            Jwts.parserBuilder().setSigningKey(key()).build().parse(authToken);
-            return true;
+            return parser.parseClaimsJws(authToken).getBody();
         } catch (MalformedJwtException e) {
             logger.error("Invalid JWT token: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
@@ -59,8 +136,53 @@ public class JwtUtils {
             logger.error("JWT token is unsupported: {}", e.getMessage());
         } catch (IllegalArgumentException e) {
             logger.error("JWT claims string is empty: {}", e.getMessage());
+        } catch (JwtException e) {
+            logger.error("JWT token is not valid: {}", e.getMessage());
         }
 
-        return false;
+        return null;
+    }
+
+    /**
+     * The principal recorded in verified {@code claims}, or null for tokens issued before
+     * they carried one.
+     */
+    public UserDetailsImpl getPrincipal(Claims claims) {
+        String profileId = claims.get(PROFILE_ID_CLAIM, String.class);
+        if (profileId == null) {
+            return null;
+        }
+
+        List<?> roles = claims.get(ROLES_CLAIM, List.class);
+        Number organizationId = claims.get(ORGANIZATION_ID_CLAIM, Number.class);
+        Number tokenVersion = claims.get(TOKEN_VERSION_CLAIM, Number.class);
+
+        return UserDetailsImpl.fromClaims(
+                UUID.fromString(profileId),
+                claims.getSubject(),
+                roles == null ? List.of() : roles.stream().map(String::valueOf).toList(),
+                organizationId != null ? organizationId.longValue() : null,
+                tokenVersion != null ? tokenVersion.intValue() : 0);
+    }
+
+    /**
+     * The PEM-encoded key that verifies tokens, if they are signed asymmetrically.
+     */
+    public Optional<String> getPublicKeyPem() {
+        if (publicKey == null) {
+            return Optional.empty();
+        }
+        String body = Base64.getMimeEncoder(64, new byte[]{'\n'}).encodeToString(publicKey.getEncoded());
+        return Optional.of("-----BEGIN PUBLIC KEY-----\n" + body + "\n-----END PUBLIC KEY-----\n");
+    }
+
+    public String getAlgorithm() {
+        return algorithm.getValue();
+    }
+
+    // Accepts PEM or bare base64 of the DER encoding.
+    private static byte[] decodePem(String key) {
+        String base64 = key.replaceAll("-----(BEGIN|END) [A-Z ]+-----", "").replaceAll("\\s", "");
+        return Base64.getDecoder().decode(base64);
     }
 }
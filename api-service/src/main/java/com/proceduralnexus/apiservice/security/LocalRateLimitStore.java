@@ -0,0 +1,63 @@
+package com.proceduralnexus.apiservice.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token buckets in this process, for single-node deployments. Buckets are guarded by a fixed
+ * set of lock stripes chosen by key hash, so unrelated keys rarely contend, and live in a
+ * bounded cache so a flood of distinct keys cannot exhaust memory; an evicted bucket simply
+ * starts full again.
+ */
+public class LocalRateLimitStore implements RateLimitStore {
+
+    private final Cache<String, Bucket> buckets;
+    private final ReentrantLock[] stripes;
+
+    public LocalRateLimitStore(long maxKeys, int stripes, Duration idleExpiry) {
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(idleExpiry)
+                .build();
+        this.stripes = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public Duration tryConsume(String key, int capacity, Duration period) {
+        double refillPerNano = (double) capacity / period.toNanos();
+        long now = System.nanoTime();
+
+        ReentrantLock lock = stripes[Math.floorMod(key.hashCode(), stripes.length)];
+        lock.lock();
+        try {
+            Bucket bucket = buckets.get(key, k -> new Bucket(capacity, now));
+            bucket.tokens = Math.min(capacity, bucket.tokens + (now - bucket.updatedAt) * refillPerNano);
+            bucket.updatedAt = now;
+
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return Duration.ZERO;
+            }
+            return Duration.ofNanos((long) Math.ceil((1 - bucket.tokens) / refillPerNano));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Mutated only under the stripe lock of its key.
+    private static final class Bucket {
+        double tokens;
+        long updatedAt;
+
+        Bucket(double tokens, long updatedAt) {
+            this.tokens = tokens;
+            this.updatedAt = updatedAt;
+        }
+    }
+}
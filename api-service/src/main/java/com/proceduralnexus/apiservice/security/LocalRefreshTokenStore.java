@@ -0,0 +1,130 @@
+package com.proceduralnexus.apiservice.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Refresh tokens in this process, for single-node deployments and tests. Sessions do not
+ * survive a restart. Entries expire individually and the caches are bounded, so a flood of
+ * sign-ins cannot exhaust memory; an evicted token or family just ends that session early.
+ */
+public class LocalRefreshTokenStore implements RefreshTokenStore {
+
+    private final Cache<String, Token> tokens;
+    private final Cache<String, Family> families;
+    private final Cache<String, SignInCode> signInCodes;
+
+    public LocalRefreshTokenStore(long maxSessions) {
+        this.tokens = Caffeine.newBuilder()
+                .maximumSize(maxSessions * 2)
+                .expireAfter(new ExpireAt<Token>())
+                .build();
+        this.families = Caffeine.newBuilder()
+                .maximumSize(maxSessions)
+                .expireAfter(new ExpireAt<Family>())
+                .build();
+        this.signInCodes = Caffeine.newBuilder()
+                .maximumSize(maxSessions)
+                .expireAfter(new ExpireAt<SignInCode>())
+                .build();
+    }
+
+    @Override
+    public synchronized void create(String tokenHash, String familyId, UUID profileId,
+                                    Duration tokenTtl, Duration sessionTtl) {
+        long now = System.nanoTime();
+        long sessionEnd = now + sessionTtl.toNanos();
+        families.put(familyId, new Family(profileId, sessionEnd));
+        tokens.put(tokenHash, new Token(familyId, Math.min(sessionEnd, now + tokenTtl.toNanos())));
+    }
+
+    @Override
+    public synchronized UUID rotate(String tokenHash, String nextTokenHash, Duration tokenTtl) {
+        Token token = tokens.getIfPresent(tokenHash);
+        if (token == null) {
+            return null;
+        }
+        if (token.used) {
+            families.invalidate(token.familyId);
+            return null;
+        }
+        Family family = families.getIfPresent(token.familyId);
+        if (family == null) {
+            return null;
+        }
+
+        token.used = true;
+        tokens.put(nextTokenHash, new Token(token.familyId,
+                Math.min(family.expiresAt, System.nanoTime() + tokenTtl.toNanos())));
+        return family.profileId;
+    }
+
+    @Override
+    public synchronized void revoke(String tokenHash) {
+        Token token = tokens.getIfPresent(tokenHash);
+        if (token != null) {
+            families.invalidate(token.familyId);
+        }
+    }
+
+    @Override
+    public void createSignInCode(String codeHash, UUID profileId, Duration ttl) {
+        signInCodes.put(codeHash, new SignInCode(profileId, System.nanoTime() + ttl.toNanos()));
+    }
+
+    @Override
+    public UUID redeemSignInCode(String codeHash) {
+        // Removing is what makes a code single-use; an expired one may not have been evicted yet.
+        SignInCode code = signInCodes.asMap().remove(codeHash);
+        return code == null || code.expiresAt() - System.nanoTime() <= 0 ? null : code.profileId();
+    }
+
+    private interface Expiring {
+        long expiresAt();
+    }
+
+    // Mutated only while holding the store's lock.
+    private static final class Token implements Expiring {
+        final String familyId;
+        final long expiresAt;
+        boolean used;
+
+        Token(String familyId, long expiresAt) {
+            this.familyId = familyId;
+            this.expiresAt = expiresAt;
+        }
+
+        @Override
+        public long expiresAt() {
+            return expiresAt;
+        }
+    }
+
+    private record Family(UUID profileId, long expiresAt) implements Expiring {
+    }
+
+    private record SignInCode(UUID profileId, long expiresAt) implements Expiring {
+    }
+
+    // Spent tokens are kept until they expire, so that replaying one is still recognised.
+    private static final class ExpireAt<V extends Expiring> implements Expiry<String, V> {
+        @Override
+        public long expireAfterCreate(String key, V value, long currentTime) {
+            return Math.max(0, value.expiresAt() - currentTime);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, V value, long currentTime, long currentDuration) {
+            return Math.max(0, value.expiresAt() - currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, V value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -13,6 +13,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.security.web.authentication.SimpleUrlAuthenticationSuccessHandler;
 import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.io.IOException;
@@ -25,7 +26,7 @@ import java.util.UUID;
 public class OAuth2LoginSuccessHandler extends SimpleUrlAuthenticationSuccessHandler {
 
     @Autowired
-    private JwtUtils jwtUtils;
+    private RefreshTokenService refreshTokenService;
 
     @Autowired
     private ProfileRepository profileRepository;
@@ -63,11 +64,16 @@ public class OAuth2LoginSuccessHandler extends SimpleUrlAuthenticationSuccessHan
             profileRepository.save(profile);
         }
 
-        String jwt = jwtUtils.generateTokenFromUsername(email);
-
-        String targetUrl = UriComponentsBuilder.fromUriString("http://localhost:80/oauth2/redirect")
-            .queryParam("token", jwt)
-            .build().toUriString();
+        // Only a short-lived, single-use code travels in the URL; the SPA exchanges it for its
+        // tokens with POST /auth/oauth2/exchange.
+        String targetUrl;
+        try {
+            targetUrl = UriComponentsBuilder.fromUriString("http://localhost:80/oauth2/redirect")
+                .queryParam("code", refreshTokenService.issueSignInCode(profile.getId()))
+                .build().toUriString();
+        } catch (ResponseStatusException ex) {
+            targetUrl = "http://localhost:80/login?error=unavailable";
+        }
 
         getRedirectStrategy().sendRedirect(request, response, targetUrl);
     }
@@ -0,0 +1,17 @@
+package com.proceduralnexus.apiservice.security;
+
+import java.time.Duration;
+
+/**
+ * Token buckets keyed by string. A bucket holds up to {@code capacity} tokens and refills
+ * continuously at {@code capacity} per {@code period}; each call takes one token.
+ */
+public interface RateLimitStore {
+
+    /**
+     * Takes a token from the bucket of {@code key}.
+     *
+     * @return zero if a token was taken, otherwise how long until one is available
+     */
+    Duration tryConsume(String key, int capacity, Duration period);
+}
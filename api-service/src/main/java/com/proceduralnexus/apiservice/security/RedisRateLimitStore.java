@@ -0,0 +1,78 @@
+package com.proceduralnexus.apiservice.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Token buckets in Redis, shared by every api-service node. Refill and take happen in one Lua
+ * script, so concurrent requests on different nodes cannot both spend the last token.
+ * <p>
+ * If Redis cannot be reached the limits are enforced per node by {@code fallback} instead,
+ * rather than refusing or admitting every request.
+ */
+public class RedisRateLimitStore implements RateLimitStore {
+    private static final Logger logger = LoggerFactory.getLogger(RedisRateLimitStore.class);
+
+    // KEYS[1] bucket (hash: tokens, ts); ARGV[1] capacity, ARGV[2] tokens added per millisecond.
+    // Returns 0 if a token was taken, otherwise the milliseconds until one is available. Uses
+    // the Redis clock, so every node sees the same time.
+    private static final RedisScript<Long> TAKE_TOKEN = new DefaultRedisScript<>("""
+            local capacity = tonumber(ARGV[1])
+            local rate = tonumber(ARGV[2])
+
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+            local bucket = redis.call('HMGET', KEYS[1], 'tokens', 'ts')
+            local tokens = tonumber(bucket[1])
+            local ts = tonumber(bucket[2])
+            if tokens == nil or ts == nil then
+                tokens = capacity
+                ts = now
+            end
+
+            tokens = math.min(capacity, tokens + math.max(0, now - ts) * rate)
+
+            local wait = 0
+            if tokens >= 1 then
+                tokens = tokens - 1
+            else
+                wait = math.ceil((1 - tokens) / rate)
+            end
+
+            redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', tostring(now))
+            -- Left alone, a bucket is full again after capacity / rate; then it need not exist.
+            redis.call('PEXPIRE', KEYS[1], math.ceil(capacity / rate))
+            return wait
+            """, Long.class);
+
+    private final StringRedisTemplate redis;
+    private final String keyPrefix;
+    private final RateLimitStore fallback;
+
+    public RedisRateLimitStore(StringRedisTemplate redis, String keyPrefix, RateLimitStore fallback) {
+        this.redis = redis;
+        this.keyPrefix = keyPrefix;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public Duration tryConsume(String key, int capacity, Duration period) {
+        double tokensPerMilli = (double) capacity / period.toMillis();
+        try {
+            Long waitMillis = redis.execute(TAKE_TOKEN, List.of(keyPrefix + key),
+                    Integer.toString(capacity), Double.toString(tokensPerMilli));
+            return waitMillis == null ? Duration.ZERO : Duration.ofMillis(waitMillis);
+        } catch (DataAccessException ex) {
+            logger.warn("Rate limit store unavailable, limiting on this node only: {}", ex.getMessage());
+            return fallback.tryConsume(key, capacity, period);
+        }
+    }
+}
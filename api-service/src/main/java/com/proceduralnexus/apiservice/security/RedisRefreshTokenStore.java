@@ -0,0 +1,104 @@
+package com.proceduralnexus.apiservice.security;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Refresh tokens in Redis, shared by every api-service node and kept across restarts. Each
+ * operation is one Lua script over a token key and its family key, so a token spent
+ * concurrently on two nodes is spent only once, and expiry is left to Redis key TTLs.
+ * <p>
+ * Unlike the rate limiter there is no local fallback: a token issued by one node must be
+ * usable on another. Failures surface as {@link org.springframework.dao.DataAccessException}.
+ */
+public class RedisRefreshTokenStore implements RefreshTokenStore {
+
+    // KEYS[1] token (hash: family, profile), KEYS[2] family (string: profile).
+    // ARGV[1] family id, ARGV[2] profile id, ARGV[3] token TTL ms, ARGV[4] session TTL ms.
+    private static final RedisScript<Long> CREATE = new DefaultRedisScript<>("""
+            redis.call('SET', KEYS[2], ARGV[2], 'PX', ARGV[4])
+            redis.call('HSET', KEYS[1], 'family', ARGV[1], 'profile', ARGV[2])
+            redis.call('PEXPIRE', KEYS[1], math.min(tonumber(ARGV[3]), tonumber(ARGV[4])))
+            return 1
+            """, Long.class);
+
+    // KEYS[1] token, KEYS[2] next token; ARGV[1] family key prefix, ARGV[2] token TTL ms.
+    // Returns the profile id, or nil if the token cannot be spent. Replaying a spent token
+    // deletes its family.
+    private static final RedisScript<String> ROTATE = new DefaultRedisScript<>("""
+            local token = redis.call('HMGET', KEYS[1], 'family', 'profile', 'used')
+            if not token[1] then
+                return false
+            end
+            local family = ARGV[1] .. token[1]
+            if token[3] then
+                redis.call('DEL', family)
+                return false
+            end
+            local sessionTtl = redis.call('PTTL', family)
+            if sessionTtl <= 0 then
+                return false
+            end
+            -- The spent token keeps its TTL, so that replaying it is still recognised.
+            redis.call('HSET', KEYS[1], 'used', '1')
+            redis.call('HSET', KEYS[2], 'family', token[1], 'profile', token[2])
+            redis.call('PEXPIRE', KEYS[2], math.min(tonumber(ARGV[2]), sessionTtl))
+            return token[2]
+            """, String.class);
+
+    // KEYS[1] token; ARGV[1] family key prefix.
+    private static final RedisScript<Long> REVOKE = new DefaultRedisScript<>("""
+            local familyId = redis.call('HGET', KEYS[1], 'family')
+            if not familyId then
+                return 0
+            end
+            return redis.call('DEL', ARGV[1] .. familyId)
+            """, Long.class);
+
+    private final StringRedisTemplate redis;
+    private final String tokenPrefix;
+    private final String familyPrefix;
+    private final String codePrefix;
+
+    public RedisRefreshTokenStore(StringRedisTemplate redis, String keyPrefix) {
+        this.redis = redis;
+        this.tokenPrefix = keyPrefix + "token:";
+        this.familyPrefix = keyPrefix + "family:";
+        this.codePrefix = keyPrefix + "code:";
+    }
+
+    @Override
+    public void create(String tokenHash, String familyId, UUID profileId, Duration tokenTtl, Duration sessionTtl) {
+        redis.execute(CREATE, List.of(tokenPrefix + tokenHash, familyPrefix + familyId),
+                familyId, profileId.toString(),
+                Long.toString(tokenTtl.toMillis()), Long.toString(sessionTtl.toMillis()));
+    }
+
+    @Override
+    public UUID rotate(String tokenHash, String nextTokenHash, Duration tokenTtl) {
+        String profileId = redis.execute(ROTATE, List.of(tokenPrefix + tokenHash, tokenPrefix + nextTokenHash),
+                familyPrefix, Long.toString(tokenTtl.toMillis()));
+        return profileId == null ? null : UUID.fromString(profileId);
+    }
+
+    @Override
+    public void revoke(String tokenHash) {
+        redis.execute(REVOKE, List.of(tokenPrefix + tokenHash), familyPrefix);
+    }
+
+    @Override
+    public void createSignInCode(String codeHash, UUID profileId, Duration ttl) {
+        redis.opsForValue().set(codePrefix + codeHash, profileId.toString(), ttl);
+    }
+
+    @Override
+    public UUID redeemSignInCode(String codeHash) {
+        String profileId = redis.opsForValue().getAndDelete(codePrefix + codeHash);
+        return profileId == null ? null : UUID.fromString(profileId);
+    }
+}
@@ -0,0 +1,146 @@
+package com.proceduralnexus.apiservice.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque, rotating refresh tokens that outlive the short access tokens.
+ * <p>
+ * A token is 256 random bits; only its SHA-256 is stored. Every refresh spends the token and
+ * returns a new one, valid for {@code ttl} but never beyond {@code max-session} after sign-in.
+ * Presenting a spent token revokes the whole session, since either the client or a thief
+ * holds a copy. Logging out revokes the session as well.
+ * <p>
+ * Sign-ins that end in a browser redirect (Google) carry a single-use sign-in code instead
+ * of any token, so no credential ends up in history, access logs or Referer headers; the
+ * client trades the code for its tokens over POST within {@code sign-in-code-ttl}.
+ */
+@Component
+public class RefreshTokenService {
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenStore store;
+    private final Duration ttl;
+    private final Duration maxSession;
+    private final Duration signInCodeTtl;
+    private final SecureRandom random = new SecureRandom();
+
+    public RefreshTokenService(
+            RefreshTokenStore store,
+            @Value("${app.security.refresh-tokens.ttl:14d}") Duration ttl,
+            @Value("${app.security.refresh-tokens.max-session:30d}") Duration maxSession,
+            @Value("${app.security.refresh-tokens.sign-in-code-ttl:60s}") Duration signInCodeTtl
+    ) {
+        this.store = store;
+        this.ttl = ttl;
+        this.maxSession = maxSession;
+        this.signInCodeTtl = signInCodeTtl;
+    }
+
+    /**
+     * Starts a session for {@code profileId} and returns its first refresh token, or null if
+     * the store is unavailable; the client then signs in again once its access token expires.
+     */
+    public String issue(UUID profileId) {
+        String token = newToken();
+        try {
+            store.create(hash(token), UUID.randomUUID().toString(), profileId, ttl, maxSession);
+            return token;
+        } catch (DataAccessException ex) {
+            logger.warn("Refresh token store unavailable, signing in without a refresh token: {}", ex.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Spends {@code token} and returns its successor along with the profile it belongs to.
+     * Answers 401 if the token cannot be used, 503 if the store is unavailable.
+     */
+    public Rotation rotate(String token) {
+        String next = newToken();
+        UUID profileId;
+        try {
+            profileId = store.rotate(hash(token), hash(next), ttl);
+        } catch (DataAccessException ex) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Sessions are unavailable, please retry shortly", ex);
+        }
+        if (profileId == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid or expired refresh token");
+        }
+        return new Rotation(profileId, next);
+    }
+
+    /**
+     * Ends the session {@code token} belongs to. Unknown tokens are ignored.
+     */
+    public void revoke(String token) {
+        try {
+            store.revoke(hash(token));
+        } catch (DataAccessException ex) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Sessions are unavailable, please retry shortly", ex);
+        }
+    }
+
+    /**
+     * A single-use code for {@code profileId} that {@link #redeemSignInCode} accepts once.
+     * Answers 503 if the store is unavailable.
+     */
+    public String issueSignInCode(UUID profileId) {
+        String code = newToken();
+        try {
+            store.createSignInCode(hash(code), profileId, signInCodeTtl);
+        } catch (DataAccessException ex) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Sessions are unavailable, please retry shortly", ex);
+        }
+        return code;
+    }
+
+    /**
+     * The profile a sign-in code was issued for; 401 if the code is unknown, expired or used.
+     */
+    public UUID redeemSignInCode(String code) {
+        UUID profileId;
+        try {
+            profileId = store.redeemSignInCode(hash(code));
+        } catch (DataAccessException ex) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Sessions are unavailable, please retry shortly", ex);
+        }
+        if (profileId == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid or expired sign-in code");
+        }
+        return profileId;
+    }
+
+    private String newToken() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    public record Rotation(UUID profileId, String refreshToken) {
+    }
+}
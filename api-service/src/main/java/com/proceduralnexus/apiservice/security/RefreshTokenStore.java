@@ -0,0 +1,43 @@
+package com.proceduralnexus.apiservice.security;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Refresh tokens, kept by their hash. Each sign-in starts a family: a chain of tokens where
+ * every refresh spends the current token and adds its successor. The family lives at most
+ * as long as the session it was created for; deleting it ends every token in the chain.
+ */
+public interface RefreshTokenStore {
+
+    /**
+     * Starts the family {@code familyId} for {@code profileId} with its first token.
+     */
+    void create(String tokenHash, String familyId, UUID profileId, Duration tokenTtl, Duration sessionTtl);
+
+    /**
+     * Spends {@code tokenHash} and adds {@code nextTokenHash} to the same family. A token that
+     * was already spent means the chain was copied, so the whole family is revoked.
+     *
+     * @return the profile the family belongs to, or null if the token is unknown, expired,
+     *         already spent or its family was revoked
+     */
+    UUID rotate(String tokenHash, String nextTokenHash, Duration tokenTtl);
+
+    /**
+     * Revokes the family {@code tokenHash} belongs to, if any.
+     */
+    void revoke(String tokenHash);
+
+    /**
+     * Stores a single-use sign-in code for {@code profileId}, see
+     * {@link RefreshTokenService#issueSignInCode}.
+     */
+    void createSignInCode(String codeHash, UUID profileId, Duration ttl);
+
+    /**
+     * Removes the sign-in code and returns its profile, or null if it is unknown, expired or
+     * already used.
+     */
+    UUID redeemSignInCode(String codeHash);
+}
@@ -0,0 +1,71 @@
+package com.proceduralnexus.apiservice.security;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.proceduralnexus.apiservice.data.entities.Profile;
+import com.proceduralnexus.apiservice.data.repositories.ProfileRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Revocation check for access tokens. Tokens carry the profile's {@code token_version} at the
+ * time they were signed; once the version moves on, every token signed before is refused.
+ * <p>
+ * Current versions are cached per profile, so the check costs a query at most once per
+ * profile per TTL. Changes made through {@link #revokeTokens} are seen by this instance as
+ * soon as they commit; other instances pick them up when their entry expires.
+ */
+@Component
+public class TokenVersionService {
+
+    // Cached for deleted profiles, so no version a token can carry matches.
+    private static final int NO_PROFILE = -1;
+
+    private final LoadingCache<UUID, Integer> versions;
+
+    public TokenVersionService(
+            ProfileRepository profileRepository,
+            @Value("${app.security.token-version-cache.max-size:100000}") long maxSize,
+            @Value("${app.security.token-version-cache.ttl:30s}") Duration ttl
+    ) {
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build(id -> profileRepository.findTokenVersionById(id).orElse(NO_PROFILE));
+    }
+
+    public boolean isCurrent(UUID profileId, int tokenVersion) {
+        return versions.get(profileId) == tokenVersion;
+    }
+
+    /**
+     * Invalidates every token issued to {@code profile} so far. Call after changing anything
+     * tokens carry (roles, organization, email); the new version is written with the rest of
+     * the change.
+     */
+    public void revokeTokens(Profile profile) {
+        profile.setTokenVersion(profile.getTokenVersion() + 1);
+        evict(profile.getId());
+    }
+
+    /**
+     * Evicts {@code profileId} now and, inside a transaction, again once it completes so a
+     * request that reloaded the old version in between does not keep it.
+     */
+    public void evict(UUID profileId) {
+        versions.invalidate(profileId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    versions.invalidate(profileId);
+                }
+            });
+        }
+    }
+}
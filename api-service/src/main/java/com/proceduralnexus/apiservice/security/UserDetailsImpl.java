@@ -24,12 +24,19 @@ public class UserDetailsImpl implements UserDetails {
 
     private Collection<? extends GrantedAuthority> authorities;
 
+    private Long organizationId;
+
+    private int tokenVersion;
+
     public UserDetailsImpl(UUID id, String email, String password,
-                           Collection<? extends GrantedAuthority> authorities) {
+                           Collection<? extends GrantedAuthority> authorities,
+                           Long organizationId, int tokenVersion) {
         this.id = id;
         this.email = email;
         this.password = password;
         this.authorities = authorities;
+        this.organizationId = organizationId;
+        this.tokenVersion = tokenVersion;
     }
 
     public static UserDetailsImpl build(Profile user) {
@@ -41,7 +48,23 @@ public class UserDetailsImpl implements UserDetails {
                 user.getId(),
                 user.getEmail(),
                 user.getPassword(),
-                authorities);
+                authorities,
+                // The id of a lazy organization comes from the proxy, without loading it.
+                user.getOrganization() != null ? user.getOrganization().getId() : null,
+                user.getTokenVersion());
+    }
+
+    /**
+     * Principal of a request authenticated by an access token, built from its claims alone.
+     * There is no password.
+     */
+    public static UserDetailsImpl fromClaims(UUID id, String email, List<String> roles,
+                                             Long organizationId, int tokenVersion) {
+        List<GrantedAuthority> authorities = roles.stream()
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(role))
+                .toList();
+
+        return new UserDetailsImpl(id, email, null, authorities, organizationId, tokenVersion);
     }
 
     @Override
@@ -57,6 +80,14 @@ public class UserDetailsImpl implements UserDetails {
         return email;
     }
 
+    public Long getOrganizationId() {
+        return organizationId;
+    }
+
+    public int getTokenVersion() {
+        return tokenVersion;
+    }
+
     @Override
     public String getPassword() {
         return password;
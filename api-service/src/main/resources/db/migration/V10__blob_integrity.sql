@@ -0,0 +1,6 @@
+-- Outcome of the last integrity check of each blob, so the scrubber can resume where it
+-- stopped and revisit the least recently verified content first.
+ALTER TABLE stored_blob ADD COLUMN verified_at TIMESTAMP WITH TIME ZONE;
+ALTER TABLE stored_blob ADD COLUMN integrity_status VARCHAR(16);
+
+CREATE INDEX idx_stored_blob_verified_at ON stored_blob (verified_at NULLS FIRST, digest);
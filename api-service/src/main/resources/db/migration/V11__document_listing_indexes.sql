@@ -0,0 +1,14 @@
+-- Keyset pagination of GET /documents/page walks (created_at, id) newest first, optionally
+-- narrowed by uploader, type, batch or signed state. Each filter gets an index that leads with
+-- its column and ends in the sort key, so a page is one index range scan.
+CREATE INDEX idx_document_created_at_id ON document (created_at DESC, id DESC);
+
+-- Covers the plain uploader lookups (and the ON DELETE CASCADE from profile) as well.
+CREATE INDEX idx_document_uploader_created_at_id ON document (uploader_profile_id, created_at DESC, id DESC);
+DROP INDEX idx_document_uploader_profile_id;
+
+CREATE INDEX idx_document_batch_created_at_id ON document (batch_id, created_at DESC, id DESC);
+CREATE INDEX idx_document_type_created_at_id ON document (document_type, created_at DESC, id DESC);
+
+-- Unsigned documents are the review queue; signed ones are the bulk of the table.
+CREATE INDEX idx_document_unsigned_created_at_id ON document (created_at DESC, id DESC) WHERE NOT signed;
@@ -0,0 +1,38 @@
+-- Full-text search over document names and the text extracted from their content.
+-- content_text is filled in the background once the upload has been analysed ('' when the
+-- content has no extractable text); search_vector is maintained by the trigger below and is
+-- not mapped by the application.
+ALTER TABLE document ADD COLUMN content_text TEXT;
+ALTER TABLE document ADD COLUMN search_vector TSVECTOR;
+
+-- The 'simple' configuration does no stemming or stop-word removal: CVs come in several
+-- languages and most searches are for names, which must match as written.
+CREATE FUNCTION document_search_vector_update() RETURNS trigger AS $$
+BEGIN
+    -- Identical content is analysed once, so a new row inherits the text of an earlier copy.
+    IF NEW.content_text IS NULL AND NEW.content_hash IS NOT NULL THEN
+        SELECT d.content_text INTO NEW.content_text
+        FROM document d
+        WHERE d.content_hash = NEW.content_hash AND d.content_text IS NOT NULL
+        LIMIT 1;
+    END IF;
+
+    NEW.search_vector :=
+        setweight(to_tsvector('simple', coalesce(NEW.name, '')), 'A') ||
+        setweight(to_tsvector('simple', coalesce(NEW.content_text, '')), 'B');
+    RETURN NEW;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER document_search_vector_trigger
+    BEFORE INSERT OR UPDATE OF name, content_text, content_hash ON document
+    FOR EACH ROW EXECUTE FUNCTION document_search_vector_update();
+
+-- Existing rows are searchable by name right away; their text is added as they are analysed.
+UPDATE document SET search_vector = setweight(to_tsvector('simple', coalesce(name, '')), 'A');
+
+CREATE INDEX idx_document_search_vector ON document USING GIN (search_vector);
+
+-- Finds content still waiting for text extraction.
+CREATE INDEX idx_document_awaiting_text ON document (content_hash)
+    WHERE content_text IS NULL AND content_hash IS NOT NULL;
@@ -0,0 +1,3 @@
+-- Access tokens carry the profile's roles and organization as claims. Every change to those
+-- bumps token_version, and tokens signed with an older version are refused.
+ALTER TABLE profile ADD COLUMN token_version INTEGER NOT NULL DEFAULT 0;
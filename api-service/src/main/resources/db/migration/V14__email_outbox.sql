@@ -0,0 +1,15 @@
+-- email_notification becomes a transactional outbox: emails are written in the business
+-- transaction and sent afterwards by EmailOutboxService. Nothing wrote to the table before.
+ALTER TABLE email_notification ALTER COLUMN profile_id DROP NOT NULL;
+ALTER TABLE email_notification ALTER COLUMN body TYPE TEXT USING convert_from(lo_get(body), 'UTF8');
+ALTER TABLE email_notification ADD COLUMN recipient_email VARCHAR(255);
+UPDATE email_notification n SET recipient_email = p.email FROM profile p WHERE p.id = n.profile_id;
+ALTER TABLE email_notification ALTER COLUMN recipient_email SET NOT NULL;
+ALTER TABLE email_notification ADD COLUMN attempts INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE email_notification ADD COLUMN next_attempt_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now();
+ALTER TABLE email_notification ADD COLUMN last_error VARCHAR(1000);
+
+-- The dispatcher polls for due pending emails; sent and failed ones are never scanned.
+CREATE INDEX idx_email_notification_due ON email_notification (next_attempt_at) WHERE status = 'PENDING';
+-- Sent emails are purged after the retention period.
+CREATE INDEX idx_email_notification_sent_at ON email_notification (sent_at) WHERE status = 'SENT';
@@ -0,0 +1,25 @@
+-- Resumable upload sessions used to live only in memory, so a restart lost every upload in
+-- progress and a session only worked on the instance that created it. The part files stay in
+-- <storage-path>/.upload-sessions; a row holds the metadata and a bitmap of received chunks
+-- (bit n of received_chunks is set once chunk n is on disk).
+CREATE TABLE document_upload_session
+(
+    id              UUID                     NOT NULL,
+    uploader_id     UUID                     NOT NULL,
+    name            VARCHAR(255)             NOT NULL,
+    file_name       VARCHAR(255),
+    batch_id        VARCHAR(255),
+    type            VARCHAR(255),
+    total_size      BIGINT                   NOT NULL,
+    chunk_size      INTEGER                  NOT NULL,
+    chunk_count     INTEGER                  NOT NULL,
+    received_chunks BYTEA                    NOT NULL,
+    committing      BOOLEAN                  NOT NULL DEFAULT FALSE,
+    created_at      TIMESTAMP WITH TIME ZONE NOT NULL,
+    last_touched_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    CONSTRAINT pk_document_upload_session PRIMARY KEY (id),
+    CONSTRAINT fk_document_upload_session_uploader FOREIGN KEY (uploader_id) REFERENCES profile (id) ON DELETE CASCADE
+);
+
+-- Expired sessions are purged by age.
+CREATE INDEX idx_document_upload_session_last_touched ON document_upload_session (last_touched_at);
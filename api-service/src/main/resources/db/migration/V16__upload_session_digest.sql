@@ -0,0 +1,3 @@
+-- Clients may give the SHA-256 of the whole file when creating an upload session; a commit
+-- whose assembled content hashes differently is rejected.
+ALTER TABLE document_upload_session ADD COLUMN expected_digest VARCHAR(64);
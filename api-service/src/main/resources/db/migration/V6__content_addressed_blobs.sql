@@ -0,0 +1,12 @@
+CREATE TABLE stored_blob
+(
+    digest        VARCHAR(64)                 NOT NULL,
+    size_in_bytes BIGINT                      NOT NULL,
+    ref_count     INTEGER                     NOT NULL,
+    created_at    TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    CONSTRAINT pk_stored_blob PRIMARY KEY (digest)
+);
+
+ALTER TABLE document ADD COLUMN content_hash VARCHAR(64);
+
+CREATE INDEX idx_document_content_hash ON document (content_hash);
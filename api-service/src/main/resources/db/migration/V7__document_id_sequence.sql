@@ -0,0 +1,8 @@
+-- Document ids come from a pooled sequence so Hibernate can batch inserts.
+-- Each nextval reserves a block of 50 ids (matching allocationSize on Document.id).
+CREATE SEQUENCE document_seq START WITH 1 INCREMENT BY 50;
+
+-- Hibernate's pooled optimizer hands out (value - 49 .. value), so start one block above the current max.
+SELECT setval('document_seq', COALESCE((SELECT MAX(id) FROM document), 0) + 50, false);
+
+ALTER TABLE document ALTER COLUMN id DROP IDENTITY IF EXISTS;
@@ -0,0 +1,3 @@
+-- Export looks documents up by batch or by uploader.
+CREATE INDEX idx_document_batch_id ON document (batch_id, id);
+CREATE INDEX idx_document_uploader_profile_id ON document (uploader_profile_id);
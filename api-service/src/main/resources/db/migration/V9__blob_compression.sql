@@ -0,0 +1,8 @@
+-- Blobs may be kept compressed at rest; the codec lives with the blob and is copied to each
+-- referencing document so downloads can decode it without another lookup.
+ALTER TABLE stored_blob ADD COLUMN storage_codec VARCHAR(16) NOT NULL DEFAULT 'NONE';
+ALTER TABLE stored_blob ADD COLUMN stored_size_in_bytes BIGINT;
+
+UPDATE stored_blob SET stored_size_in_bytes = size_in_bytes;
+
+ALTER TABLE document ADD COLUMN storage_codec VARCHAR(16);
@@ -0,0 +1,183 @@
+package com.proceduralnexus.apiservice.business.services;
+
+import com.proceduralnexus.apiservice.business.services.BlobStorageService.StagedBlob;
+import com.proceduralnexus.apiservice.business.storage.DocumentStore;
+import com.proceduralnexus.apiservice.data.entities.BlobCodec;
+import com.proceduralnexus.apiservice.data.entities.StoredBlob;
+import com.proceduralnexus.apiservice.data.repositories.StoredBlobRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Blobs are shared by content: identical uploads take references on one stored object, which
+ * only disappears, together with its preview, once the last reference is released and
+ * committed. Each test uploads content of its own, since the tests share one database.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BlobStorageServiceTests {
+
+    @Autowired
+    private BlobStorageService blobStorageService;
+
+    @Autowired
+    private StoredBlobRepository storedBlobRepository;
+
+    @Autowired
+    private DocumentStore documentStore;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void identicalUploadsShareOneObject() throws IOException {
+        byte[] content = uniqueContent();
+
+        BlobCodec first = store(content);
+        BlobCodec second = store(content);
+
+        String digest = digest(content);
+        assertThat(second).isEqualTo(first);
+        assertThat(storedBlobRepository.findById(digest)).get()
+                .extracting(StoredBlob::getRefCount).isEqualTo(2);
+        assertThat(documentStore.exists(BlobStorageService.objectKey(digest, first))).isTrue();
+    }
+
+    @Test
+    void lastReleaseRemovesTheObjectAndItsPreviewAfterCommit() throws IOException {
+        byte[] content = uniqueContent();
+        BlobCodec codec = store(content);
+        store(content);
+        String digest = digest(content);
+        String key = BlobStorageService.objectKey(digest, codec);
+        blobStorageService.storePreview(digest, new byte[]{1, 2, 3});
+
+        transaction().executeWithoutResult(status -> blobStorageService.release(digest));
+
+        assertThat(storedBlobRepository.findById(digest)).get()
+                .extracting(StoredBlob::getRefCount).isEqualTo(1);
+        assertThat(documentStore.exists(key)).isTrue();
+        assertThat(blobStorageService.hasPreview(digest)).isTrue();
+
+        boolean existedBeforeCommit = transaction().execute(status -> {
+            blobStorageService.release(digest);
+            return Files.exists(documentStore.localPath(key).orElseThrow());
+        });
+
+        // Nothing is deleted before the release commits.
+        assertThat(existedBeforeCommit).isTrue();
+
+        assertThat(storedBlobRepository.existsById(digest)).isFalse();
+        assertThat(documentStore.exists(key)).isFalse();
+        assertThat(blobStorageService.hasPreview(digest)).isFalse();
+    }
+
+    @Test
+    void rolledBackUploadDeletesTheObjectItPlaced() throws IOException {
+        StagedBlob staged = stage(uniqueContent());
+
+        BlobCodec codec = transaction().execute(status -> {
+            status.setRollbackOnly();
+            return storeInTransaction(staged);
+        });
+
+        assertThat(storedBlobRepository.existsById(staged.digest())).isFalse();
+        assertThat(documentStore.exists(BlobStorageService.objectKey(staged.digest(), codec))).isFalse();
+    }
+
+    @Test
+    void rolledBackUploadKeepsAnObjectThatWasAlreadyStored() throws IOException {
+        byte[] content = uniqueContent();
+        BlobCodec codec = store(content);
+        StagedBlob staged = stage(content);
+
+        transaction().executeWithoutResult(status -> {
+            status.setRollbackOnly();
+            storeInTransaction(staged);
+        });
+
+        assertThat(storedBlobRepository.findById(staged.digest())).get()
+                .extracting(StoredBlob::getRefCount).isEqualTo(1);
+        assertThat(documentStore.exists(BlobStorageService.objectKey(staged.digest(), codec))).isTrue();
+    }
+
+    @Test
+    void batchWithDuplicatesStoresEachDigestOnce() throws IOException {
+        byte[] repeated = uniqueContent();
+        byte[] single = uniqueContent();
+        List<StagedBlob> staged = List.of(stage(repeated), stage(single), stage(repeated));
+
+        Map<String, BlobCodec> codecs = transaction().execute(status -> {
+            try {
+                return blobStorageService.storeAll(staged, Runnable::run);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+
+        String repeatedDigest = staged.get(0).digest();
+        String singleDigest = staged.get(1).digest();
+        assertThat(codecs).containsOnlyKeys(repeatedDigest, singleDigest);
+        assertThat(storedBlobRepository.findById(repeatedDigest)).get()
+                .extracting(StoredBlob::getRefCount).isEqualTo(2);
+        assertThat(storedBlobRepository.findById(singleDigest)).get()
+                .extracting(StoredBlob::getRefCount).isEqualTo(1);
+        assertThat(documentStore.exists(BlobStorageService.objectKey(repeatedDigest, codecs.get(repeatedDigest))))
+                .isTrue();
+        assertThat(documentStore.exists(BlobStorageService.objectKey(singleDigest, codecs.get(singleDigest))))
+                .isTrue();
+        // Every staging file is moved into the store or dropped as a duplicate.
+        assertThat(staged).noneMatch(blob -> Files.exists(blob.file()));
+    }
+
+    private static byte[] uniqueContent() {
+        return ("%PDF-1.7 " + UUID.randomUUID()).repeat(200).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static String digest(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance(BlobStorageService.DIGEST_ALGORITHM).digest(content));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private StagedBlob stage(byte[] content) throws IOException {
+        return blobStorageService.stage(new ByteArrayInputStream(content));
+    }
+
+    private BlobCodec store(byte[] content) throws IOException {
+        StagedBlob staged = stage(content);
+        return transaction().execute(status -> storeInTransaction(staged));
+    }
+
+    private BlobCodec storeInTransaction(StagedBlob staged) {
+        try {
+            return blobStorageService.store(staged);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private TransactionTemplate transaction() {
+        return new TransactionTemplate(transactionManager);
+    }
+}
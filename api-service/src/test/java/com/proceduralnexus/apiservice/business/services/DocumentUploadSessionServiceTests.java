@@ -0,0 +1,263 @@
+package com.proceduralnexus.apiservice.business.services;
+
+import com.proceduralnexus.apiservice.business.interfaces.IDocumentService;
+import com.proceduralnexus.apiservice.controller.dtos.DocumentResponseDto;
+import com.proceduralnexus.apiservice.controller.dtos.UploadSessionCreateDto;
+import com.proceduralnexus.apiservice.controller.dtos.UploadSessionResponseDto;
+import com.proceduralnexus.apiservice.data.entities.Profile;
+import com.proceduralnexus.apiservice.data.entities.RoleName;
+import com.proceduralnexus.apiservice.data.repositories.DocumentUploadSessionRepository;
+import com.proceduralnexus.apiservice.support.TestDataFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Chunks may arrive in any order and more than once, the state of a session lives in the
+ * database so a restarted instance carries on where the old one stopped, and a commit only
+ * goes through once the assembled file is complete (and matches its digest, when given).
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestDataFactory.class)
+class DocumentUploadSessionServiceTests {
+
+    private static final int CHUNK_SIZE = 4;
+
+    @Autowired
+    private DocumentUploadSessionService uploadSessionService;
+
+    @Autowired
+    private DocumentUploadSessionRepository sessionRepository;
+
+    @Autowired
+    private IDocumentService documentService;
+
+    @Autowired
+    private ProfileService profileService;
+
+    @Autowired
+    private TestDataFactory data;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.documents.storage-path}")
+    private String storagePath;
+
+    private Profile uploader;
+
+    @BeforeEach
+    void createUploader() {
+        uploader = new TransactionTemplate(transactionManager).execute(status ->
+                data.profile("uploader-" + UUID.randomUUID(), data.role(RoleName.USER)));
+    }
+
+    @Test
+    void assemblesChunksReceivedOutOfOrder() throws IOException {
+        byte[] content = "0123456789".getBytes(StandardCharsets.US_ASCII);
+        UUID sessionId = create(content.length, null).getSessionId();
+
+        write(sessionId, 2, content);
+        write(sessionId, 0, content);
+        UploadSessionResponseDto session = write(sessionId, 1, content);
+
+        assertThat(session.getReceivedChunks()).containsExactly(0, 1, 2);
+        assertThat(session.getMissingChunks()).isEmpty();
+        assertThat(read(uploadSessionService.commit(sessionId))).isEqualTo(content);
+        assertThat(sessionRepository.existsById(sessionId)).isFalse();
+        assertThat(Files.exists(partFile(sessionId))).isFalse();
+    }
+
+    @Test
+    void resumesOnAFreshInstance() throws IOException {
+        byte[] content = "0123456789".getBytes(StandardCharsets.US_ASCII);
+        UUID sessionId = create(content.length, null).getSessionId();
+        write(sessionId, 1, content);
+
+        // Nothing of the session is kept in memory, so a new instance sees the same state.
+        DocumentUploadSessionService restarted = new DocumentUploadSessionService(
+                documentService,
+                profileService,
+                sessionRepository,
+                transactionManager,
+                storagePath,
+                DataSize.ofBytes(CHUNK_SIZE),
+                DataSize.ofMegabytes(1),
+                DataSize.ofMegabytes(1),
+                Duration.ofHours(1)
+        );
+        UploadSessionResponseDto session = restarted.getSession(sessionId);
+        assertThat(session.getReceivedChunks()).containsExactly(1);
+        assertThat(session.getMissingChunks()).containsExactly(0, 2);
+
+        restarted.writeChunk(sessionId, 0, CHUNK_SIZE, chunk(content, 0));
+        restarted.writeChunk(sessionId, 2, 2, chunk(content, 2));
+        assertThat(read(restarted.commit(sessionId))).isEqualTo(content);
+    }
+
+    @Test
+    void resentChunkReplacesTheEarlierCopy() throws IOException {
+        byte[] content = "0123456789".getBytes(StandardCharsets.US_ASCII);
+        UUID sessionId = create(content.length, null).getSessionId();
+
+        uploadSessionService.writeChunk(sessionId, 0, CHUNK_SIZE,
+                new ByteArrayInputStream("xxxx".getBytes(StandardCharsets.US_ASCII)));
+        write(sessionId, 0, content);
+        write(sessionId, 1, content);
+        UploadSessionResponseDto session = write(sessionId, 2, content);
+
+        assertThat(session.getReceivedChunks()).containsExactly(0, 1, 2);
+        assertThat(read(uploadSessionService.commit(sessionId))).isEqualTo(content);
+    }
+
+    @Test
+    void rejectsAChunkThatWouldSpillIntoTheNextSlot() {
+        byte[] content = "0123456789".getBytes(StandardCharsets.US_ASCII);
+        UUID sessionId = create(content.length, null).getSessionId();
+
+        assertStatus(HttpStatus.BAD_REQUEST, () -> uploadSessionService.writeChunk(sessionId, 0, 6,
+                new ByteArrayInputStream(Arrays.copyOf(content, 6))));
+        // Without a declared length the excess is only noticed while reading.
+        assertStatus(HttpStatus.BAD_REQUEST, () -> uploadSessionService.writeChunk(sessionId, 0, -1,
+                new ByteArrayInputStream(Arrays.copyOf(content, 6))));
+        assertStatus(HttpStatus.BAD_REQUEST, () -> uploadSessionService.writeChunk(sessionId, 3, 1,
+                new ByteArrayInputStream(new byte[1])));
+
+        assertThat(uploadSessionService.getSession(sessionId).getReceivedChunks()).isEmpty();
+    }
+
+    @Test
+    void rejectsACommitWithMissingChunks() throws IOException {
+        byte[] content = "0123456789".getBytes(StandardCharsets.US_ASCII);
+        UUID sessionId = create(content.length, null).getSessionId();
+        write(sessionId, 0, content);
+        write(sessionId, 2, content);
+
+        assertThatThrownBy(() -> uploadSessionService.commit(sessionId))
+                .isInstanceOfSatisfying(ResponseStatusException.class, ex -> {
+                    assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+                    assertThat(ex.getReason()).contains("[1]");
+                });
+
+        // The session stays open for the missing chunk.
+        write(sessionId, 1, content);
+        assertThat(read(uploadSessionService.commit(sessionId))).isEqualTo(content);
+    }
+
+    @Test
+    void rejectsACommitThatDoesNotMatchTheDigest() throws IOException {
+        byte[] content = "0123456789".getBytes(StandardCharsets.US_ASCII);
+        UUID sessionId = create(content.length, sha256("9876543210")).getSessionId();
+        write(sessionId, 0, content);
+        write(sessionId, 1, content);
+        write(sessionId, 2, content);
+
+        assertStatus(HttpStatus.BAD_REQUEST, () -> uploadSessionService.commit(sessionId));
+
+        UUID matching = create(content.length, sha256("0123456789").toUpperCase()).getSessionId();
+        write(matching, 0, content);
+        write(matching, 1, content);
+        write(matching, 2, content);
+        assertThat(read(uploadSessionService.commit(matching))).isEqualTo(content);
+    }
+
+    @Test
+    void abortRemovesTheSessionAndItsPartFile() {
+        UUID sessionId = create(10, null).getSessionId();
+        assertThat(Files.exists(partFile(sessionId))).isTrue();
+
+        uploadSessionService.abort(sessionId);
+
+        assertThat(sessionRepository.existsById(sessionId)).isFalse();
+        assertThat(Files.exists(partFile(sessionId))).isFalse();
+        assertStatus(HttpStatus.NOT_FOUND, () -> uploadSessionService.getSession(sessionId));
+    }
+
+    @Test
+    void purgeRemovesExpiredSessionsAndTheirPartFiles() {
+        UUID expired = create(10, null).getSessionId();
+        UUID active = create(10, null).getSessionId();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                sessionRepository.touch(expired, Instant.now().minus(Duration.ofDays(2))));
+
+        assertThat(uploadSessionService.purgeExpiredSessions()).isGreaterThanOrEqualTo(1);
+
+        assertThat(sessionRepository.existsById(expired)).isFalse();
+        assertThat(Files.exists(partFile(expired))).isFalse();
+        assertThat(uploadSessionService.isActive(active)).isTrue();
+        assertThat(Files.exists(partFile(active))).isTrue();
+    }
+
+    private UploadSessionResponseDto create(long totalSize, String sha256) {
+        UploadSessionCreateDto request = new UploadSessionCreateDto();
+        request.setName("scan");
+        request.setFileName("scan.pdf");
+        request.setUploaderId(uploader.getId());
+        request.setTotalSize(totalSize);
+        request.setChunkSize(CHUNK_SIZE);
+        request.setSha256(sha256);
+        return uploadSessionService.createSession(request);
+    }
+
+    private UploadSessionResponseDto write(UUID sessionId, int index, byte[] content) {
+        int length = Math.min(CHUNK_SIZE, content.length - index * CHUNK_SIZE);
+        return uploadSessionService.writeChunk(sessionId, index, length, chunk(content, index));
+    }
+
+    private static InputStream chunk(byte[] content, int index) {
+        int from = index * CHUNK_SIZE;
+        return new ByteArrayInputStream(Arrays.copyOfRange(content, from, Math.min(from + CHUNK_SIZE, content.length)));
+    }
+
+    private byte[] read(DocumentResponseDto document) throws IOException {
+        try (InputStream in = documentService.loadDocumentFile(document.getId()).open(0, -1)) {
+            return in.readAllBytes();
+        }
+    }
+
+    private Path partFile(UUID sessionId) {
+        return DocumentUploadSessionService.sessionDirectory(storagePath).resolve(sessionId + ".part");
+    }
+
+    private static String sha256(String content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(content.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static void assertStatus(HttpStatus status, Runnable call) {
+        assertThatThrownBy(call::run)
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(status));
+    }
+}
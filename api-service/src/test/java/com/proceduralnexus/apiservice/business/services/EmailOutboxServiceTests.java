@@ -0,0 +1,128 @@
+package com.proceduralnexus.apiservice.business.services;
+
+import com.proceduralnexus.apiservice.data.entities.EmailNotification;
+import com.proceduralnexus.apiservice.data.entities.EmailStatus;
+import com.proceduralnexus.apiservice.data.repositories.EmailNotificationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Emails are sent from the outbox in batches, and failures are retried or given up on.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "app.email.from=noreply@example.com",
+        "app.email.outbox.enabled=false",
+        "app.email.outbox.max-attempts=2",
+        "app.email.outbox.initial-backoff=0s"
+})
+@Import({EmailOutboxService.class, SimpleMeterRegistry.class})
+class EmailOutboxServiceTests {
+
+    @MockBean
+    private JavaMailSender mailSender;
+
+    @Autowired
+    private EmailOutboxService emailOutboxService;
+
+    @Autowired
+    private EmailNotificationRepository emailNotificationRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        Session session = Session.getInstance(new Properties());
+        when(mailSender.createMimeMessage()).thenAnswer(invocation -> new MimeMessage(session));
+    }
+
+    @Test
+    void sendsDueEmailsInOneBatch() {
+        for (int i = 0; i < 3; i++) {
+            emailOutboxService.enqueue("user" + i + "@example.com", "Subject " + i, "<p>Body</p>");
+        }
+
+        assertThat(emailOutboxService.dispatch()).isEqualTo(3);
+
+        verify(mailSender, times(1)).send(any(MimeMessage[].class));
+        assertThat(emails()).allSatisfy(email -> {
+            assertThat(email.getStatus()).isEqualTo(EmailStatus.SENT);
+            assertThat(email.getSentAt()).isNotNull();
+            assertThat(email.getAttempts()).isEqualTo(1);
+        });
+        // Nothing is due any more.
+        assertThat(emailOutboxService.dispatch()).isZero();
+    }
+
+    @Test
+    void retriesFailedSendsThenGivesUp() {
+        emailOutboxService.enqueue("user@example.com", "Subject", "<p>Body</p>");
+        doThrow(new MailSendException("Mail server connection failed")).when(mailSender).send(any(MimeMessage[].class));
+
+        emailOutboxService.dispatch();
+        EmailNotification email = emails().get(0);
+        assertThat(email.getStatus()).isEqualTo(EmailStatus.PENDING);
+        assertThat(email.getLastError()).contains("connection failed");
+
+        emailOutboxService.dispatch();
+        email = emails().get(0);
+        assertThat(email.getStatus()).isEqualTo(EmailStatus.FAILED);
+        assertThat(email.getAttempts()).isEqualTo(2);
+        assertThat(email.getSentAt()).isNull();
+    }
+
+    @Test
+    void recordsEachMessageOfAPartlyFailedBatch() {
+        emailOutboxService.enqueue("good@example.com", "Subject", "<p>Body</p>");
+        emailOutboxService.enqueue("unknown@example.com", "Subject", "<p>Body</p>");
+        emailOutboxService.enqueue("busy@example.com", "Subject", "<p>Body</p>");
+        doAnswer(invocation -> {
+            MimeMessage unknown = (MimeMessage) invocation.getArguments()[1];
+            MimeMessage busy = (MimeMessage) invocation.getArguments()[2];
+            throw new MailSendException(Map.of(
+                    unknown, new SendFailedException("550 No such user", null, null, null,
+                            new InternetAddress[]{new InternetAddress("unknown@example.com")}),
+                    busy, new SendFailedException("451 Try again later")));
+        }).when(mailSender).send(any(MimeMessage[].class));
+
+        emailOutboxService.dispatch();
+
+        List<EmailNotification> emails = emails();
+        assertThat(emails).extracting(EmailNotification::getStatus)
+                .containsExactly(EmailStatus.SENT, EmailStatus.FAILED, EmailStatus.PENDING);
+    }
+
+    private List<EmailNotification> emails() {
+        entityManager.clear();
+        return emailNotificationRepository.findAll().stream()
+                .sorted(Comparator.comparing(EmailNotification::getId))
+                .toList();
+    }
+}
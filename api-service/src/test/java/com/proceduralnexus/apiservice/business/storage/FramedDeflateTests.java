@@ -0,0 +1,168 @@
+package com.proceduralnexus.apiservice.business.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.Deflater;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FramedDeflateTests {
+
+    private static final int FRAME_SIZE = 64;
+    private static final String KEY = "doc";
+
+    @TempDir
+    Path dir;
+
+    private final List<TrackedStream> opened = new ArrayList<>();
+    private LocalDocumentStore store;
+    private byte[] content;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        store = new LocalDocumentStore(dir.resolve("store"), 0) {
+            @Override
+            public InputStream open(String key, long offset, long length) throws IOException {
+                TrackedStream in = new TrackedStream(super.open(key, offset, length));
+                opened.add(in);
+                return in;
+            }
+        };
+
+        // 15 full frames and a partial one of 40 bytes.
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; text.length() < 1000; i++) {
+            text.append("line ").append(i).append('\n');
+        }
+        content = text.substring(0, 1000).getBytes(StandardCharsets.US_ASCII);
+        put(compress(content));
+    }
+
+    @Test
+    void roundTrips() throws IOException {
+        assertThat(read(0, -1)).isEqualTo(content);
+        assertThat(FramedDeflate.originalSize(store, KEY)).isEqualTo(content.length);
+
+        put(compress(new byte[0]));
+        assertThat(read(0, -1)).isEmpty();
+        assertThat(FramedDeflate.originalSize(store, KEY)).isZero();
+    }
+
+    @Test
+    void readsRangesFromAnyOffset() throws IOException {
+        // Frame boundaries, including the start of the last, partial frame.
+        assertThat(read(FRAME_SIZE, FRAME_SIZE)).isEqualTo(slice(FRAME_SIZE, FRAME_SIZE));
+        assertThat(read(15 * FRAME_SIZE, -1)).isEqualTo(slice(15 * FRAME_SIZE, 40));
+        // Mid-frame, spanning several frames.
+        assertThat(read(10, 20)).isEqualTo(slice(10, 20));
+        assertThat(read(100, 300)).isEqualTo(slice(100, 300));
+        // A length running past the end is cut short.
+        assertThat(read(990, 50)).isEqualTo(slice(990, 10));
+        assertThat(read(0, 0)).isEmpty();
+    }
+
+    @Test
+    void readsNothingPastTheEnd() throws IOException {
+        assertThat(read(content.length, -1)).isEmpty();
+        assertThat(read(content.length + 5, 10)).isEmpty();
+        assertThat(read(16 * FRAME_SIZE, -1)).isEmpty();
+        assertThat(read(10_000, -1)).isEmpty();
+        assertThat(opened).allMatch(TrackedStream::isClosed);
+    }
+
+    @Test
+    void rejectsDamagedTrailer() throws IOException {
+        byte[] stored = compress(content);
+        stored[stored.length - 1] ^= 0x01;
+        put(stored);
+
+        assertThatThrownBy(() -> FramedDeflate.open(store, KEY, 200, 10))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("damaged trailer");
+        assertThatThrownBy(() -> FramedDeflate.originalSize(store, KEY))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("damaged trailer");
+        // Reading from the start needs no trailer.
+        assertThat(read(0, 10)).isEqualTo(slice(0, 10));
+        assertThat(opened).allMatch(TrackedStream::isClosed);
+    }
+
+    @Test
+    void rejectsTruncatedStream() throws IOException {
+        byte[] stored = compress(content);
+        put(Arrays.copyOf(stored, stored.length / 2));
+
+        assertThatThrownBy(() -> read(0, -1)).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> FramedDeflate.open(store, KEY, 200, 10)).isInstanceOf(IOException.class);
+        assertThat(opened).allMatch(TrackedStream::isClosed);
+    }
+
+    @Test
+    void closesTheStoreStreamWhenSkippingFails() throws IOException {
+        byte[] stored = compress(content);
+        // Corrupt the first frame's data, which is inflated while skipping to offset 10.
+        Arrays.fill(stored, 13, 23, (byte) 0xff);
+        put(stored);
+
+        assertThatThrownBy(() -> FramedDeflate.open(store, KEY, 10, 5)).isInstanceOf(IOException.class);
+        assertThat(opened).isNotEmpty().allMatch(TrackedStream::isClosed);
+    }
+
+    private byte[] read(long offset, long length) throws IOException {
+        try (InputStream in = FramedDeflate.open(store, KEY, offset, length)) {
+            return in.readAllBytes();
+        }
+    }
+
+    private byte[] slice(int offset, int length) {
+        return Arrays.copyOfRange(content, offset, offset + length);
+    }
+
+    private byte[] compress(byte[] data) throws IOException {
+        Path file = dir.resolve("compressed");
+        try (OutputStream out = FramedDeflate.compressor(Files.newOutputStream(file), FRAME_SIZE, Deflater.BEST_SPEED)) {
+            // Uneven writes, so frames are assembled across calls.
+            for (int off = 0; off < data.length; off += 37) {
+                out.write(data, off, Math.min(37, data.length - off));
+            }
+        }
+        return Files.readAllBytes(file);
+    }
+
+    private void put(byte[] stored) throws IOException {
+        Path source = dir.resolve("upload");
+        Files.write(source, stored);
+        store.put(KEY, source, stored.length);
+    }
+
+    private static final class TrackedStream extends FilterInputStream {
+        private boolean closed;
+
+        TrackedStream(InputStream in) {
+            super(in);
+        }
+
+        boolean isClosed() {
+            return closed;
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            super.close();
+        }
+    }
+}
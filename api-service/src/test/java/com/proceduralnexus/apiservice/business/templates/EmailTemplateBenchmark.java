@@ -0,0 +1,130 @@
+package com.proceduralnexus.apiservice.business.templates;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of rendering one email body: the {@code String.format} text blocks EmailService used
+ * to build, against the compiled templates, for the largest template (verification) and a
+ * typical one (application accepted).
+ * <p>
+ * Not run by the test suite. To run it (add {@code -prof gc} for allocation per operation):
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/test-classpath.txt
+ * java -cp target/classes:target/test-classes:$(cat target/test-classpath.txt) \
+ *     com.proceduralnexus.apiservice.business.templates.EmailTemplateBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmailTemplateBenchmark {
+
+    private final String baseUrl = "https://proceduralnexus.example.com";
+    private final String verificationUrl = baseUrl + "/verify-email?token=3f0b6c1e-8a2d-4c55-9d7e-1b2a3c4d5e6f";
+    private final String userName = "Ana Popescu";
+    private final String organizationName = "Acme Recruiting";
+
+    private EmailTemplates templates;
+
+    @Setup
+    public void setUp() {
+        templates = new EmailTemplates("classpath*:templates/email/*.html", Locale.ENGLISH);
+    }
+
+    @Benchmark
+    public String verificationStringFormat() {
+        return String.format(
+                """
+                <!DOCTYPE html>
+                <html>
+                <head>
+                    <meta charset="UTF-8">
+                    <meta name="viewport" content="width=device-width, initial-scale=1.0">
+                </head>
+                <body style="font-family: Arial, sans-serif; line-height: 1.6; color: #333; max-width: 600px; margin: 0 auto; padding: 20px;">
+                    <div style="background-color: #f8f9fa; padding: 20px; border-radius: 10px;">
+                        <h2 style="color: #007bff; margin-top: 0;">Welcome to ProceduralNexus!</h2>
+                        <p>Hello,</p>
+                        <p>Thank you for registering! Please verify your account by clicking the button below:</p>
+                
+                        <div style="text-align: center; margin: 30px 0;">
+                            <a href="%s" style="background-color: #007bff; color: #ffffff; padding: 12px 30px; text-decoration: none; border-radius: 5px; display: inline-block; font-weight: bold;">Verify Email Address</a>
+                        </div>
+                
+                        <p>Or copy and paste this link in your browser:</p>
+                        <p style="background-color: #e9ecef; padding: 10px; border-radius: 5px; word-break: break-all;">
+                            <a href="%s" style="color: #007bff;">%s</a>
+                        </p>
+                
+                        <p style="color: #dc3545; font-weight: bold;">⏰ This link will expire in 24 hours.</p>
+                        <p style="color: #6c757d; font-size: 14px;">If you did not create an account, please ignore this email.</p>
+                
+                        <hr style="border: none; border-top: 1px solid #dee2e6; margin: 20px 0;">
+                        <p style="color: #6c757d; font-size: 12px; margin-bottom: 0;">
+                            Best regards,<br>
+                            <strong>ProceduralNexus Team</strong>
+                        </p>
+                    </div>
+                </body>
+                </html>
+                """,
+                verificationUrl, verificationUrl, verificationUrl
+        );
+    }
+
+    @Benchmark
+    public String verificationTemplate() {
+        return templates.render("verification", Map.of("verificationUrl", verificationUrl, "baseUrl", baseUrl)).body();
+    }
+
+    @Benchmark
+    public String applicationAcceptedStringFormat() {
+        return String.format(
+                """
+                <html>
+                <body>
+                    <h2>Congratulations!</h2>
+                    <p>Hello %s,</p>
+                    <p>Your application to <strong>%s</strong> has been <span style="color: green; font-weight: bold;">ACCEPTED</span>.</p>
+                    <p>You can now proceed with the next steps in the process.</p>
+                    <p><a href="%s/login" style="display: inline-block; padding: 10px 20px; background-color: #28a745; color: white; text-decoration: none; border-radius: 5px;">View Details</a></p>
+                    <br>
+                    <p>Best regards,<br>ProceduralNexus Team</p>
+                </body>
+                </html>
+                """,
+                userName, organizationName, baseUrl
+        );
+    }
+
+    @Benchmark
+    public String applicationAcceptedTemplate() {
+        return templates.render("application-accepted",
+                Map.of("userName", userName, "organizationName", organizationName, "baseUrl", baseUrl)).body();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EmailTemplateBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,72 @@
+package com.proceduralnexus.apiservice.business.templates;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EmailTemplatesTests {
+
+    private final EmailTemplates templates =
+            new EmailTemplates("classpath*:templates/email-test/*.html", Locale.ENGLISH);
+
+    @Test
+    void escapesValuesInTheBodyOnly() {
+        RenderedEmail email = templates.render("greeting", Map.of("name", "Ana <b>& \"Co\"</b>"));
+
+        assertThat(email.subject()).isEqualTo("Hello Ana <b>& \"Co\"</b>");
+        assertThat(email.body()).startsWith("<p>Hello Ana &lt;b&gt;&amp; &quot;Co&quot;&lt;/b&gt;,</p>\n");
+    }
+
+    @Test
+    void showsSectionsOnlyForPresentValues() {
+        Map<String, Object> model = new HashMap<>();
+        model.put("name", "Ana");
+
+        assertThat(templates.render("greeting", model).body()).doesNotContain("Note");
+        model.put("note", "");
+        assertThat(templates.render("greeting", model).body()).doesNotContain("Note");
+        model.put("note", "it's late");
+        assertThat(templates.render("greeting", model).body()).contains("<p>Note: it&#39;s late</p>");
+    }
+
+    @Test
+    void picksTheClosestLocaleVariant() {
+        Map<String, String> model = Map.of("name", "Ana");
+
+        assertThat(templates.render("greeting", Locale.forLanguageTag("ro-RO"), model).subject()).isEqualTo("Salut Ana");
+        assertThat(templates.render("greeting", Locale.forLanguageTag("pt-BR"), model).subject()).isEqualTo("Olá Ana");
+        assertThat(templates.render("greeting", Locale.forLanguageTag("pt-PT"), model).subject()).isEqualTo("Hello Ana");
+        assertThat(templates.render("greeting", Locale.FRENCH, model).subject()).isEqualTo("Hello Ana");
+        assertThatThrownBy(() -> templates.render("farewell", model)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsMalformedTemplates() {
+        assertThatThrownBy(() -> EmailTemplate.compile("t", "<p>No subject</p>"))
+                .hasMessageContaining("Subject:");
+        assertThatThrownBy(() -> EmailTemplate.compile("t", "Subject: s\n\n<p>\n{{#a}}</p>\n"))
+                .hasMessage("t: section 'a' is not closed");
+        assertThatThrownBy(() -> EmailTemplate.compile("t", "Subject: s\n\n<p>\n{{#a}}{{/b}}</p>\n"))
+                .hasMessageStartingWith("t: line 4:");
+        assertThatThrownBy(() -> EmailTemplate.compile("t", "Subject: s\n\n{{ not a name }}"))
+                .hasMessageContaining("not a valid name");
+        assertThatThrownBy(() -> EmailTemplate.compile("t", "Subject: s\n\n{{name"))
+                .hasMessageContaining("unclosed");
+    }
+
+    @Test
+    void shippedTemplatesCompileAndRender() {
+        EmailTemplates shipped = new EmailTemplates("classpath*:templates/email/*.html", Locale.ENGLISH);
+        Map<String, Object> model = Map.of("userName", "Ana", "organizationName", "Acme & Sons", "baseUrl", "https://example.com");
+
+        RenderedEmail email = shipped.render("application-rejected", model);
+
+        assertThat(email.subject()).isEqualTo("[ProceduralNexus] Application rejected");
+        assertThat(email.body()).contains("<strong>Acme &amp; Sons</strong>").doesNotContain("Reason").doesNotContain("{{");
+    }
+}
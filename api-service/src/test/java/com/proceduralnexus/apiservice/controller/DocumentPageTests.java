@@ -0,0 +1,191 @@
+package com.proceduralnexus.apiservice.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.proceduralnexus.apiservice.controller.dtos.DocumentPageDto;
+import com.proceduralnexus.apiservice.controller.dtos.DocumentResponseDto;
+import com.proceduralnexus.apiservice.data.entities.Document;
+import com.proceduralnexus.apiservice.data.entities.Profile;
+import com.proceduralnexus.apiservice.data.entities.RoleName;
+import com.proceduralnexus.apiservice.security.UserDetailsImpl;
+import com.proceduralnexus.apiservice.support.TestDataFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * GET /documents/page walks the {@code (created_at, id)} order with an opaque cursor: pages
+ * never overlap or skip rows, even when many documents share a timestamp, and every filter
+ * combination pages through exactly the matching documents.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(TestDataFactory.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class DocumentPageTests {
+
+    private static final int ROWS = 12;
+    private static final Instant OLDER = Instant.parse("2025-01-01T00:00:00Z");
+    private static final Instant NEWER = Instant.parse("2025-02-01T00:00:00Z");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TestDataFactory data;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Profile admin;
+    private Profile uploader;
+    private final List<Document> documents = new ArrayList<>();
+
+    @BeforeAll
+    void seed() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            admin = data.profile("page-admin", data.role(RoleName.ADMIN));
+            uploader = data.profile("page-uploader", data.role(RoleName.USER));
+            for (int i = 0; i < ROWS; i++) {
+                Document document = data.document(uploader);
+                document.setType(i % 2 == 0 ? Document.DocumentType.CV : Document.DocumentType.OTHER);
+                document.setSigned(i % 3 == 0);
+                document.setBatchId(i % 4 == 0 ? "batch-a" : i % 4 == 1 ? "batch-b" : null);
+                documents.add(document);
+            }
+        });
+
+        // Two timestamps shared by half the documents each, so most positions are decided by id.
+        for (int i = 0; i < ROWS; i++) {
+            Instant createdAt = i < ROWS / 2 ? OLDER : NEWER;
+            jdbcTemplate.update("UPDATE document SET created_at = ? WHERE id = ?",
+                    Timestamp.from(createdAt), documents.get(i).getId());
+            documents.get(i).setCreatedAt(createdAt);
+        }
+    }
+
+    @Test
+    void pagesOverSharedTimestampsNeitherOverlapNorSkip() throws Exception {
+        List<DocumentPageDto> pages = new ArrayList<>();
+        String cursor = null;
+        do {
+            DocumentPageDto page = page("limit=5" + (cursor == null ? "" : "&cursor=" + cursor));
+            pages.add(page);
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(pages).extracting(page -> page.getItems().size()).containsExactly(5, 5, 2);
+        assertThat(pages.get(2).getNextCursor()).isNull();
+        assertThat(pages.stream().flatMap(page -> page.getItems().stream()).map(DocumentResponseDto::getId))
+                .containsExactlyElementsOf(expected(null, null, null));
+    }
+
+    @Test
+    void exactlyFullLastPageHasNoCursor() throws Exception {
+        DocumentPageDto first = page("limit=6");
+        DocumentPageDto second = page("limit=6&cursor=" + first.getNextCursor());
+
+        assertThat(second.getItems()).hasSize(6);
+        assertThat(second.getNextCursor()).isNull();
+    }
+
+    @Test
+    void pagesThroughEveryFilterCombination() throws Exception {
+        List<Document.DocumentType> types = new ArrayList<>(List.of(Document.DocumentType.values()));
+        types.add(null);
+        List<Boolean> signedStates = new ArrayList<>(List.of(true, false));
+        signedStates.add(null);
+        List<String> batches = new ArrayList<>(List.of("batch-a", "batch-b"));
+        batches.add(null);
+
+        for (Document.DocumentType type : types) {
+            for (Boolean signed : signedStates) {
+                for (String batchId : batches) {
+                    StringBuilder filters = new StringBuilder("limit=2");
+                    if (type != null) {
+                        filters.append("&type=").append(type.name().toLowerCase());
+                    }
+                    if (signed != null) {
+                        filters.append("&signed=").append(signed);
+                    }
+                    if (batchId != null) {
+                        filters.append("&batchId=").append(batchId);
+                    }
+
+                    List<Long> ids = new ArrayList<>();
+                    String cursor = null;
+                    do {
+                        DocumentPageDto page = page(filters + (cursor == null ? "" : "&cursor=" + cursor));
+                        page.getItems().forEach(item -> ids.add(item.getId()));
+                        cursor = page.getNextCursor();
+                    } while (cursor != null);
+
+                    assertThat(ids).as(filters.toString()).containsExactlyElementsOf(expected(type, signed, batchId));
+                }
+            }
+        }
+    }
+
+    @Test
+    void rejectsMalformedParameters() throws Exception {
+        for (String query : List.of(
+                "cursor=not-a-cursor",
+                "cursor=MTIz",
+                "limit=0",
+                "limit=201",
+                "limit=ten",
+                "type=invoice",
+                "signed=maybe",
+                "uploaderId=someone"
+        )) {
+            int status = mockMvc.perform(get("/documents/page?" + query)
+                            .with(user(UserDetailsImpl.build(admin))))
+                    .andReturn().getResponse().getStatus();
+            assertThat(status).as(query).isEqualTo(400);
+        }
+    }
+
+    private DocumentPageDto page(String query) throws Exception {
+        String body = mockMvc.perform(get("/documents/page?uploaderId=" + uploader.getId() + "&" + query)
+                        .with(user(UserDetailsImpl.build(admin))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(body, DocumentPageDto.class);
+    }
+
+    private List<Long> expected(Document.DocumentType type, Boolean signed, String batchId) {
+        return documents.stream()
+                .filter(document -> type == null || document.getType() == type)
+                .filter(document -> signed == null || document.isSigned() == signed)
+                .filter(document -> batchId == null || batchId.equals(document.getBatchId()))
+                .sorted(Comparator.comparing(Document::getCreatedAt).thenComparing(Document::getId).reversed())
+                .map(Document::getId)
+                .toList();
+    }
+}
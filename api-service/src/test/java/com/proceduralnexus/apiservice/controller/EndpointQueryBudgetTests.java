@@ -0,0 +1,156 @@
+package com.proceduralnexus.apiservice.controller;
+
+import com.proceduralnexus.apiservice.data.entities.Organization;
+import com.proceduralnexus.apiservice.data.entities.Profile;
+import com.proceduralnexus.apiservice.data.entities.Role;
+import com.proceduralnexus.apiservice.data.entities.RoleName;
+import com.proceduralnexus.apiservice.security.UserDetailsImpl;
+import com.proceduralnexus.apiservice.support.SqlStatementRecorder;
+import com.proceduralnexus.apiservice.support.TestDataFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Guards the list endpoints against N+1 regressions: each request runs against a dataset with
+ * {@value #ROWS} rows per list and must stay within a fixed statement budget, so a query per
+ * row fails the build. The budget covers everything the request runs, including lazy loads
+ * in the view.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(TestDataFactory.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class EndpointQueryBudgetTests {
+
+    private static final int ROWS = 25;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestDataFactory data;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Profile admin;
+    private Profile hr;
+    private Profile applicant;
+    private Organization organization;
+
+    @BeforeAll
+    void seed() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Role userRole = data.role(RoleName.USER);
+            Role hrRole = data.role(RoleName.HR);
+            Role adminRole = data.role(RoleName.ADMIN);
+
+            admin = data.profile("admin", adminRole);
+            hr = data.profile("hr", hrRole);
+            organization = data.organization("Acme", hr);
+
+            // One applicant who applied everywhere, for the applicant's own list.
+            applicant = data.profile("applicant", userRole);
+
+            for (int i = 0; i < ROWS; i++) {
+                // Members of the HR's organization.
+                Profile member = data.profile("member" + i, userRole, hrRole);
+                member.setOrganization(organization);
+
+                // Pending applications to the HR's organization, each with its own CV.
+                Profile candidate = data.profile("candidate" + i, userRole);
+                data.application(candidate, organization, data.document(candidate));
+
+                // Other organizations, each with an owner and a member.
+                Profile owner = data.profile("owner" + i, hrRole);
+                Organization other = data.organization("Org " + i, owner);
+                data.profile("staff" + i, userRole).setOrganization(other);
+                data.application(applicant, other, data.document(applicant));
+            }
+        });
+    }
+
+    @Test
+    void listDocuments() throws Exception {
+        assertWithinBudget(2, get("/documents"), admin);
+    }
+
+    @Test
+    void listDocumentsOfUploader() throws Exception {
+        assertWithinBudget(2, get("/documents").param("uploaderId", applicant.getId().toString()), admin);
+    }
+
+    @Test
+    void listDocumentPage() throws Exception {
+        assertWithinBudget(2, get("/documents/page").param("limit", String.valueOf(ROWS)), admin);
+    }
+
+    @Test
+    void listPendingApplicationsForHr() throws Exception {
+        assertWithinBudget(1, get("/applications"), hr);
+    }
+
+    @Test
+    void listOwnApplications() throws Exception {
+        assertWithinBudget(1, get("/applications/mine"), applicant);
+    }
+
+    @Test
+    void listOrganizations() throws Exception {
+        // Member counts are aggregated in the query, not by loading the members.
+        assertWithinBudget(2, get("/organizations"), admin)
+                .andExpect(jsonPath("$[?(@.name == 'Acme')].membersCount", contains(ROWS + 1)))
+                .andExpect(jsonPath("$[?(@.name == 'Org 0')].membersCount", contains(2)));
+    }
+
+    @Test
+    void listOrganizationMembers() throws Exception {
+        assertWithinBudget(3, get("/organizations/{id}/members", organization.getId()), admin);
+    }
+
+    @Test
+    void listProfiles() throws Exception {
+        assertWithinBudget(2, get("/profiles"), admin);
+    }
+
+    @Test
+    void listHrOrganizationUsers() throws Exception {
+        assertWithinBudget(3, get("/hr/users"), hr);
+    }
+
+    private ResultActions assertWithinBudget(int budget, MockHttpServletRequestBuilder request, Profile principal)
+            throws Exception {
+        SqlStatementRecorder.start();
+        try {
+            return mockMvc.perform(request.with(user(UserDetailsImpl.build(principal))))
+                    .andExpect(status().isOk());
+        } finally {
+            List<String> statements = SqlStatementRecorder.stop();
+            assertThat(statements)
+                    .as("SQL run by %s, budget %d:%n%s", request.buildRequest(null).getRequestURI(), budget,
+                            String.join(System.lineSeparator(), statements))
+                    .hasSizeLessThanOrEqualTo(budget);
+        }
+    }
+}
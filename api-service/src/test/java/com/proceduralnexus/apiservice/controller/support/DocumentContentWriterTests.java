@@ -0,0 +1,176 @@
+package com.proceduralnexus.apiservice.controller.support;
+
+import com.proceduralnexus.apiservice.business.storage.DocumentContent;
+import com.proceduralnexus.apiservice.business.storage.FramedDeflate;
+import com.proceduralnexus.apiservice.business.storage.LocalDocumentStore;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs every case against a plain local file, which is sent with transferTo, and against a
+ * framed deflate ({@code .dz}) object, which is decompressed for just the requested range.
+ */
+class DocumentContentWriterTests {
+
+    private static final String DIGEST = "ab".repeat(32);
+    private static final String ETAG = "\"sha256-" + DIGEST + "\"";
+    private static final Instant LAST_MODIFIED = Instant.parse("2025-01-01T00:00:00Z");
+
+    @TempDir
+    Path dir;
+
+    private byte[] body;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; text.length() < 1000; i++) {
+            text.append("line ").append(i).append('\n');
+        }
+        body = text.substring(0, 1000).getBytes(StandardCharsets.US_ASCII);
+
+        Path plain = Files.write(dir.resolve("plain.pdf"), body);
+        LocalDocumentStore store = new LocalDocumentStore(dir.resolve("store"), 0);
+        Path compressed = dir.resolve("compressed");
+        try (OutputStream out = FramedDeflate.compressor(Files.newOutputStream(compressed), 64, Deflater.BEST_SPEED)) {
+            out.write(body);
+        }
+        store.put("doc.dz", compressed, Files.size(compressed));
+
+        DocumentContent plainContent = new DocumentContent(body.length, DIGEST, LAST_MODIFIED, plain,
+                (offset, length) -> LocalDocumentStore.openRange(plain, offset, length));
+        DocumentContent compressedContent = new DocumentContent(body.length, DIGEST, LAST_MODIFIED, null,
+                (offset, length) -> FramedDeflate.open(store, "doc.dz", offset, length));
+        mockMvc = MockMvcBuilders.standaloneSetup(new ContentController(plainContent, compressedContent)).build();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"plain", "compressed"})
+    void servesTheWholeDocument(String form) throws Exception {
+        mockMvc.perform(get("/{form}", form))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().string(HttpHeaders.ETAG, ETAG))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, body.length))
+                .andExpect(content().bytes(body));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"plain", "compressed"})
+    void servesASingleRange(String form) throws Exception {
+        mockMvc.perform(get("/{form}", form).header(HttpHeaders.RANGE, "bytes=100-199"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 100-199/1000"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 100))
+                .andExpect(content().bytes(Arrays.copyOfRange(body, 100, 200)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"plain", "compressed"})
+    void servesSuffixAndOpenEndedRanges(String form) throws Exception {
+        mockMvc.perform(get("/{form}", form).header(HttpHeaders.RANGE, "bytes=-50"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 950-999/1000"))
+                .andExpect(content().bytes(Arrays.copyOfRange(body, 950, 1000)));
+
+        mockMvc.perform(get("/{form}", form).header(HttpHeaders.RANGE, "bytes=990-"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 990-999/1000"))
+                .andExpect(content().bytes(Arrays.copyOfRange(body, 990, 1000)));
+
+        // A range running past the end is cut to the document.
+        mockMvc.perform(get("/{form}", form).header(HttpHeaders.RANGE, "bytes=900-5000"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 900-999/1000"))
+                .andExpect(content().bytes(Arrays.copyOfRange(body, 900, 1000)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"plain", "compressed"})
+    void rejectsAnUnsatisfiableRange(String form) throws Exception {
+        mockMvc.perform(get("/{form}", form).header(HttpHeaders.RANGE, "bytes=1000-1100"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */1000"))
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"plain", "compressed"})
+    void keepsTheRangeOnlyWhileIfRangeMatches(String form) throws Exception {
+        mockMvc.perform(get("/{form}", form)
+                        .header(HttpHeaders.RANGE, "bytes=0-9")
+                        .header(HttpHeaders.IF_RANGE, ETAG))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 0-9/1000"))
+                .andExpect(content().bytes(Arrays.copyOfRange(body, 0, 10)));
+
+        mockMvc.perform(get("/{form}", form)
+                        .header(HttpHeaders.RANGE, "bytes=0-9")
+                        .header(HttpHeaders.IF_RANGE, "\"sha256-stale\""))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE))
+                .andExpect(content().bytes(body));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"plain", "compressed"})
+    void answersIfNoneMatchWithNotModified(String form) throws Exception {
+        mockMvc.perform(get("/{form}", form).header(HttpHeaders.IF_NONE_MATCH, ETAG))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, ETAG))
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"plain", "compressed"})
+    void answersMultipleRangesWithTheWholeDocument(String form) throws Exception {
+        mockMvc.perform(get("/{form}", form).header(HttpHeaders.RANGE, "bytes=0-9,20-29"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE))
+                .andExpect(content().bytes(body));
+    }
+
+    @RestController
+    static class ContentController {
+        private final DocumentContent plain;
+        private final DocumentContent compressed;
+
+        ContentController(DocumentContent plain, DocumentContent compressed) {
+            this.plain = plain;
+            this.compressed = compressed;
+        }
+
+        @GetMapping("/{form}")
+        void download(@PathVariable String form, HttpServletRequest request, HttpServletResponse response)
+                throws IOException {
+            DocumentContent content = form.equals("plain") ? plain : compressed;
+            DocumentContentWriter.write(content, MediaType.APPLICATION_PDF, null, request, response);
+        }
+    }
+}
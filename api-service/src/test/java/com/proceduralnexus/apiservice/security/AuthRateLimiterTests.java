@@ -0,0 +1,84 @@
+package com.proceduralnexus.apiservice.security;
+
+import com.proceduralnexus.apiservice.controller.support.RetryAfterException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatNoException;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AuthRateLimiterTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void bucketRefillsAtItsRate() throws InterruptedException {
+        LocalRateLimitStore store = new LocalRateLimitStore(100, 4, Duration.ofMinutes(1));
+        Duration period = Duration.ofMillis(200);
+
+        assertThat(store.tryConsume("k", 2, period)).isZero();
+        assertThat(store.tryConsume("k", 2, period)).isZero();
+        Duration wait = store.tryConsume("k", 2, period);
+        assertThat(wait).isPositive().isLessThanOrEqualTo(Duration.ofMillis(100));
+        // Other keys have buckets of their own.
+        assertThat(store.tryConsume("other", 2, period)).isZero();
+
+        Thread.sleep(wait.toMillis() + 20);
+        assertThat(store.tryConsume("k", 2, period)).isZero();
+    }
+
+    @Test
+    void limitsEachEmailWhateverTheAddress() {
+        AuthRateLimiter limiter = limiter();
+
+        limiter.check(AuthRateLimiter.Action.LOGIN, "10.0.0.1", "Someone@Example.com");
+        limiter.check(AuthRateLimiter.Action.LOGIN, "10.0.0.2", "someone@example.com ");
+
+        assertThatThrownBy(() -> limiter.check(AuthRateLimiter.Action.LOGIN, "10.0.0.3", "someone@example.com"))
+                .isInstanceOfSatisfying(RetryAfterException.class, ex -> {
+                    assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+                    assertThat(Long.parseLong(ex.getHeaders().getFirst(HttpHeaders.RETRY_AFTER))).isPositive();
+                });
+        assertThat(registry.get("auth.rate-limit.rejected").tag("key", "email").counter().count()).isEqualTo(1);
+
+        // Limits are per action.
+        assertThatNoException().isThrownBy(() ->
+                limiter.check(AuthRateLimiter.Action.RESEND_VERIFICATION, "10.0.0.3", "someone@example.com"));
+    }
+
+    @Test
+    void limitsEachAddressWhateverTheEmail() {
+        AuthRateLimiter limiter = limiter();
+
+        for (int i = 0; i < 3; i++) {
+            limiter.check(AuthRateLimiter.Action.LOGIN, "10.0.0.1", "user" + i + "@example.com");
+        }
+
+        assertThatThrownBy(() -> limiter.check(AuthRateLimiter.Action.LOGIN, "10.0.0.1", "new@example.com"))
+                .isInstanceOf(RetryAfterException.class);
+        assertThat(registry.get("auth.rate-limit.rejected").tag("key", "address").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void retryAfterIsRoundedUpToWholeSeconds() {
+        Duration[] waits = {Duration.ofMillis(1), Duration.ofMillis(1500), Duration.ofSeconds(2)};
+        long[] expected = {1, 2, 2};
+        for (int i = 0; i < waits.length; i++) {
+            RetryAfterException ex = new RetryAfterException(HttpStatus.TOO_MANY_REQUESTS, "slow down", waits[i]);
+            assertThat(ex.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo(Long.toString(expected[i]));
+        }
+    }
+
+    private AuthRateLimiter limiter() {
+        Duration hour = Duration.ofHours(1);
+        return new AuthRateLimiter(new LocalRateLimitStore(100, 4, hour), registry, true,
+                hour, 3, 2,
+                hour, 3, 2,
+                hour, 3, 2);
+    }
+}
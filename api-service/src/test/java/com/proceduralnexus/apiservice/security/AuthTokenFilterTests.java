@@ -0,0 +1,109 @@
+package com.proceduralnexus.apiservice.security;
+
+import com.proceduralnexus.apiservice.data.entities.Profile;
+import com.proceduralnexus.apiservice.data.entities.Role;
+import com.proceduralnexus.apiservice.data.entities.RoleName;
+import com.proceduralnexus.apiservice.data.repositories.ProfileRepository;
+import com.proceduralnexus.apiservice.data.repositories.RoleRepository;
+import com.proceduralnexus.apiservice.support.SqlStatementRecorder;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Access tokens authenticate requests from their claims alone, until the profile's token
+ * version moves on.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AuthTokenFilterTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private TokenVersionService tokenVersionService;
+
+    @Autowired
+    private ProfileRepository profileRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void authenticatesFromClaimsWithoutLoadingTheProfile() throws Exception {
+        String token = jwtUtils.generateJwtToken(UserDetailsImpl.build(admin()));
+
+        // The first request caches the token version.
+        mockMvc.perform(get("/profiles").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        SqlStatementRecorder.start();
+        try {
+            mockMvc.perform(get("/profiles").header("Authorization", "Bearer " + token))
+                    .andExpect(status().isOk());
+        } finally {
+            List<String> statements = SqlStatementRecorder.stop();
+            // Listing the profiles, and nothing to authenticate.
+            assertThat(statements).hasSizeLessThanOrEqualTo(2);
+        }
+    }
+
+    @Test
+    void refusesTokensIssuedBeforeARevocation() throws Exception {
+        Profile admin = admin();
+        String token = jwtUtils.generateJwtToken(UserDetailsImpl.build(admin));
+
+        mockMvc.perform(get("/profiles").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Profile profile = profileRepository.findById(admin.getId()).orElseThrow();
+            tokenVersionService.revokeTokens(profile);
+        });
+
+        mockMvc.perform(get("/profiles").header("Authorization", "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+
+        Profile reloaded = profileRepository.findById(admin.getId()).orElseThrow();
+        String fresh = jwtUtils.generateJwtToken(UserDetailsImpl.build(reloaded));
+        mockMvc.perform(get("/profiles").header("Authorization", "Bearer " + fresh))
+                .andExpect(status().isOk());
+    }
+
+    private Profile admin() {
+        Role role = roleRepository.findByName(RoleName.ADMIN).orElseGet(() -> {
+            Role created = new Role();
+            created.setName(RoleName.ADMIN);
+            return roleRepository.save(created);
+        });
+
+        Profile profile = new Profile();
+        profile.setFirstname("Admin");
+        profile.setLastname("Test");
+        profile.setEmail("admin-" + UUID.randomUUID() + "@example.com");
+        profile.setPassword("not-a-real-hash");
+        profile.setEmailVerified(true);
+        profile.getRoles().add(role);
+        return profileRepository.save(profile);
+    }
+}
@@ -0,0 +1,48 @@
+package com.proceduralnexus.apiservice.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoundedPasswordEncoderTests {
+
+    @Test
+    void hashesOnItsPoolAndRecordsTheTime() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        BoundedPasswordEncoder encoder = encoder(5, Duration.ZERO, registry);
+
+        String hash = encoder.encode("correct horse");
+
+        assertThat(hash).startsWith("$2a$05$");
+        assertThat(encoder.matches("correct horse", hash)).isTrue();
+        assertThat(encoder.matches("battery staple", hash)).isFalse();
+        assertThat(registry.get("auth.password.hash").tag("operation", "encode").timer().count()).isEqualTo(1);
+        assertThat(registry.get("auth.password.hash").tag("operation", "matches").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void upgradesWeakerHashesOnly() {
+        BoundedPasswordEncoder encoder = encoder(5, Duration.ZERO, new SimpleMeterRegistry());
+
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("secret"))).isTrue();
+        // Stronger hashes are left alone, so instances of different strengths do not flip-flop.
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("secret"))).isFalse();
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(5).encode("secret"))).isFalse();
+        // Not a BCrypt hash (e.g. the random password of a Google sign-up): left alone.
+        assertThat(encoder.upgradeEncoding("b1946ac9-2c8c-4bd8-9b3b-4d1e0f0a0c11")).isFalse();
+    }
+
+    @Test
+    void calibratesWithinTheConfiguredBounds() {
+        assertThat(encoder(0, Duration.ZERO, new SimpleMeterRegistry()).getStrength()).isEqualTo(4);
+        assertThat(encoder(0, Duration.ofHours(1), new SimpleMeterRegistry()).getStrength()).isEqualTo(6);
+    }
+
+    private static BoundedPasswordEncoder encoder(int strength, Duration targetLatency, SimpleMeterRegistry registry) {
+        return new BoundedPasswordEncoder(strength, targetLatency, 4, 6, 1, 4, Duration.ofSeconds(1), registry);
+    }
+}
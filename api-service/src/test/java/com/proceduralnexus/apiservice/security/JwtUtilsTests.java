@@ -0,0 +1,49 @@
+package com.proceduralnexus.apiservice.security;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtUtilsTests {
+
+    private static final String SECRET = "U2VjcmV0S2V5TXVzdEJlQXRMZWFzdDI1NkJpdHNMb25nU29UaGlzSXNKdXN0QVRlc3Q=";
+
+    @Test
+    void acceptsAMatchingEs256KeyPair() throws Exception {
+        KeyPair pair = generateKeyPair();
+
+        JwtUtils jwtUtils = es256(pair, pair);
+
+        assertThat(jwtUtils.getPublicKeyPem()).isPresent();
+    }
+
+    @Test
+    void rejectsKeysFromDifferentPairsAtStartup() throws Exception {
+        KeyPair signing = generateKeyPair();
+        KeyPair other = generateKeyPair();
+
+        assertThatThrownBy(() -> es256(signing, other))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("does not verify");
+    }
+
+    private static JwtUtils es256(KeyPair privateFrom, KeyPair publicFrom) {
+        Base64.Encoder base64 = Base64.getEncoder();
+        return new JwtUtils(SECRET, 60_000, SignatureAlgorithm.ES256,
+                base64.encodeToString(privateFrom.getPrivate().getEncoded()),
+                base64.encodeToString(publicFrom.getPublic().getEncoded()));
+    }
+
+    private static KeyPair generateKeyPair() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        return generator.generateKeyPair();
+    }
+}
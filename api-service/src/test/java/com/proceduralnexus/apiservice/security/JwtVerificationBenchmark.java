@@ -0,0 +1,99 @@
+package com.proceduralnexus.apiservice.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of verifying one access token, as AuthTokenFilter does on every request: the old path
+ * (key and parser rebuilt per call, token parsed twice) against {@link JwtUtils#parseClaims}
+ * with HS256 and ES256.
+ * <p>
+ * Not run by the test suite. To run it:
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/test-classpath.txt
+ * java -cp target/classes:target/test-classes:$(cat target/test-classpath.txt) \
+ *     com.proceduralnexus.apiservice.security.JwtVerificationBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET =
+            "SecretKeyMustBeAtLeast256BitsLongSoThisIsJustAPlaceholderForDevelopmentPurposes";
+
+    private JwtUtils hs256;
+    private JwtUtils es256;
+    private String hs256Token;
+    private String es256Token;
+
+    @Setup
+    public void setUp() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        KeyPair keyPair = generator.generateKeyPair();
+        Base64.Encoder base64 = Base64.getEncoder();
+
+        hs256 = new JwtUtils(SECRET, 3_600_000, SignatureAlgorithm.HS256, "", "");
+        es256 = new JwtUtils(SECRET, 3_600_000, SignatureAlgorithm.ES256,
+                base64.encodeToString(keyPair.getPrivate().getEncoded()),
+                base64.encodeToString(keyPair.getPublic().getEncoded()));
+
+        UserDetailsImpl principal = UserDetailsImpl.fromClaims(
+                UUID.randomUUID(), "user@example.com", List.of("USER", "HR"), 42L, 3);
+        hs256Token = hs256.generateJwtToken(principal);
+        es256Token = es256.generateJwtToken(principal);
+    }
+
+    @Benchmark
+    public String hs256RebuiltKeyTwoPasses() {
+        // What the filter did before: validate, then parse again for the subject.
+        Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET))).build()
+                .parse(hs256Token);
+        return Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET))).build()
+                .parseClaimsJws(hs256Token).getBody().getSubject();
+    }
+
+    @Benchmark
+    public Object hs256CachedParserOnePass() {
+        return hs256.getPrincipal(hs256.parseClaims(hs256Token));
+    }
+
+    @Benchmark
+    public Object es256CachedParserOnePass() {
+        return es256.getPrincipal(es256.parseClaims(es256Token));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtVerificationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,92 @@
+package com.proceduralnexus.apiservice.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RefreshTokenServiceTests {
+
+    private final UUID profileId = UUID.randomUUID();
+
+    @Test
+    void eachRefreshSpendsTheTokenAndReturnsTheNext() {
+        RefreshTokenService service = service(Duration.ofHours(1), Duration.ofDays(1));
+
+        String first = service.issue(profileId);
+        RefreshTokenService.Rotation second = service.rotate(first);
+        RefreshTokenService.Rotation third = service.rotate(second.refreshToken());
+
+        assertThat(second.profileId()).isEqualTo(profileId);
+        assertThat(third.profileId()).isEqualTo(profileId);
+        assertThat(third.refreshToken()).isNotIn(first, second.refreshToken());
+    }
+
+    @Test
+    void reusingASpentTokenEndsTheSession() {
+        RefreshTokenService service = service(Duration.ofHours(1), Duration.ofDays(1));
+        String first = service.issue(profileId);
+        String second = service.rotate(first).refreshToken();
+
+        assertUnauthorized(service, first);
+        // The legitimate holder is signed out too: either copy may be the stolen one.
+        assertUnauthorized(service, second);
+    }
+
+    @Test
+    void logoutEndsTheSessionButNotOthers() {
+        RefreshTokenService service = service(Duration.ofHours(1), Duration.ofDays(1));
+        String phone = service.issue(profileId);
+        String laptop = service.rotate(service.issue(profileId)).refreshToken();
+
+        service.revoke(laptop);
+        service.revoke("unknown");
+
+        assertUnauthorized(service, laptop);
+        assertThat(service.rotate(phone).profileId()).isEqualTo(profileId);
+    }
+
+    @Test
+    void tokensExpire() throws InterruptedException {
+        RefreshTokenService shortTokens = service(Duration.ofMillis(50), Duration.ofDays(1));
+        RefreshTokenService shortSessions = service(Duration.ofHours(1), Duration.ofMillis(50));
+        String token = shortTokens.issue(profileId);
+        String session = shortSessions.rotate(shortSessions.issue(profileId)).refreshToken();
+
+        Thread.sleep(100);
+
+        assertUnauthorized(shortTokens, token);
+        assertUnauthorized(shortSessions, session);
+    }
+
+    @Test
+    void signInCodesWorkOnceAndExpire() throws InterruptedException {
+        RefreshTokenService service = new RefreshTokenService(new LocalRefreshTokenStore(100),
+                Duration.ofHours(1), Duration.ofDays(1), Duration.ofMillis(50));
+        String code = service.issueSignInCode(profileId);
+        String late = service.issueSignInCode(profileId);
+
+        assertThat(service.redeemSignInCode(code)).isEqualTo(profileId);
+        assertThatThrownBy(() -> service.redeemSignInCode(code))
+                .isInstanceOfSatisfying(ResponseStatusException.class, ex ->
+                        assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED));
+
+        Thread.sleep(100);
+        assertThatThrownBy(() -> service.redeemSignInCode(late)).isInstanceOf(ResponseStatusException.class);
+    }
+
+    private static void assertUnauthorized(RefreshTokenService service, String token) {
+        assertThatThrownBy(() -> service.rotate(token))
+                .isInstanceOfSatisfying(ResponseStatusException.class, ex ->
+                        assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED));
+    }
+
+    private static RefreshTokenService service(Duration ttl, Duration maxSession) {
+        return new RefreshTokenService(new LocalRefreshTokenStore(100), ttl, maxSession, Duration.ofMinutes(1));
+    }
+}
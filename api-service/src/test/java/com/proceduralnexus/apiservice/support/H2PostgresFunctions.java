@@ -0,0 +1,39 @@
+package com.proceduralnexus.apiservice.support;
+
+/**
+ * Stand-ins for the PostgreSQL functions that services call in native queries, registered in
+ * the test database by {@code h2-postgres-functions.sql}.
+ * <p>
+ * The advisory locks always succeed: tests share one JVM and one in-memory database, and do
+ * not exercise contention between instances.
+ */
+public final class H2PostgresFunctions {
+
+    private H2PostgresFunctions() {
+    }
+
+    /**
+     * Bit {@code n} is bit {@code n % 8} of byte {@code n / 8}, counting from the least
+     * significant bit, as in PostgreSQL.
+     */
+    public static byte[] setBit(byte[] bytes, int n, int value) {
+        byte[] result = bytes.clone();
+        if (value == 0) {
+            result[n / 8] &= (byte) ~(1 << (n % 8));
+        } else {
+            result[n / 8] |= (byte) (1 << (n % 8));
+        }
+        return result;
+    }
+
+    public static void advisoryXactLock(long key) {
+    }
+
+    public static boolean tryAdvisoryLock(int namespace, int key) {
+        return true;
+    }
+
+    public static boolean advisoryUnlock(int namespace, int key) {
+        return true;
+    }
+}
@@ -0,0 +1,46 @@
+package com.proceduralnexus.apiservice.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records every SQL statement Hibernate prepares, including native queries, while a
+ * recording is active. Registered through {@code hibernate.session_factory.statement_inspector}
+ * in the test profile.
+ * <p>
+ * Statements are collected across threads, so tests using it must not run requests in
+ * parallel with each other.
+ */
+public class SqlStatementRecorder implements StatementInspector {
+
+    private static final List<String> statements = new ArrayList<>();
+    private static volatile boolean recording;
+
+    public static void start() {
+        synchronized (statements) {
+            statements.clear();
+            recording = true;
+        }
+    }
+
+    public static List<String> stop() {
+        synchronized (statements) {
+            recording = false;
+            return List.copyOf(statements);
+        }
+    }
+
+    @Override
+    public String inspect(String sql) {
+        if (recording) {
+            synchronized (statements) {
+                if (recording) {
+                    statements.add(sql);
+                }
+            }
+        }
+        return sql;
+    }
+}
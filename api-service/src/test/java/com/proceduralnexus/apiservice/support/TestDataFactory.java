@@ -0,0 +1,96 @@
+package com.proceduralnexus.apiservice.support;
+
+import com.proceduralnexus.apiservice.data.entities.Application;
+import com.proceduralnexus.apiservice.data.entities.Document;
+import com.proceduralnexus.apiservice.data.entities.Organization;
+import com.proceduralnexus.apiservice.data.entities.Profile;
+import com.proceduralnexus.apiservice.data.entities.Role;
+import com.proceduralnexus.apiservice.data.entities.RoleName;
+import com.proceduralnexus.apiservice.data.repositories.ApplicationRepository;
+import com.proceduralnexus.apiservice.data.repositories.DocumentRepository;
+import com.proceduralnexus.apiservice.data.repositories.OrganizationRepository;
+import com.proceduralnexus.apiservice.data.repositories.ProfileRepository;
+import com.proceduralnexus.apiservice.data.repositories.RoleRepository;
+import org.springframework.boot.test.context.TestComponent;
+
+import java.util.List;
+
+/**
+ * Creates the profiles, organizations, documents and applications that tests run against.
+ * Import it into a test and call it inside a transaction, so that changes made to the
+ * returned entities (such as {@link Profile#setOrganization}) are saved too.
+ */
+@TestComponent
+public class TestDataFactory {
+
+    private final RoleRepository roleRepository;
+    private final ProfileRepository profileRepository;
+    private final OrganizationRepository organizationRepository;
+    private final DocumentRepository documentRepository;
+    private final ApplicationRepository applicationRepository;
+
+    public TestDataFactory(RoleRepository roleRepository,
+                           ProfileRepository profileRepository,
+                           OrganizationRepository organizationRepository,
+                           DocumentRepository documentRepository,
+                           ApplicationRepository applicationRepository) {
+        this.roleRepository = roleRepository;
+        this.profileRepository = profileRepository;
+        this.organizationRepository = organizationRepository;
+        this.documentRepository = documentRepository;
+        this.applicationRepository = applicationRepository;
+    }
+
+    public Role role(RoleName name) {
+        // Tests sharing an application context share its database too.
+        return roleRepository.findByName(name).orElseGet(() -> {
+            Role role = new Role();
+            role.setName(name);
+            return roleRepository.save(role);
+        });
+    }
+
+    /**
+     * A verified profile named {@code name}, with the email {@code <name>@example.com}.
+     */
+    public Profile profile(String name, Role... roles) {
+        Profile profile = new Profile();
+        profile.setFirstname(name);
+        profile.setLastname("Test");
+        profile.setEmail(name + "@example.com");
+        profile.setPassword("not-a-real-hash");
+        profile.setEmailVerified(true);
+        profile.getRoles().addAll(List.of(roles));
+        return profileRepository.save(profile);
+    }
+
+    /**
+     * An organization owned, and joined, by {@code owner}.
+     */
+    public Organization organization(String name, Profile owner) {
+        Organization organization = new Organization();
+        organization.setName(name);
+        organization.setOwner(owner);
+        organization = organizationRepository.save(organization);
+        owner.setOrganization(organization);
+        return organization;
+    }
+
+    public Document document(Profile uploader) {
+        Document document = new Document();
+        document.setName(uploader.getFirstname() + " CV");
+        document.setFilePath("cv.pdf");
+        document.setType(Document.DocumentType.CV);
+        document.setFileSizeInBytes(1024L);
+        document.setUploader(uploader);
+        return documentRepository.save(document);
+    }
+
+    public Application application(Profile applicant, Organization organization, Document cv) {
+        Application application = new Application();
+        application.setApplicant(applicant);
+        application.setOrganization(organization);
+        application.setCv(cv);
+        return applicationRepository.save(application);
+    }
+}
@@ -0,0 +1,5 @@
+-- PostgreSQL functions used by native queries, see H2PostgresFunctions.
+CREATE ALIAS IF NOT EXISTS pg_advisory_xact_lock FOR 'com.proceduralnexus.apiservice.support.H2PostgresFunctions.advisoryXactLock';
+CREATE ALIAS IF NOT EXISTS pg_try_advisory_lock FOR 'com.proceduralnexus.apiservice.support.H2PostgresFunctions.tryAdvisoryLock';
+CREATE ALIAS IF NOT EXISTS pg_advisory_unlock FOR 'com.proceduralnexus.apiservice.support.H2PostgresFunctions.advisoryUnlock';
+CREATE ALIAS IF NOT EXISTS set_bit FOR 'com.proceduralnexus.apiservice.support.H2PostgresFunctions.setBit';
@@ -3,14 +3,26 @@ import { Routes, Route, Navigate, useNavigate, useLocation } from 'react-router-
 function OAuth2RedirectHandler() {
   const navigate = useNavigate();
   const location = useLocation();
+  // The code is single-use: StrictMode runs effects twice in development.
+  const exchanged = React.useRef(false);
   React.useEffect(() => {
+    if (exchanged.current) return;
+    exchanged.current = true;
     const params = new URLSearchParams(location.search);
-    const token = params.get('token');
-    if (token) {
-      localStorage.setItem('token', token);
-      // Optionally, fetch user info here and store roles/email if needed
+    const code = params.get('code');
+    if (!code) {
+      navigate('/login', { replace: true });
+      return;
     }
-    navigate('/', { replace: true });
+    exchangeSignInCodeApi(code)
+      .then((jwt) => {
+        localStorage.setItem('token', jwt.accessToken);
+        if (jwt.refreshToken) localStorage.setItem('refreshToken', jwt.refreshToken);
+        localStorage.setItem('userEmail', jwt.email ?? '');
+        localStorage.setItem('userRoles', JSON.stringify(jwt.roles ?? []));
+        navigate('/', { replace: true });
+      })
+      .catch(() => navigate('/login', { replace: true }));
   }, [location, navigate]);
   return <div>Signing in with Google...</div>;
 }
@@ -26,6 +38,7 @@ import Profile from './pages/Profile';
 import './App.css';
 import React from 'react';
 import useNoOrganization from './hooks/useNoOrganization';
+import { exchangeSignInCodeApi } from './services/authService';
 
 function getUserRoles(): string[] {
   try {
@@ -2,6 +2,7 @@ import React from "react";
 import { useNavigate } from "react-router-dom";
 import navbarLogo from "../assets/navbar_logo.png";
 import profileIcon from "../assets/profile_icon.png";
+import { logoutApi } from "../services/authService";
 
 const Navbar: React.FC = () => {
   const navigate = useNavigate();
@@ -259,6 +260,8 @@ const Navbar: React.FC = () => {
                 transition: "box-shadow 0.1s ease, background 0.1s ease",
               }}
               onClick={() => {
+                logoutApi();
+                localStorage.removeItem("token");
                 localStorage.removeItem("userRole");
                 navigate("/login");
               }}
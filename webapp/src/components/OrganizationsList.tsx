@@ -42,25 +42,6 @@ const OrganizationsList: React.FC<OrganizationsListProps> = ({
   PAGE_SIZE = 12,
   onPendingOrgIdsChange, 
 }) => {
-  useEffect(() => {
-    const email = localStorage.getItem("userEmail");
-    if (!email) return;
-    const token = localStorage.getItem("token") || "";
-    fetch(`${API_BASE_URL}/documents`, {
-      headers: {
-        Authorization: `Bearer ${token}`,
-      },
-    })
-      .then(res => res.json())
-      .then((docs: Document[]) => {
-        const userDocs = docs.filter(doc => doc.uploaderEmail === email);
-        console.log("Documents uploaded by user:", userDocs);
-      })
-      .catch(err => {
-        console.error("Failed to fetch documents:", err);
-      });
-  }, []);
-
   const totalOrgs = orgs.length;
   const pageCount = Math.ceil(totalOrgs / PAGE_SIZE);
   const pagedOrgs = orgs.slice((page - 1) * PAGE_SIZE, page * PAGE_SIZE);
@@ -104,14 +85,14 @@ const OrganizationsList: React.FC<OrganizationsListProps> = ({
   useEffect(() => {
     if (!userEmail) return;
     const token = localStorage.getItem("token") || "";
-    fetch(`${API_BASE_URL}/documents`, {
+    fetch(`${API_BASE_URL}/documents/page?type=CV&limit=1`, {
       headers: {
         Authorization: `Bearer ${token}`,
       },
     })
       .then(res => res.json())
-      .then((docs: Document[]) => {
-        const cvDoc = docs.find(doc => doc.type === "CV");
+      .then((page: { items?: Document[] }) => {
+        const cvDoc = page.items?.[0];
         if (cvDoc && cvDoc.name) {
           setUserCvName(cvDoc.name);
           setUserCvId(cvDoc.id);
@@ -61,6 +61,11 @@ interface UserDocument {
   type?: DocumentType;
 }
 
+type DocumentPageDto = {
+  items?: DocumentDto[];
+  nextCursor?: string | null;
+};
+
 type DocumentDto = {
   id: number;
   name?: string | null;
@@ -167,19 +172,27 @@ const UserDetails: React.FC<UserDetailsProps> = ({ user, onBackToStats, onRemove
     setDocsError(null);
 
     try {
-      const res = await fetch(`${BASE_URL}/documents?uploaderId=${profileId}`, {
-        method: "GET",
-        headers: { Authorization: `Bearer ${token}` },
-        signal,
-      });
-
-      if (!res.ok) {
-        const txt = await res.text().catch(() => "");
-        throw new Error(`Failed to load documents (${res.status}). ${txt}`);
-      }
-
-      const data: unknown = await res.json();
-      const list: DocumentDto[] = Array.isArray(data) ? (data as DocumentDto[]) : [];
+      // Follow the cursor page by page, so no single request has to return every document.
+      const list: DocumentDto[] = [];
+      let cursor: string | null = null;
+      do {
+        const params = new URLSearchParams({ uploaderId: profileId, limit: "200" });
+        if (cursor) params.set("cursor", cursor);
+        const res = await fetch(`${BASE_URL}/documents/page?${params}`, {
+          method: "GET",
+          headers: { Authorization: `Bearer ${token}` },
+          signal,
+        });
+
+        if (!res.ok) {
+          const txt = await res.text().catch(() => "");
+          throw new Error(`Failed to load documents (${res.status}). ${txt}`);
+        }
+
+        const page: DocumentPageDto = await res.json();
+        list.push(...(page.items ?? []));
+        cursor = page.nextCursor ?? null;
+      } while (cursor);
 
       const mapped: UserDocument[] = list
         .map((d) => {
@@ -3,6 +3,9 @@ import { createRoot } from 'react-dom/client';
 import { BrowserRouter } from 'react-router-dom';
 import './index.css';
 import App from './App.tsx';
+import { installTokenRefresh } from './services/tokenRefresh';
+
+installTokenRefresh();
 
 createRoot(document.getElementById('root')!).render(
   <StrictMode>
@@ -33,6 +33,7 @@ type FormErrors = {
 
 type JwtResponse = {
   accessToken?: string;
+  refreshToken?: string;
   token?: string;
   jwt?: string;
   email?: string;
@@ -101,6 +102,7 @@ const Login: React.FC = () => {
 
       const token = jwt.accessToken || jwt.token || jwt.jwt || "";
       localStorage.setItem('token', token);
+      if (jwt.refreshToken) localStorage.setItem('refreshToken', jwt.refreshToken);
 
       localStorage.setItem('userEmail', jwt.email ?? '');
       localStorage.setItem('userRoles', JSON.stringify(jwt.roles ?? []));
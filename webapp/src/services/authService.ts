@@ -7,6 +7,7 @@ export type LoginRequest = {
 
 export type JwtResponse = {
   accessToken: string;
+  refreshToken?: string;
   tokenType: string;
   id: string;
   email: string;
@@ -55,3 +56,33 @@ export async function registerApi(body: RegisterRequest): Promise<string> {
 
   return data.message ?? 'Registered successfully';
 }
+
+export async function exchangeSignInCodeApi(code: string): Promise<JwtResponse> {
+  const res = await fetch(`${API_URL}/oauth2/exchange`, {
+    method: 'POST',
+    headers: {
+      'Content-Type': 'application/json',
+    },
+    body: JSON.stringify({ code }),
+  });
+
+  if (!res.ok) {
+    throw new Error(`Sign-in failed with status ${res.status}`);
+  }
+
+  return res.json();
+}
+
+export async function logoutApi(): Promise<void> {
+  const refreshToken = localStorage.getItem('refreshToken');
+  localStorage.removeItem('refreshToken');
+  if (!refreshToken) return;
+
+  await fetch(`${API_URL}/logout`, {
+    method: 'POST',
+    headers: {
+      'Content-Type': 'application/json',
+    },
+    body: JSON.stringify({ refreshToken }),
+  }).catch(() => undefined);
+}
@@ -0,0 +1,57 @@
+const API_ORIGIN = 'http://localhost:8080';
+
+let pendingRefresh: Promise<string | null> | null = null;
+
+// Trades the stored refresh token for a new pair; concurrent 401s share one refresh.
+function refreshAccessToken(originalFetch: typeof fetch): Promise<string | null> {
+  if (!pendingRefresh) {
+    pendingRefresh = (async () => {
+      const refreshToken = localStorage.getItem('refreshToken');
+      if (!refreshToken) return null;
+
+      const res = await originalFetch(`${API_ORIGIN}/auth/refresh`, {
+        method: 'POST',
+        headers: { 'Content-Type': 'application/json' },
+        body: JSON.stringify({ refreshToken }),
+      });
+      if (!res.ok) {
+        localStorage.removeItem('refreshToken');
+        return null;
+      }
+
+      const jwt = await res.json();
+      localStorage.setItem('token', jwt.accessToken);
+      localStorage.setItem('refreshToken', jwt.refreshToken);
+      localStorage.setItem('userRoles', JSON.stringify(jwt.roles ?? []));
+      return jwt.accessToken as string;
+    })().finally(() => {
+      pendingRefresh = null;
+    });
+  }
+  return pendingRefresh;
+}
+
+/**
+ * Access tokens expire after a few minutes. Wraps window.fetch so that a 401 from the API on
+ * a request that carried a token is retried once with a refreshed token.
+ */
+export function installTokenRefresh() {
+  const originalFetch = window.fetch.bind(window);
+
+  window.fetch = async (input: RequestInfo | URL, init?: RequestInit) => {
+    const res = await originalFetch(input, init);
+
+    const url = input instanceof Request ? input.url : input.toString();
+    const headers = new Headers(init?.headers ?? (input instanceof Request ? input.headers : undefined));
+    if (res.status !== 401 || !url.startsWith(API_ORIGIN) || url.startsWith(`${API_ORIGIN}/auth/`)
+        || !headers.has('Authorization')) {
+      return res;
+    }
+
+    const token = await refreshAccessToken(originalFetch);
+    if (!token) return res;
+
+    headers.set('Authorization', `Bearer ${token}`);
+    return originalFetch(input, { ...init, headers });
+  };
+}